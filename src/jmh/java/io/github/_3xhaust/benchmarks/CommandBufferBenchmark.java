@@ -0,0 +1,51 @@
+package io.github._3xhaust.benchmarks;
+
+import io.github._3xhaust.core.CommandBuffer;
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.state.State;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording a view into a reused command buffer (expected to allocate nothing once warm, see
+ * gc.alloc.rate.norm), replaying it into elements, and comparing two frames.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommandBufferBenchmark {
+    @Param({"100", "1000", "10000"})
+    int widgets;
+
+    private View tree;
+    private final CommandBuffer buffer = new CommandBuffer();
+    private final CommandBuffer previous = new CommandBuffer();
+    private final ElementRecorder recorder = new ElementRecorder();
+
+    @Setup
+    public void setup() {
+        State<Integer> counter = State.of(0);
+        tree = Trees.wide(widgets / 3, counter);
+        buffer.record(tree);
+        previous.record(tree);
+    }
+
+    @Benchmark
+    public CommandBuffer recordWide() {
+        buffer.record(tree);
+        return buffer;
+    }
+
+    @Benchmark
+    public Element replayWide() {
+        return recorder.record(previous);
+    }
+
+    @Benchmark
+    public boolean diffWide() {
+        return buffer.sameAs(previous);
+    }
+}
@@ -0,0 +1,67 @@
+package io.github._3xhaust.benchmarks;
+
+import io.github._3xhaust.dsl.GridData;
+import io.github._3xhaust.platform.headless.HeadlessRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static io.github._3xhaust.dsl.Layouts.DataGrid;
+
+/**
+ * Sorting and filtering a columnar grid, which only rewrite the row permutation, and mounting
+ * it, which builds just the rows and columns in view whatever the row count.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GridBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    private GridData data;
+    private GridData.DoubleColumn prices;
+    private HeadlessRenderer renderer;
+    private int sorts;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int[] ids = new int[rows];
+        double[] values = new double[rows];
+        String[] names = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = i;
+            values[i] = random.nextInt(100_000) / 100.0;
+            names[i] = "Item " + random.nextInt(rows);
+        }
+        prices = GridData.doubleColumn("Price", values);
+        data = new GridData(GridData.intColumn("Id", ids), prices, GridData.stringColumn("Name", names));
+        renderer = new HeadlessRenderer();
+    }
+
+    @Benchmark
+    public GridData sortByPrice() {
+        data.sort(1, sorts++ % 2 == 0);
+        return data;
+    }
+
+    @Benchmark
+    public GridData sortByName() {
+        data.sort(2, sorts++ % 2 == 0);
+        return data;
+    }
+
+    @Benchmark
+    public int filter() {
+        data.filter(row -> prices.get(row) > 500);
+        return data.getVisibleRowCount();
+    }
+
+    @Benchmark
+    public HeadlessRenderer mount() {
+        renderer.mount(DataGrid(data));
+        return renderer;
+    }
+}
@@ -0,0 +1,56 @@
+package io.github._3xhaust.benchmarks;
+
+import io.github._3xhaust.core.CachedTextMeasurer;
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.state.State;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout engine on recorded trees: a full pass after a viewport resize, a pass over a clean tree,
+ * and a pass after a single leaf changed.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LayoutBenchmark {
+    @Param({"wide", "deep"})
+    String shape;
+
+    private final LayoutEngine engine = new LayoutEngine(CachedTextMeasurer.awt());
+    private Element root;
+    private Element leaf;
+    private int width = 640;
+
+    @Setup
+    public void setup() {
+        ElementRecorder recorder = new ElementRecorder();
+        root = recorder.record(shape.equals("wide") ? Trees.wide(1000, State.of(0)) : Trees.deep(200));
+        leaf = root;
+        while (!leaf.getChildren().isEmpty()) leaf = leaf.getChildren().get(leaf.getChildren().size() - 1);
+        engine.layout(root, width, 480);
+    }
+
+    @Benchmark
+    public Element resize() {
+        width = width == 640 ? 641 : 640;
+        engine.layout(root, width, 480);
+        return root;
+    }
+
+    @Benchmark
+    public Element clean() {
+        engine.layout(root, width, 480);
+        return root;
+    }
+
+    @Benchmark
+    public Element leafChanged() {
+        LayoutEngine.markNeedsLayout(leaf);
+        engine.layout(root, width, 480);
+        return root;
+    }
+}
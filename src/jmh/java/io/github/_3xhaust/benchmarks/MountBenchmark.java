@@ -0,0 +1,56 @@
+package io.github._3xhaust.benchmarks;
+
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.platform.headless.HeadlessRenderer;
+import io.github._3xhaust.state.State;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mount and update on the headless renderer, which runs the same recorder and reconciler as the
+ * toolkit backends without needing a display.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MountBenchmark {
+    @Param({"100", "1000", "10000"})
+    int widgets;
+
+    private HeadlessRenderer renderer;
+    private View first;
+    private View changed;
+    private View same;
+
+    @Setup
+    public void setup() {
+        State<Integer> counter = State.of(0);
+        int rows = widgets / 3;
+        first = Trees.wide(rows, counter);
+        same = Trees.wide(rows, counter);
+        // Every tenth label differs, the rest of the tree is unchanged
+        changed = Trees.wide(rows, i -> i % 10 == 0 ? "Changed " + i : "Row " + i, counter);
+        renderer = new HeadlessRenderer();
+    }
+
+    @Benchmark
+    public HeadlessRenderer mount() {
+        renderer.mount(first);
+        return renderer;
+    }
+
+    @Benchmark
+    public HeadlessRenderer updateUnchanged() {
+        renderer.mount(first);
+        renderer.update(first, same);
+        return renderer;
+    }
+
+    @Benchmark
+    public HeadlessRenderer updateTenPercent() {
+        renderer.mount(first);
+        renderer.update(first, changed);
+        return renderer;
+    }
+}
@@ -0,0 +1,54 @@
+package io.github._3xhaust.benchmarks;
+
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.platform.swing.ImageRasterizer;
+import io.github._3xhaust.state.State;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offscreen rasterization throughput, images per second. The rasterizer is shared by all
+ * benchmark threads; compare the single-threaded score with the all-cores one to see how it
+ * scales.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RasterBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+    @Param({"100", "1000", "10000"})
+    int widgets;
+
+    private View tree;
+    private final ImageRasterizer rasterizer = new ImageRasterizer();
+
+    @Setup
+    public void setup() {
+        tree = Trees.wide(widgets / 3, State.of(0));
+    }
+
+    @Benchmark
+    public BufferedImage rasterize() {
+        return rasterizer.rasterize(tree, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public BufferedImage rasterizeAllCores() {
+        return rasterizer.rasterize(tree, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int thumbnailPngAllCores() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rasterizer.writePng(tree, WIDTH, HEIGHT, 0.25, out);
+        return out.size();
+    }
+}
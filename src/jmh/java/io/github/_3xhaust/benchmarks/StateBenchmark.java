@@ -0,0 +1,52 @@
+package io.github._3xhaust.benchmarks;
+
+import io.github._3xhaust.state.Computed;
+import io.github._3xhaust.state.State;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State.set fan-out to plain listeners and through a chain of computed states.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StateBenchmark {
+    @Param({"1", "10", "100"})
+    int subscribers;
+
+    private State<Integer> fanOut;
+    private State<Integer> chainSource;
+    private int next;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        fanOut = State.of(0);
+        for (int i = 0; i < subscribers; i++) fanOut.subscribe(blackhole::consume);
+
+        chainSource = State.of(0);
+        Computed<Integer> last = State.computed(() -> chainSource.get() + 1);
+        for (int i = 1; i < subscribers; i++) {
+            Computed<Integer> previous = last;
+            last = State.computed(() -> previous.get() + 1);
+        }
+        last.subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void setFanOut() {
+        fanOut.set(++next);
+    }
+
+    @Benchmark
+    public void setComputedChain() {
+        chainSource.set(++next);
+    }
+
+    @Benchmark
+    public void updateAndGet() {
+        fanOut.updateAndGet(v -> v + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package io.github._3xhaust.benchmarks;
+
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.state.State;
+
+import java.util.function.IntFunction;
+
+import static io.github._3xhaust.dsl.Layouts.*;
+import static io.github._3xhaust.dsl.Widgets.*;
+
+/**
+ * View trees shared by the benchmarks.
+ */
+final class Trees {
+    private Trees() {
+    }
+
+    /**
+     * A column of {@code rows} rows, each with a label, a bound text and a button.
+     */
+    static View wide(int rows, State<Integer> counter) {
+        return wide(rows, i -> "Row " + i, counter);
+    }
+
+    static View wide(int rows, IntFunction<String> label, State<Integer> counter) {
+        View[] children = new View[rows];
+        for (int i = 0; i < rows; i++) {
+            children[i] = Keyed(i, Row(
+                    Text(label.apply(i)),
+                    Text(counter),
+                    Button("+", () -> counter.update(v -> v + 1))
+            ).gap(8));
+        }
+        return Column(children);
+    }
+
+    /**
+     * Alternating columns and rows nested {@code depth} levels, with a text at every level.
+     */
+    static View deep(int depth) {
+        View view = Text("leaf");
+        for (int i = depth; i > 0; i--) {
+            view = i % 2 == 0 ? Column(Text("level " + i), view) : Row(Text("level " + i), view);
+        }
+        return view;
+    }
+}
@@ -0,0 +1,46 @@
+package io.github._3xhaust.benchmarks;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.state.State;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of constructing View trees through Layouts/Widgets and recording them into elements.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ViewBuildBenchmark {
+    @Param({"100", "1000", "10000"})
+    int widgets;
+
+    private State<Integer> counter;
+    private View tree;
+    private final ElementRecorder recorder = new ElementRecorder();
+
+    @Setup
+    public void setup() {
+        counter = State.of(0);
+        tree = Trees.wide(widgets / 3, counter);
+    }
+
+    @Benchmark
+    public View buildWide() {
+        return Trees.wide(widgets / 3, counter);
+    }
+
+    @Benchmark
+    public View buildDeep() {
+        return Trees.deep(widgets / 2);
+    }
+
+    @Benchmark
+    public Element recordWide() {
+        return recorder.record(tree);
+    }
+}
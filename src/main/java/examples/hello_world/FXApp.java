@@ -1,12 +1,18 @@
 package examples.hello_world;
 
 import io.github._3xhaust.core.App;
+import io.github._3xhaust.core.RenderMetrics;
 import io.github._3xhaust.core.Renderer;
 import io.github._3xhaust.core.View;
+import io.github._3xhaust.platform.javafx.JavaFXCanvasRenderer;
 import io.github._3xhaust.platform.javafx.JavaFXRenderer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
+import java.time.Duration;
+import java.time.Instant;
+
 public class FXApp extends Application {
     public static View MyApp() {
         return Main.MyApp();
@@ -14,11 +20,33 @@ public class FXApp extends Application {
 
     @Override
     public void start(Stage stage) {
-        Renderer renderer = new JavaFXRenderer(stage);
+        // --backend=canvas draws onto a single Canvas instead of one scene node per widget
+        String backend = getParameters().getNamed().getOrDefault("backend", "nodes");
+        Renderer renderer = backend.equals("canvas") ? new JavaFXCanvasRenderer(stage) : new JavaFXRenderer(stage);
+        if (getParameters().getRaw().contains("--startup-probe")) {
+            // The first tree is built off the FX thread; this fires once it has been applied
+            RenderMetrics.install(new RenderMetrics() {
+                @Override
+                public void firstMount(long nanos) {
+                    System.out.println("first mount: " + millisSinceProcessStart() + " ms");
+                    Platform.runLater(Platform::exit);
+                }
+            });
+        }
         renderer.init("MyApp", 640, 480);
         renderer.mount(MyApp());
     }
 
+    /**
+     * Time since the process started, so VM startup is included and JVM and native-image runs
+     * compare directly. The OS reports the start time at clock-tick resolution (about 10 ms).
+     */
+    private static long millisSinceProcessStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L);
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
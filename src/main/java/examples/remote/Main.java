@@ -0,0 +1,50 @@
+package examples.remote;
+
+import io.github._3xhaust.core.App;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.platform.swing.SwingRenderer;
+import io.github._3xhaust.remote.RemoteClient;
+import io.github._3xhaust.remote.RemoteRenderer;
+import io.github._3xhaust.state.State;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import static io.github._3xhaust.dsl.Layouts.*;
+import static io.github._3xhaust.dsl.Widgets.*;
+
+/**
+ * One server process driving any number of displays:
+ * {@code serve 7000} starts the server, {@code connect localhost 7000} opens a display. Every
+ * display shows the same counter; a click on any of them updates all of them.
+ */
+public class Main {
+    static final State<Integer> COUNT = State.of(0);
+
+    public static View Dashboard() {
+        return Column(
+                Label("Shared counter"),
+                Row(
+                        Button("-", () -> COUNT.update(v -> Math.max(0, v - 1))),
+                        Text(COUNT),
+                        Button("+", () -> COUNT.update(v -> v + 1))
+                )
+        );
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("serve")) {
+            try (ServerSocket server = new ServerSocket(Integer.parseInt(args[1]))) {
+                while (true) {
+                    Socket socket = server.accept();
+                    App.run(new RemoteRenderer(socket), "Dashboard", 320, 120, Dashboard());
+                }
+            }
+        } else if (args.length >= 3 && args[0].equals("connect")) {
+            new RemoteClient(new Socket(args[1], Integer.parseInt(args[2])), new SwingRenderer()).run();
+        } else {
+            System.err.println("usage: serve <port> | connect <host> <port>");
+        }
+    }
+}
@@ -2,29 +2,28 @@ package io.github._3xhaust.core;
 
 import io.github._3xhaust.platform.swing.SwingRenderer;
 
-import javax.swing.*;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Entry points that open a window and mount a view. The mount is queued behind initialization,
+ * so it runs once the window exists; the returned future completes when the renderer is ready.
+ */
 public class App {
-    public static void run(View view) {
-        SwingRenderer renderer = new SwingRenderer();
-        renderer.init("MyApp", 640, 480);
-        SwingUtilities.invokeLater(() -> renderer.mount(view));
+    public static CompletableFuture<Void> run(View view) {
+        return run(new SwingRenderer(), "MyApp", 640, 480, view);
     }
 
-    public static void run(String title, View view) {
-        SwingRenderer renderer = new SwingRenderer();
-        renderer.init(title, 640, 480);
-        SwingUtilities.invokeLater(() -> renderer.mount(view));
+    public static CompletableFuture<Void> run(String title, View view) {
+        return run(new SwingRenderer(), title, 640, 480, view);
     }
 
-    public static void run(String title, int width, int height, View view) {
-        SwingRenderer renderer = new SwingRenderer();
-        renderer.init(title, width, height);
-        SwingUtilities.invokeLater(() -> renderer.mount(view));
+    public static CompletableFuture<Void> run(String title, int width, int height, View view) {
+        return run(new SwingRenderer(), title, width, height, view);
     }
 
-    public static void run(Renderer renderer, String title, int width, int height, View view) {
-        renderer.init(title, width, height);
+    public static CompletableFuture<Void> run(Renderer renderer, String title, int width, int height, View view) {
+        CompletableFuture<Void> ready = renderer.init(title, width, height);
         renderer.mount(view);
+        return ready;
     }
 }
@@ -0,0 +1,26 @@
+package io.github._3xhaust.core;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Text metrics from AWT, matching what Swing labels and buttons report. Works without a display.
+ */
+public class AwtTextMeasurer implements TextMeasurer {
+    private final Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+    @Override
+    public int width(String text, Font font) {
+        return graphics.getFontMetrics(font).stringWidth(text);
+    }
+
+    @Override
+    public int lineHeight(Font font) {
+        return graphics.getFontMetrics(font).getHeight();
+    }
+
+    @Override
+    public int ascent(Font font) {
+        return graphics.getFontMetrics(font).getAscent();
+    }
+}
@@ -0,0 +1,96 @@
+package io.github._3xhaust.core;
+
+import java.awt.*;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memoizes another {@link TextMeasurer}. Line metrics are kept per font; string widths are kept
+ * per font in an LRU map, so repeated labels are measured once. Synchronized, so one instance can
+ * be shared by several renderers.
+ */
+public class CachedTextMeasurer implements TextMeasurer {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final class Holder {
+        static final CachedTextMeasurer AWT = new CachedTextMeasurer(new AwtTextMeasurer(), DEFAULT_CAPACITY);
+    }
+
+    private final TextMeasurer delegate;
+    private final int capacity;
+    private final Map<Font, Metrics> metrics = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    private final class Metrics {
+        final int lineHeight;
+        final int ascent;
+        final LinkedHashMap<String, Integer> widths = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        Metrics(Font font) {
+            lineHeight = delegate.lineHeight(font);
+            ascent = delegate.ascent(font);
+        }
+    }
+
+    public CachedTextMeasurer(TextMeasurer delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity widths kept per font before the least recently used ones are evicted
+     */
+    public CachedTextMeasurer(TextMeasurer delegate, int capacity) {
+        this.delegate = delegate;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Cache over AWT metrics shared by the Swing and headless renderers.
+     */
+    public static CachedTextMeasurer awt() {
+        return Holder.AWT;
+    }
+
+    private Metrics metrics(Font font) {
+        return metrics.computeIfAbsent(font, Metrics::new);
+    }
+
+    @Override
+    public synchronized int width(String text, Font font) {
+        Metrics entry = metrics(font);
+        Integer width = entry.widths.get(text);
+        if (width != null) {
+            hits++;
+            return width;
+        }
+        misses++;
+        int measured = delegate.width(text, font);
+        entry.widths.put(text, measured);
+        return measured;
+    }
+
+    @Override
+    public synchronized int lineHeight(Font font) {
+        return metrics(font).lineHeight;
+    }
+
+    @Override
+    public synchronized int ascent(Font font) {
+        return metrics(font).ascent;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
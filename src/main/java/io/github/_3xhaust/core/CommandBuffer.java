@@ -0,0 +1,354 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Renderer that records the call stream as int opcodes, with strings, states, handlers and other
+ * operands interned into a side table. The buffer is reused from frame to frame, so once its
+ * arrays have grown to fit a view, recording that view again allocates nothing.
+ *
+ * <p>A recorded buffer is itself a {@link View}: rendering it replays the calls into any
+ * renderer. {@link #sameAs} compares two recordings, so a caller that keeps the previous frame's
+ * buffer can skip a frame that would render the same thing.
+ */
+public final class CommandBuffer implements Renderer, View {
+    private static final int COLUMN = 1;
+    private static final int ROW = 2;
+    private static final int CENTER = 3;
+    private static final int SIZED_BOX = 4;
+    private static final int POP = 5;
+    private static final int TEXT = 6;
+    private static final int STATE_TEXT = 7;
+    private static final int BUTTON = 8;
+    private static final int LAZY = 9;
+    private static final int KEY = 10;
+    private static final int FLEX = 11;
+    private static final int STYLE = 12;
+    private static final int PUSH_THEME = 13;
+    private static final int POP_THEME = 14;
+    private static final int MEMO = 15;
+
+    private static final MainAxisAlignment[] MAIN_AXIS_ALIGNMENTS = MainAxisAlignment.values();
+    private static final CrossAxisAlignment[] CROSS_AXIS_ALIGNMENTS = CrossAxisAlignment.values();
+    private static final MainAxisSize[] MAIN_AXIS_SIZES = MainAxisSize.values();
+
+    private int[] code = new int[256];
+    private int length;
+    private Object[] table = new Object[64];
+    private int tableSize;
+    // Open-addressing index into the table: slot holds table index + 1, 0 when empty
+    private int[] index = new int[128];
+    private int commands;
+
+    /**
+     * Drops the recording but keeps the arrays for the next one.
+     */
+    public void clear() {
+        Arrays.fill(table, 0, tableSize, null);
+        Arrays.fill(index, 0);
+        length = 0;
+        tableSize = 0;
+        commands = 0;
+    }
+
+    /**
+     * Replaces the recording with {@code view}.
+     */
+    public void record(View view) {
+        clear();
+        view.render(this);
+    }
+
+    /** Number of recorded calls. */
+    public int size() { return commands; }
+    /** Number of distinct operands in the table. */
+    public int operands() { return tableSize; }
+
+    /**
+     * Replays the recorded calls into {@code renderer}, in order.
+     */
+    @Override
+    public void render(Renderer renderer) {
+        int pc = 0;
+        while (pc < length) {
+            switch (code[pc++]) {
+                case COLUMN -> {
+                    renderer.pushColumn(MAIN_AXIS_ALIGNMENTS[code[pc]], CROSS_AXIS_ALIGNMENTS[code[pc + 1]],
+                            MAIN_AXIS_SIZES[code[pc + 2]], (Insets) operand(code[pc + 3]), code[pc + 4]);
+                    pc += 5;
+                }
+                case ROW -> {
+                    renderer.pushRow(MAIN_AXIS_ALIGNMENTS[code[pc]], CROSS_AXIS_ALIGNMENTS[code[pc + 1]],
+                            MAIN_AXIS_SIZES[code[pc + 2]], (Insets) operand(code[pc + 3]), code[pc + 4]);
+                    pc += 5;
+                }
+                case CENTER -> renderer.pushCenter();
+                case SIZED_BOX -> {
+                    renderer.pushSizedBox(code[pc], code[pc + 1]);
+                    pc += 2;
+                }
+                case POP -> renderer.pop();
+                case TEXT -> renderer.addText((String) operand(code[pc++]));
+                case STATE_TEXT -> renderer.addText((State<?>) operand(code[pc++]));
+                case BUTTON -> {
+                    renderer.addButton((String) operand(code[pc]), (Runnable) operand(code[pc + 1]));
+                    pc += 2;
+                }
+                case LAZY -> renderer.addLazyList((LazyList) operand(code[pc++]));
+                case KEY -> renderer.key(operand(code[pc++]));
+                case FLEX -> {
+                    renderer.flex(code[pc], code[pc + 1] != 0);
+                    pc += 2;
+                }
+                case STYLE -> renderer.style((ElementStyle) operand(code[pc++]));
+                case PUSH_THEME -> renderer.pushTheme((ThemeOverride) operand(code[pc++]));
+                case POP_THEME -> renderer.popTheme();
+                case MEMO -> renderer.memo((Memo) operand(code[pc++]));
+                default -> throw new IllegalStateException("Corrupt command buffer at " + (pc - 1));
+            }
+        }
+    }
+
+    /**
+     * True when {@code other} recorded the same calls with equal operands. Strings, keys, insets
+     * and theme overrides compare by value, memos by type and inputs, states and handlers by
+     * identity.
+     */
+    public boolean sameAs(CommandBuffer other) {
+        if (other == null || other.length != length || other.commands != commands) return false;
+        int pc = 0;
+        while (pc < length) {
+            int op = code[pc];
+            if (other.code[pc++] != op) return false;
+            int operands = width(op);
+            for (int i = 0; i < operands; i++, pc++) {
+                if (isReference(op, i)) {
+                    if (!same(operand(code[pc]), other.operand(other.code[pc]))) return false;
+                } else if (code[pc] != other.code[pc]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int width(int op) {
+        return switch (op) {
+            case COLUMN, ROW -> 5;
+            case SIZED_BOX, BUTTON, FLEX -> 2;
+            case TEXT, STATE_TEXT, LAZY, KEY, STYLE, PUSH_THEME, MEMO -> 1;
+            default -> 0;
+        };
+    }
+
+    private static boolean isReference(int op, int operand) {
+        return switch (op) {
+            case COLUMN, ROW -> operand == 3;
+            case SIZED_BOX, FLEX -> false;
+            default -> true;
+        };
+    }
+
+    private static boolean same(Object a, Object b) {
+        if (a instanceof Memo memo && b instanceof Memo other) {
+            return memo.type == other.type && memo.sameInputs(other.inputs);
+        }
+        return Objects.equals(a, b);
+    }
+
+    private Object operand(int ref) {
+        return ref < 0 ? null : table[ref];
+    }
+
+    // Recording
+
+    @Override
+    public CompletableFuture<Void> init(String title, int width, int height) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void mount(View root) {
+        record(root);
+    }
+
+    @Override
+    public void update(View oldView, View newView) {
+        record(newView);
+    }
+
+    @Override
+    public void unmount(View view) {
+        clear();
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        pushColumn(mainAxisAlignment, crossAxisAlignment, MainAxisSize.MAX, padding, gap);
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                           MainAxisSize mainAxisSize, Insets padding, int gap) {
+        emit(COLUMN, mainAxisAlignment.ordinal(), crossAxisAlignment.ordinal(), mainAxisSize.ordinal(), intern(padding), gap);
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        pushRow(mainAxisAlignment, crossAxisAlignment, MainAxisSize.MAX, padding, gap);
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                        MainAxisSize mainAxisSize, Insets padding, int gap) {
+        emit(ROW, mainAxisAlignment.ordinal(), crossAxisAlignment.ordinal(), mainAxisSize.ordinal(), intern(padding), gap);
+    }
+
+    @Override
+    public void pushCenter() {
+        emit(CENTER);
+    }
+
+    @Override
+    public void pushSizedBox(int width, int height) {
+        emit(SIZED_BOX, width, height);
+    }
+
+    @Override
+    public void pop() {
+        emit(POP);
+    }
+
+    @Override
+    public void addText(String text) {
+        emit(TEXT, intern(text));
+    }
+
+    @Override
+    public <T> void addText(State<T> state) {
+        emit(STATE_TEXT, intern(state));
+    }
+
+    @Override
+    public void addButton(String text, Runnable onClick) {
+        emit(BUTTON, intern(text), intern(onClick));
+    }
+
+    @Override
+    public void addLazyList(LazyList list) {
+        emit(LAZY, intern(list));
+    }
+
+    @Override
+    public void memo(Memo memo) {
+        emit(MEMO, intern(memo));
+    }
+
+    @Override
+    public void key(Object key) {
+        emit(KEY, intern(key));
+    }
+
+    @Override
+    public void flex(int flex, boolean tight) {
+        emit(FLEX, flex, tight ? 1 : 0);
+    }
+
+    @Override
+    public void style(ElementStyle style) {
+        emit(STYLE, intern(style));
+    }
+
+    @Override
+    public void pushTheme(ThemeOverride override) {
+        emit(PUSH_THEME, intern(override));
+    }
+
+    @Override
+    public void popTheme() {
+        emit(POP_THEME);
+    }
+
+    // Fixed arities keep the hot recording path free of varargs arrays
+    private void emit(int op) {
+        ensure(1);
+        code[length++] = op;
+        commands++;
+    }
+
+    private void emit(int op, int a) {
+        ensure(2);
+        code[length++] = op;
+        code[length++] = a;
+        commands++;
+    }
+
+    private void emit(int op, int a, int b) {
+        ensure(3);
+        code[length++] = op;
+        code[length++] = a;
+        code[length++] = b;
+        commands++;
+    }
+
+    private void emit(int op, int a, int b, int c, int d, int e) {
+        ensure(6);
+        code[length++] = op;
+        code[length++] = a;
+        code[length++] = b;
+        code[length++] = c;
+        code[length++] = d;
+        code[length++] = e;
+        commands++;
+    }
+
+    private void ensure(int count) {
+        if (length + count > code.length) code = Arrays.copyOf(code, Math.max(code.length * 2, length + count));
+    }
+
+    /**
+     * Table index of {@code value}, adding it on first use; -1 for null. Strings and numbers are
+     * interned by value, everything else by identity, so hashing never allocates.
+     */
+    private int intern(Object value) {
+        if (value == null) return -1;
+        boolean byValue = value instanceof String || value instanceof Number;
+        int mask = index.length - 1;
+        int slot = mix(byValue ? value.hashCode() : System.identityHashCode(value)) & mask;
+        while (index[slot] != 0) {
+            Object existing = table[index[slot] - 1];
+            if (existing == value || byValue && value.equals(existing)) return index[slot] - 1;
+            slot = (slot + 1) & mask;
+        }
+        if (tableSize == table.length) table = Arrays.copyOf(table, table.length * 2);
+        table[tableSize] = value;
+        index[slot] = ++tableSize;
+        // Keep the index at most half full
+        if (tableSize * 2 > index.length) rehash();
+        return tableSize - 1;
+    }
+
+    private void rehash() {
+        index = new int[index.length * 2];
+        int mask = index.length - 1;
+        for (int i = 0; i < tableSize; i++) {
+            Object value = table[i];
+            boolean byValue = value instanceof String || value instanceof Number;
+            int slot = mix(byValue ? value.hashCode() : System.identityHashCode(value)) & mask;
+            while (index[slot] != 0) slot = (slot + 1) & mask;
+            index[slot] = i + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
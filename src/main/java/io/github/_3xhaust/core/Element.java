@@ -0,0 +1,271 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Platform-neutral node recorded from the {@link Renderer} call stream. Backends keep their native
+ * component in {@link #getHandle()} so the {@link Reconciler} can carry it over to the next tree.
+ */
+public final class Element {
+    public enum Type {
+        COLUMN,
+        ROW,
+        CENTER,
+        SIZED_BOX,
+        TEXT,
+        BUTTON,
+        LAZY
+    }
+
+    private final Type type;
+    private final Object key;
+    private final List<Element> children = new ArrayList<>();
+    private Element parent;
+
+    // Containers
+    private MainAxisAlignment mainAxisAlignment = MainAxisAlignment.START;
+    private CrossAxisAlignment crossAxisAlignment = CrossAxisAlignment.START;
+    private MainAxisSize mainAxisSize = MainAxisSize.MAX;
+    private Insets padding;
+    private int gap;
+    private int width;
+    private int height;
+
+    // Leaves
+    private String text;
+    private State<?> state;
+    private Runnable onClick;
+    private LazyList lazyList;
+    private ElementStyle style = ElementStyle.EMPTY;
+
+    // Theme resolved at record time, and the override this element applies to its parent's
+    Theme theme = Theme.LIGHT;
+    ThemeOverride themeOverride;
+
+    // Flex parent data (Expanded/Flexible)
+    private int flex;
+    private boolean tightFlex;
+
+    private Object handle;
+
+    // Position among the unkeyed siblings of the same type, which is how the reconciler pairs them
+    int ordinal = -1;
+
+    // Mounted element a memo copied this one from, until the reconciler pairs the two
+    Element memoSource;
+
+    // Layout results relative to the parent, and the constraints they were computed for
+    int layoutX;
+    int layoutY;
+    int layoutWidth;
+    int layoutHeight;
+    boolean needsLayout = true;
+    boolean needsPaint;
+    boolean relayoutBoundary;
+    int minWidthConstraint = -1;
+    int maxWidthConstraint = -1;
+    int minHeightConstraint = -1;
+    int maxHeightConstraint = -1;
+
+    private Element(Type type, Object key) {
+        this.type = type;
+        this.key = key;
+    }
+
+    /**
+     * Root container matching the top-level column every backend mounts into.
+     */
+    public static Element root() {
+        return new Element(Type.COLUMN, null);
+    }
+
+    static Element container(Type type, Object key,
+                             MainAxisAlignment mainAxisAlignment,
+                             CrossAxisAlignment crossAxisAlignment,
+                             Insets padding,
+                             int gap) {
+        Element element = new Element(type, key);
+        element.mainAxisAlignment = mainAxisAlignment;
+        element.crossAxisAlignment = crossAxisAlignment;
+        element.padding = padding;
+        element.gap = gap;
+        return element;
+    }
+
+    static Element sizedBox(Object key, int width, int height) {
+        Element element = new Element(Type.SIZED_BOX, key);
+        element.width = width;
+        element.height = height;
+        return element;
+    }
+
+    static Element text(Object key, String text) {
+        Element element = new Element(Type.TEXT, key);
+        element.text = text;
+        return element;
+    }
+
+    static Element text(Object key, State<?> state) {
+        Element element = new Element(Type.TEXT, key);
+        element.state = state;
+        return element;
+    }
+
+    static Element button(Object key, String text, Runnable onClick) {
+        Element element = new Element(Type.BUTTON, key);
+        element.text = text;
+        element.onClick = onClick;
+        return element;
+    }
+
+    static Element lazy(Object key, LazyList lazyList) {
+        Element element = new Element(Type.LAZY, key);
+        element.lazyList = lazyList;
+        return element;
+    }
+
+    void addChild(Element child) {
+        child.parent = this;
+        children.add(child);
+    }
+
+    void setMainAxisSize(MainAxisSize mainAxisSize) {
+        this.mainAxisSize = mainAxisSize;
+    }
+
+    void setStyle(ElementStyle style) {
+        this.style = style;
+    }
+
+    void setFlex(int flex, boolean tight) {
+        this.flex = flex;
+        this.tightFlex = tight;
+    }
+
+    /**
+     * Takes over the layout of an element that was carried over unchanged, subtree included.
+     */
+    void adoptLayout(Element previous) {
+        layoutX = previous.layoutX;
+        layoutY = previous.layoutY;
+        layoutWidth = previous.layoutWidth;
+        layoutHeight = previous.layoutHeight;
+        relayoutBoundary = previous.relayoutBoundary;
+        minWidthConstraint = previous.minWidthConstraint;
+        maxWidthConstraint = previous.maxWidthConstraint;
+        minHeightConstraint = previous.minHeightConstraint;
+        maxHeightConstraint = previous.maxHeightConstraint;
+        needsLayout = false;
+    }
+
+    /**
+     * Copies this element and its subtree, handles and layout included, so a memo can reuse what
+     * it recorded without touching the mounted originals. Each original is mapped to its copy in
+     * {@code copies} when that is not null.
+     */
+    Element copyTree(Map<Element, Element> copies) {
+        Element copy = new Element(type, key);
+        copy.mainAxisAlignment = mainAxisAlignment;
+        copy.crossAxisAlignment = crossAxisAlignment;
+        copy.mainAxisSize = mainAxisSize;
+        copy.padding = padding;
+        copy.gap = gap;
+        copy.width = width;
+        copy.height = height;
+        copy.text = text;
+        copy.state = state;
+        copy.onClick = onClick;
+        copy.lazyList = lazyList;
+        copy.style = style;
+        copy.theme = theme;
+        copy.themeOverride = themeOverride;
+        copy.flex = flex;
+        copy.tightFlex = tightFlex;
+        copy.handle = handle;
+        copy.ordinal = ordinal;
+        copy.adoptLayout(this);
+        copy.needsLayout = needsLayout;
+        for (Element child : children) copy.addChild(child.copyTree(copies));
+        if (copies != null) copies.put(this, copy);
+        return copy;
+    }
+
+    public boolean isContainer() {
+        return type != Type.TEXT && type != Type.BUTTON && type != Type.LAZY;
+    }
+
+    /**
+     * True when the two elements differ only in their children, so no patch is needed.
+     */
+    public boolean sameProps(Element other) {
+        return type == other.type
+                && mainAxisAlignment == other.mainAxisAlignment
+                && crossAxisAlignment == other.crossAxisAlignment
+                && mainAxisSize == other.mainAxisSize
+                && Objects.equals(padding, other.padding)
+                && gap == other.gap
+                && width == other.width
+                && height == other.height
+                && Objects.equals(text, other.text)
+                && state == other.state
+                && onClick == other.onClick
+                && Objects.equals(lazyList, other.lazyList)
+                && style == other.style
+                && theme == other.theme
+                && flex == other.flex
+                && tightFlex == other.tightFlex;
+    }
+
+    /**
+     * Text to display, resolved from the bound state when there is one.
+     */
+    public String displayText() {
+        if (state != null) {
+            Object value = state.peek();
+            return value != null ? value.toString() : "";
+        }
+        return text != null ? text : "";
+    }
+
+    public Type getType() { return type; }
+    public Object getKey() { return key; }
+    public List<Element> getChildren() { return children; }
+    public Element getParent() { return parent; }
+    public MainAxisAlignment getMainAxisAlignment() { return mainAxisAlignment; }
+    public CrossAxisAlignment getCrossAxisAlignment() { return crossAxisAlignment; }
+    public MainAxisSize getMainAxisSize() { return mainAxisSize; }
+    public Insets getPadding() { return padding; }
+    public int getGap() { return gap; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public String getText() { return text; }
+    public State<?> getState() { return state; }
+    public Runnable getOnClick() { return onClick; }
+    public LazyList getLazyList() { return lazyList; }
+    public ElementStyle getStyle() { return style; }
+    public Theme getTheme() { return theme; }
+    public ThemeOverride getThemeOverride() { return themeOverride; }
+    public int getFlex() { return flex; }
+    public boolean isTightFlex() { return tightFlex; }
+
+    public int getLayoutX() { return layoutX; }
+    public int getLayoutY() { return layoutY; }
+    public int getLayoutWidth() { return layoutWidth; }
+    public int getLayoutHeight() { return layoutHeight; }
+    public boolean needsLayout() { return needsLayout; }
+    public boolean needsPaint() { return needsPaint; }
+    public boolean isRelayoutBoundary() { return relayoutBoundary; }
+
+    public Object getHandle() { return handle; }
+    public void setHandle(Object handle) { this.handle = handle; }
+}
@@ -0,0 +1,439 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Renderer that records the call stream into an {@link Element} tree instead of building native
+ * components. Backends forward their container/leaf calls here and reconcile the result.
+ */
+public class ElementRecorder implements Renderer {
+
+    /** Where an ancestor sits for the reconciler: its key, or its ordinal among unkeyed siblings. */
+    private record Step(Element.Type type, Object key, int ordinal) {
+    }
+
+    /** A memo's place in the tree: the path to its parent and its key or index there. */
+    private record MemoSlot(List<Step> parent, Object type, Object key, int index) {
+    }
+
+    /** What a memo recorded, and everything its elements were recorded under. */
+    private record MemoEntry(MemoSlot slot, Object[] inputs, Theme theme, List<ThemeOverride> overrides,
+                             int flex, boolean tightFlex, ElementStyle style, List<Element> elements,
+                             List<MemoEntry> nested) {
+    }
+
+    private final Deque<Element> stack = new ArrayDeque<>();
+    private Element root;
+    private Element mounted;
+    private Object pendingKey;
+    private int pendingFlex;
+    private boolean pendingTightFlex;
+    private ElementStyle pendingStyle;
+    private Theme theme = Theme.LIGHT;
+    // Active overrides, and how many of them were active when each open container was pushed
+    private final List<ThemeOverride> overrides = new ArrayList<>();
+    private final Deque<Integer> overrideMarks = new ArrayDeque<>();
+    private long recordingStarted;
+    // Unkeyed children added so far to each open container, by type
+    private final List<int[]> ordinals = new ArrayList<>();
+    // Memos of the last finished recording, of the one in progress, and those recorded inside each
+    // memo body being rendered, which a reused parent carries over
+    private Element lastRecorded;
+    private Map<MemoSlot, MemoEntry> memos = new HashMap<>();
+    private Map<MemoSlot, MemoEntry> nextMemos = new HashMap<>();
+    private final Deque<List<MemoEntry>> memoFrames = new ArrayDeque<>();
+    private int skipped;
+    private int rendered;
+    private int lastSkipped;
+    private int lastRendered;
+
+    /**
+     * Starts a new recording under a fresh root element, without reusing memoized subtrees.
+     */
+    public void begin() {
+        begin(null);
+    }
+
+    /**
+     * Starts a new recording that will be diffed against {@code previous}. Memoized subtrees are
+     * reused only when {@code previous} is the tree this recorder returned last, since their
+     * elements must be paired with themselves.
+     */
+    public void begin(Element previous) {
+        if (previous == null || previous != lastRecorded) memos.clear();
+        stack.clear();
+        overrides.clear();
+        overrideMarks.clear();
+        root = Element.root();
+        root.theme = theme;
+        stack.push(root);
+        overrideMarks.push(0);
+        Arrays.fill(ordinals(0), 0);
+        nextMemos.clear();
+        memoFrames.clear();
+        skipped = 0;
+        rendered = 0;
+        pendingKey = null;
+        pendingFlex = 0;
+        pendingStyle = null;
+        recordingStarted = System.nanoTime();
+    }
+
+    /**
+     * Finishes the current recording and returns its root.
+     */
+    public Element end() {
+        RenderMetrics metrics = RenderMetrics.current();
+        metrics.phase(RenderMetrics.Phase.BUILD, System.nanoTime() - recordingStarted);
+        if (skipped + rendered > 0) metrics.memo(skipped, rendered);
+        lastSkipped = skipped;
+        lastRendered = rendered;
+        // Only the recording just finished can be reused; see begin(Element)
+        Map<MemoSlot, MemoEntry> finished = nextMemos;
+        nextMemos = memos;
+        nextMemos.clear();
+        memos = finished;
+        memoFrames.clear();
+        Element result = root;
+        lastRecorded = result;
+        stack.clear();
+        overrides.clear();
+        overrideMarks.clear();
+        root = null;
+        pendingKey = null;
+        pendingFlex = 0;
+        pendingStyle = null;
+        return result;
+    }
+
+    public Element record(View view) {
+        return record(view, null);
+    }
+
+    /**
+     * Records {@code view} for a diff against {@code previous}; see {@link #begin(Element)}.
+     */
+    public Element record(View view, Element previous) {
+        begin(previous);
+        view.render(this);
+        return end();
+    }
+
+    /**
+     * Memo bodies the last recording skipped because their inputs were unchanged.
+     */
+    public int getSkipped() {
+        return lastSkipped;
+    }
+
+    /**
+     * Memo bodies the last recording had to render.
+     */
+    public int getRendered() {
+        return lastRendered;
+    }
+
+    public Element getMounted() {
+        return mounted;
+    }
+
+    @Override
+    public CompletableFuture<Void> init(String title, int width, int height) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void mount(View root) {
+        mounted = record(root);
+    }
+
+    @Override
+    public void update(View oldView, View newView) {
+        mounted = record(newView, mounted);
+    }
+
+    @Override
+    public void unmount(View view) {
+        mounted = null;
+    }
+
+    @Override
+    public void key(Object key) {
+        pendingKey = key;
+    }
+
+    private Object takeKey() {
+        Object key = pendingKey;
+        pendingKey = null;
+        return key;
+    }
+
+    @Override
+    public void flex(int flex, boolean tight) {
+        pendingFlex = flex;
+        pendingTightFlex = tight;
+    }
+
+    @Override
+    public void style(ElementStyle style) {
+        pendingStyle = style;
+    }
+
+    /**
+     * Base theme for the roots of the next recordings.
+     */
+    @Override
+    public void setTheme(Theme theme) {
+        this.theme = theme;
+    }
+
+    public Theme getTheme() {
+        return theme;
+    }
+
+    @Override
+    public void pushTheme(ThemeOverride override) {
+        overrides.add(override);
+    }
+
+    @Override
+    public void popTheme() {
+        if (!overrides.isEmpty()) overrides.remove(overrides.size() - 1);
+    }
+
+    /**
+     * Resolves the theme of an element added to the current container from the overrides pushed
+     * since that container was opened.
+     */
+    private void resolveTheme(Element element, Element parent) {
+        int mark = overrideMark();
+        int count = overrides.size() - mark;
+        if (count == 0) {
+            element.theme = parent.theme;
+            return;
+        }
+        element.themeOverride = count == 1
+                ? overrides.get(mark)
+                : ThemeOverride.compose(overrides.subList(mark, overrides.size()));
+        element.theme = parent.theme.derive(element.themeOverride);
+    }
+
+    private int overrideMark() {
+        return overrideMarks.isEmpty() ? 0 : Math.min(overrideMarks.peek(), overrides.size());
+    }
+
+    private int[] ordinals(int depth) {
+        while (ordinals.size() <= depth) ordinals.add(new int[Element.Type.values().length]);
+        return ordinals.get(depth);
+    }
+
+    private void add(Element element) {
+        if (pendingFlex > 0) {
+            element.setFlex(pendingFlex, pendingTightFlex);
+            pendingFlex = 0;
+        }
+        if (pendingStyle != null) {
+            element.setStyle(pendingStyle);
+            pendingStyle = null;
+        }
+        if (!stack.isEmpty()) {
+            resolveTheme(element, stack.peek());
+            if (element.getKey() == null) element.ordinal = ordinals(stack.size() - 1)[element.getType().ordinal()]++;
+            stack.peek().addChild(element);
+        }
+    }
+
+    private void push(Element element) {
+        if (stack.isEmpty()) return;
+        add(element);
+        stack.push(element);
+        overrideMarks.push(overrides.size());
+        Arrays.fill(ordinals(stack.size() - 1), 0);
+    }
+
+    /**
+     * Adds copies of the elements {@code memo} recorded last time when its inputs, theme and parent
+     * data are unchanged and the reconciler will pair each copy with its original; renders its body
+     * otherwise.
+     */
+    @Override
+    public void memo(Memo memo) {
+        Element parent = stack.peek();
+        if (parent == null) {
+            memo.body.get().render(this);
+            return;
+        }
+        List<ThemeOverride> active = List.copyOf(overrides.subList(overrideMark(), overrides.size()));
+        MemoSlot slot = new MemoSlot(path(), memo.type, pendingKey,
+                pendingKey != null ? -1 : parent.getChildren().size());
+        MemoEntry previous = memos.get(slot);
+        if (previous != null && reusable(previous, memo, parent, active)) {
+            int[] counts = ordinals(stack.size() - 1);
+            // The originals are still mounted and may be on screen, so the new tree gets copies
+            Map<Element, Element> copies = previous.nested.isEmpty() ? null : new IdentityHashMap<>();
+            List<Element> elements = new ArrayList<>(previous.elements.size());
+            for (Element element : previous.elements) {
+                if (element.getKey() == null) counts[element.getType().ordinal()]++;
+                Element copy = element.copyTree(copies);
+                copy.memoSource = element;
+                parent.addChild(copy);
+                elements.add(copy);
+            }
+            pendingKey = null;
+            pendingFlex = 0;
+            pendingStyle = null;
+            skipped++;
+            keep(copied(previous, List.copyOf(elements), copies));
+            return;
+        }
+
+        rendered++;
+        Theme theme = parent.theme;
+        int flex = pendingFlex;
+        boolean tightFlex = pendingTightFlex;
+        ElementStyle style = pendingStyle;
+        int start = parent.getChildren().size();
+        memoFrames.push(new ArrayList<>());
+        memo.body.get().render(this);
+        List<MemoEntry> nested = memoFrames.pop();
+        // An unbalanced body leaves nothing that could be reused safely
+        if (stack.peek() != parent) return;
+        List<Element> children = parent.getChildren();
+        keep(new MemoEntry(slot, memo.inputs, theme, active, flex, tightFlex, style,
+                List.copyOf(children.subList(start, children.size())), nested));
+    }
+
+    private boolean reusable(MemoEntry previous, Memo memo, Element parent, List<ThemeOverride> active) {
+        if (previous.theme != parent.theme || !previous.overrides.equals(active)) return false;
+        if (previous.flex != pendingFlex || previous.tightFlex != pendingTightFlex || previous.style != pendingStyle) return false;
+        if (!memo.sameInputs(previous.inputs)) return false;
+        // Unkeyed elements must land on the ordinals they had, or they would be paired with others
+        int[] counts = ordinals(stack.size() - 1);
+        List<Element> elements = previous.elements;
+        for (int i = 0; i < elements.size(); i++) {
+            Element element = elements.get(i);
+            if (element.getKey() != null) continue;
+            int expected = counts[element.getType().ordinal()];
+            for (int j = 0; j < i; j++) {
+                Element before = elements.get(j);
+                if (before.getKey() == null && before.getType() == element.getType()) expected++;
+            }
+            if (element.ordinal != expected) return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@code entry} pointing at the copies of its elements, nested memos included.
+     */
+    private static MemoEntry copied(MemoEntry entry, List<Element> elements, Map<Element, Element> copies) {
+        List<MemoEntry> nested = new ArrayList<>(entry.nested.size());
+        for (MemoEntry inner : entry.nested) {
+            List<Element> innerElements = new ArrayList<>(inner.elements.size());
+            for (Element element : inner.elements) innerElements.add(copies.getOrDefault(element, element));
+            nested.add(copied(inner, List.copyOf(innerElements), copies));
+        }
+        return new MemoEntry(entry.slot, entry.inputs, entry.theme, entry.overrides, entry.flex, entry.tightFlex,
+                entry.style, elements, List.copyOf(nested));
+    }
+
+    private void keep(MemoEntry entry) {
+        nextMemos.put(entry.slot, entry);
+        for (MemoEntry nested : entry.nested) nextMemos.put(nested.slot, nested);
+        List<MemoEntry> frame = memoFrames.peek();
+        if (frame != null) {
+            frame.add(entry);
+            frame.addAll(entry.nested);
+        }
+    }
+
+    private List<Step> path() {
+        Step[] steps = new Step[stack.size() - 1];
+        int i = steps.length;
+        for (Element element : stack) {
+            if (element == root) break;
+            steps[--i] = new Step(element.getType(), element.getKey(), element.ordinal);
+        }
+        return List.of(steps);
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        pushColumn(mainAxisAlignment, crossAxisAlignment, MainAxisSize.MAX, padding, gap);
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                           MainAxisSize mainAxisSize, Insets padding, int gap) {
+        Element column = Element.container(Element.Type.COLUMN, takeKey(), mainAxisAlignment, crossAxisAlignment, padding, gap);
+        column.setMainAxisSize(mainAxisSize);
+        push(column);
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        pushRow(mainAxisAlignment, crossAxisAlignment, MainAxisSize.MAX, padding, gap);
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                        MainAxisSize mainAxisSize, Insets padding, int gap) {
+        Element row = Element.container(Element.Type.ROW, takeKey(), mainAxisAlignment, crossAxisAlignment, padding, gap);
+        row.setMainAxisSize(mainAxisSize);
+        push(row);
+    }
+
+    @Override
+    public void pushCenter() {
+        push(Element.container(Element.Type.CENTER, takeKey(), MainAxisAlignment.CENTER, CrossAxisAlignment.CENTER, null, 0));
+    }
+
+    @Override
+    public void pushSizedBox(int width, int height) {
+        push(Element.sizedBox(takeKey(), width, height));
+    }
+
+    @Override
+    public void pop() {
+        // The root is popped only by end()
+        if (stack.size() > 1) {
+            stack.pop();
+            overrideMarks.pop();
+        }
+    }
+
+    @Override
+    public void addText(String text) {
+        add(Element.text(takeKey(), text));
+    }
+
+    @Override
+    public <T> void addText(State<T> state) {
+        add(Element.text(takeKey(), state));
+    }
+
+    @Override
+    public void addButton(String text, Runnable onClick) {
+        add(Element.button(takeKey(), text, onClick));
+    }
+
+    @Override
+    public void addLazyList(LazyList list) {
+        add(Element.lazy(takeKey(), list));
+    }
+}
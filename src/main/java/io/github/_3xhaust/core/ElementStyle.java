@@ -0,0 +1,162 @@
+package io.github._3xhaust.core;
+
+import java.awt.*;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable, interned visual style of a leaf element. Styles are only created through
+ * {@link Builder#build()}, which returns the shared instance for equal field values, so identically
+ * styled widgets share one object and a restyle is detected with {@code ==}. The table holds
+ * styles weakly, so those no element or widget uses any more are collected.
+ *
+ * <p>Unset fields are null (or -1) and fall back to the backend defaults.
+ */
+public final class ElementStyle {
+    public static final int ALIGN_LEFT = 0;
+    public static final int ALIGN_CENTER = 1;
+    public static final int ALIGN_RIGHT = 2;
+
+    // Guarded by itself; the values point back at their keys, so they must be weak as well
+    private static final Map<ElementStyle, WeakReference<ElementStyle>> INTERNED = new WeakHashMap<>();
+
+    /** Style with every field unset. */
+    public static final ElementStyle EMPTY = new Builder().build();
+
+    public final Font font;
+    public final Color foreground;
+    public final Color background;
+    public final Insets padding;
+    public final int borderWidth;
+    public final Color borderColor;
+    public final int textAlign;
+    public final int minWidth;
+    public final int width;
+    public final int height;
+    private final int hash;
+
+    private ElementStyle(Builder builder) {
+        font = builder.font;
+        foreground = builder.foreground;
+        background = builder.background;
+        padding = builder.padding;
+        borderWidth = builder.borderWidth;
+        borderColor = builder.borderColor;
+        textAlign = builder.textAlign;
+        minWidth = builder.minWidth;
+        width = builder.width;
+        height = builder.height;
+        hash = Objects.hash(font, foreground, background, padding, borderWidth, borderColor,
+                textAlign, minWidth, width, height);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder pre-filled with this style's fields, for deriving a variant.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.font = font;
+        builder.foreground = foreground;
+        builder.background = background;
+        builder.padding = padding;
+        builder.borderWidth = borderWidth;
+        builder.borderColor = borderColor;
+        builder.textAlign = textAlign;
+        builder.minWidth = minWidth;
+        builder.width = width;
+        builder.height = height;
+        return builder;
+    }
+
+    public Font fontOr(Font fallback) { return font != null ? font : fallback; }
+    public Color foregroundOr(Color fallback) { return foreground != null ? foreground : fallback; }
+    public Color backgroundOr(Color fallback) { return background != null ? background : fallback; }
+    public Insets paddingOr(Insets fallback) { return padding != null ? padding : fallback; }
+    public boolean hasBorder() { return borderWidth > 0 && borderColor != null; }
+
+    /**
+     * Number of distinct styles in use, give or take those not yet collected.
+     */
+    public static int internedCount() {
+        synchronized (INTERNED) {
+            return INTERNED.size();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ElementStyle other)) return false;
+        return hash == other.hash
+                && borderWidth == other.borderWidth
+                && textAlign == other.textAlign
+                && minWidth == other.minWidth
+                && width == other.width
+                && height == other.height
+                && Objects.equals(font, other.font)
+                && Objects.equals(foreground, other.foreground)
+                && Objects.equals(background, other.background)
+                && Objects.equals(padding, other.padding)
+                && Objects.equals(borderColor, other.borderColor);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    public static final class Builder {
+        private Font font;
+        private Color foreground;
+        private Color background;
+        private Insets padding;
+        private int borderWidth;
+        private Color borderColor;
+        private int textAlign = -1;
+        private int minWidth = -1;
+        private int width = -1;
+        private int height = -1;
+
+        private Builder() {
+        }
+
+        public Builder font(Font font) { this.font = font; return this; }
+        public Builder foreground(Color color) { this.foreground = color; return this; }
+        public Builder background(Color color) { this.background = color; return this; }
+        public Builder padding(Insets padding) { this.padding = padding; return this; }
+        public Builder textAlign(int textAlign) { this.textAlign = textAlign; return this; }
+        public Builder minWidth(int minWidth) { this.minWidth = minWidth; return this; }
+
+        public Builder border(int width, Color color) {
+            this.borderWidth = width;
+            this.borderColor = color;
+            return this;
+        }
+
+        public Builder size(int width, int height) {
+            this.width = width;
+            this.height = height;
+            return this;
+        }
+
+        /**
+         * Returns the shared style for the current field values.
+         */
+        public ElementStyle build() {
+            ElementStyle candidate = new ElementStyle(this);
+            synchronized (INTERNED) {
+                WeakReference<ElementStyle> shared = INTERNED.get(candidate);
+                ElementStyle existing = shared != null ? shared.get() : null;
+                if (existing != null) return existing;
+                INTERNED.put(candidate, new WeakReference<>(candidate));
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github._3xhaust.core;
+
+import java.awt.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns fonts by (family, weight, size), so every widget asking for the same font shares one
+ * instance and the metrics cached for it. Safe to use from any thread.
+ */
+public final class FontCache {
+    private record Key(String family, int weight, int size) {
+    }
+
+    private static final Map<Key, Font> FONTS = new ConcurrentHashMap<>();
+
+    private FontCache() {
+    }
+
+    /**
+     * Shared font for the given family, AWT style ({@link Font#PLAIN}, {@link Font#BOLD},
+     * {@link Font#ITALIC}) and point size.
+     */
+    public static Font get(String family, int weight, int size) {
+        return FONTS.computeIfAbsent(new Key(family, weight, size), key -> new Font(key.family, key.weight, key.size));
+    }
+
+    /**
+     * {@code font} with a different size, from the cache.
+     */
+    public static Font withSize(Font font, int size) {
+        return get(font.getName(), font.getStyle(), size);
+    }
+
+    /**
+     * {@code font} with a different weight, from the cache.
+     */
+    public static Font withWeight(Font font, int weight) {
+        return get(font.getName(), weight, font.getSize());
+    }
+
+    public static int size() {
+        return FONTS.size();
+    }
+}
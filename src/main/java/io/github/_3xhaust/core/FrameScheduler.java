@@ -0,0 +1,62 @@
+package io.github._3xhaust.core;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Coalesces UI updates into a single flush on the toolkit thread. Tasks are deduplicated by
+ * identity, so a bound component scheduled many times before the flush is refreshed once, reading
+ * its latest value (last write wins). An optional end-of-frame task runs after every flush, which is
+ * where backends lay out and repaint whatever the tasks dirtied.
+ */
+public class FrameScheduler {
+    private final Executor uiThread;
+    private final Runnable endOfFrame;
+    private final Object lock = new Object();
+    private Set<Runnable> pending = new LinkedHashSet<>();
+    private Set<Runnable> flushing = new LinkedHashSet<>();
+    private boolean posted;
+    private long postedAt;
+
+    public FrameScheduler(Executor uiThread) {
+        this(uiThread, null);
+    }
+
+    public FrameScheduler(Executor uiThread, Runnable endOfFrame) {
+        this.uiThread = uiThread;
+        this.endOfFrame = endOfFrame;
+    }
+
+    /**
+     * Queues {@code task} for the next flush. Callable from any thread.
+     */
+    public void schedule(Runnable task) {
+        synchronized (lock) {
+            pending.add(task);
+            if (posted) return;
+            posted = true;
+            postedAt = System.nanoTime();
+        }
+        uiThread.execute(this::flush);
+    }
+
+    /**
+     * Runs every queued task. Must be called on the toolkit thread.
+     */
+    public void flush() {
+        Set<Runnable> tasks;
+        long latency;
+        synchronized (lock) {
+            tasks = pending;
+            pending = flushing;
+            flushing = tasks;
+            latency = posted ? System.nanoTime() - postedAt : -1;
+            posted = false;
+        }
+        if (latency >= 0) RenderMetrics.current().eventLatency(latency);
+        for (Runnable task : tasks) task.run();
+        tasks.clear();
+        if (endOfFrame != null) endOfFrame.run();
+    }
+}
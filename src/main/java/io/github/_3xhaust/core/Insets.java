@@ -23,6 +23,18 @@ public class Insets {
     public static Insets verticalHorizontal(int vertical, int horizontal) {
         return new Insets(vertical, horizontal, vertical, horizontal);
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Insets other)) return false;
+        return top == other.top && left == other.left && bottom == other.bottom && right == other.right;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((top * 31 + left) * 31 + bottom) * 31 + right;
+    }
 }
 
 
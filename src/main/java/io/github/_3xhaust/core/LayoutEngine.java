@@ -0,0 +1,367 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.theme.Theme;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Flexbox-style layout over an {@link Element} tree, shared by every backend. Each element is
+ * measured against min/max constraints from its parent and positioned relative to it; results
+ * are cached per element and reused while the element is clean and its constraints are unchanged,
+ * so only dirty subtrees are measured again.
+ *
+ * <p>Columns and rows first lay out their inflexible children with an unbounded main axis, then
+ * split the remaining space between Expanded (tight) and Flexible (loose) children by flex factor.
+ * Elements laid out with tight constraints, sized boxes and lazy lists are relayout boundaries:
+ * their size cannot depend on their children.
+ *
+ * <p>A change inside a laid-out tree is reported with {@link #invalidate(Element)}, which dirties
+ * the path up to the nearest relayout boundary only; {@link #layoutDirty()} then lays out those
+ * boundaries again. Elements whose bounds changed, or that were marked with
+ * {@link #markNeedsPaint(Element)}, are paint-dirty until the backend drains them with
+ * {@link #drainDamaged(Consumer)}.
+ */
+public class LayoutEngine {
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    public static final Font TEXT_FONT = Theme.LIGHT.font(Theme.BODY);
+    public static final Font BUTTON_FONT = Theme.LIGHT.font(Theme.BUTTON);
+    public static final Insets BUTTON_PADDING = new Insets(12, 24, 12, 24);
+    private static final Insets NO_PADDING = Insets.all(0);
+
+    /** Cross-axis size of a lazy list whose parent leaves that axis unbounded. */
+    private static final int DEFAULT_LAZY_CROSS_EXTENT = 320;
+    /** Lines shown by a lazy list whose parent leaves the scroll axis unbounded. */
+    private static final int DEFAULT_LAZY_LINES = 8;
+
+    private final TextMeasurer measurer;
+    private final Set<Element> dirtyBoundaries = new LinkedHashSet<>();
+    private final List<Element> damaged = new ArrayList<>();
+    private boolean draining;
+    private long layoutCount;
+
+    public LayoutEngine(TextMeasurer measurer) {
+        this.measurer = measurer;
+    }
+
+    /**
+     * Lays out {@code root} to fill a viewport of the given size.
+     */
+    public void layout(Element root, int width, int height) {
+        long started = System.nanoTime();
+        layout(root, width, width, height, height);
+        root.layoutX = 0;
+        root.layoutY = 0;
+        RenderMetrics.current().phase(RenderMetrics.Phase.LAYOUT, System.nanoTime() - started);
+    }
+
+    /**
+     * Marks {@code element} and its ancestors up to the nearest relayout boundary as needing
+     * layout, and returns that boundary (the root when none was laid out yet).
+     */
+    public static Element markNeedsLayout(Element element) {
+        Element e = element;
+        while (true) {
+            e.needsLayout = true;
+            if (e.relayoutBoundary || e.getParent() == null) return e;
+            e = e.getParent();
+        }
+    }
+
+    /**
+     * Marks {@code element} as needing layout and queues its relayout boundary for the next
+     * {@link #layoutDirty()}.
+     */
+    public void invalidate(Element element) {
+        dirtyBoundaries.add(markNeedsLayout(element));
+    }
+
+    /**
+     * Lays out every queued relayout boundary again at the constraints it had last time. A
+     * boundary keeps its size and position, so nothing outside it is touched.
+     */
+    public void layoutDirty() {
+        if (dirtyBoundaries.isEmpty()) return;
+        long started = System.nanoTime();
+        for (Element boundary : dirtyBoundaries) {
+            // Boundaries that were never laid out are covered by the next full pass
+            if (!boundary.needsLayout || boundary.minWidthConstraint < 0) continue;
+            layout(boundary, boundary.minWidthConstraint, boundary.maxWidthConstraint,
+                    boundary.minHeightConstraint, boundary.maxHeightConstraint);
+        }
+        dirtyBoundaries.clear();
+        RenderMetrics.current().phase(RenderMetrics.Phase.LAYOUT, System.nanoTime() - started);
+    }
+
+    /**
+     * Marks {@code element} as needing a repaint without a layout change.
+     */
+    public void markNeedsPaint(Element element) {
+        if (element.needsPaint) return;
+        element.needsPaint = true;
+        damaged.add(element);
+    }
+
+    /**
+     * Hands every paint-dirty element to {@code action} and clears the damage. Roots are never
+     * reported: their bounds belong to the host toolkit.
+     */
+    public void drainDamaged(Consumer<Element> action) {
+        // Actions may lay out nested trees such as lazy list slots; their damage is appended and
+        // picked up by the outermost drain
+        if (draining) return;
+        draining = true;
+        try {
+            for (int i = 0; i < damaged.size(); i++) {
+                Element element = damaged.get(i);
+                element.needsPaint = false;
+                action.accept(element);
+            }
+        } finally {
+            damaged.clear();
+            draining = false;
+        }
+    }
+
+    /**
+     * Number of elements measured (cache misses) since the last {@link #resetLayoutCount()}.
+     */
+    public long getLayoutCount() {
+        return layoutCount;
+    }
+
+    public void resetLayoutCount() {
+        layoutCount = 0;
+    }
+
+    private void layout(Element e, int minWidth, int maxWidth, int minHeight, int maxHeight) {
+        if (!e.needsLayout
+                && e.minWidthConstraint == minWidth && e.maxWidthConstraint == maxWidth
+                && e.minHeightConstraint == minHeight && e.maxHeightConstraint == maxHeight) {
+            return;
+        }
+        layoutCount++;
+        boolean first = e.minWidthConstraint < 0;
+        int previousWidth = e.layoutWidth;
+        int previousHeight = e.layoutHeight;
+
+        int width;
+        int height;
+        switch (e.getType()) {
+            case TEXT, BUTTON -> {
+                ElementStyle style = e.getStyle();
+                boolean button = e.getType() == Element.Type.BUTTON;
+                Font font = style.fontOr(e.getTheme().font(button ? Theme.BUTTON : Theme.BODY));
+                Insets insets = style.paddingOr(button ? BUTTON_PADDING : NO_PADDING);
+                int border = style.hasBorder() ? style.borderWidth * 2 : 0;
+                String text = button ? e.getText() : e.displayText();
+                width = style.width >= 0 ? style.width
+                        : measurer.width(text, font) + insets.left + insets.right + border;
+                height = style.height >= 0 ? style.height
+                        : measurer.lineHeight(font) + insets.top + insets.bottom + border;
+                width = Math.max(width, style.minWidth);
+            }
+            case LAZY -> {
+                LazyList list = e.getLazyList();
+                int preferredMain = Math.min(list.contentExtent(), DEFAULT_LAZY_LINES * list.itemExtent);
+                int main = list.horizontal ? maxWidth : maxHeight;
+                int cross = list.horizontal ? maxHeight : maxWidth;
+                main = main == UNBOUNDED ? preferredMain : main;
+                cross = cross == UNBOUNDED ? DEFAULT_LAZY_CROSS_EXTENT : cross;
+                width = list.horizontal ? main : cross;
+                height = list.horizontal ? cross : main;
+            }
+            case CENTER -> {
+                width = 0;
+                height = 0;
+                for (Element child : e.getChildren()) {
+                    layout(child, 0, maxWidth, 0, maxHeight);
+                    width = Math.max(width, child.layoutWidth);
+                    height = Math.max(height, child.layoutHeight);
+                }
+                if (maxWidth != UNBOUNDED) width = maxWidth;
+                if (maxHeight != UNBOUNDED) height = maxHeight;
+                for (Element child : e.getChildren()) {
+                    place(child, (width - child.layoutWidth) / 2, (height - child.layoutHeight) / 2);
+                }
+            }
+            case SIZED_BOX -> {
+                width = clamp(e.getWidth(), minWidth, maxWidth);
+                height = clamp(e.getHeight(), minHeight, maxHeight);
+                long size = layoutFlex(e, true, width, width, height, height);
+                width = (int) (size >>> 32);
+                height = (int) size;
+            }
+            case COLUMN -> {
+                long size = layoutFlex(e, true, minWidth, maxWidth, minHeight, maxHeight);
+                width = (int) (size >>> 32);
+                height = (int) size;
+            }
+            case ROW -> {
+                long size = layoutFlex(e, false, minWidth, maxWidth, minHeight, maxHeight);
+                width = (int) (size >>> 32);
+                height = (int) size;
+            }
+            default -> throw new IllegalStateException("Unknown element type " + e.getType());
+        }
+
+        e.layoutWidth = clamp(width, minWidth, maxWidth);
+        e.layoutHeight = clamp(height, minHeight, maxHeight);
+        e.minWidthConstraint = minWidth;
+        e.maxWidthConstraint = maxWidth;
+        e.minHeightConstraint = minHeight;
+        e.maxHeightConstraint = maxHeight;
+        e.relayoutBoundary = (minWidth == maxWidth && minHeight == maxHeight)
+                || e.getType() == Element.Type.SIZED_BOX
+                || e.getType() == Element.Type.LAZY
+                || e.getParent() == null;
+        e.needsLayout = false;
+        if (first || e.layoutWidth != previousWidth || e.layoutHeight != previousHeight) damage(e);
+    }
+
+    private void place(Element child, int x, int y) {
+        if (child.layoutX == x && child.layoutY == y) return;
+        child.layoutX = x;
+        child.layoutY = y;
+        damage(child);
+    }
+
+    private void damage(Element element) {
+        if (element.getParent() != null) markNeedsPaint(element);
+    }
+
+    /**
+     * Lays out a column ({@code vertical}) or row and returns its size packed as width:height.
+     */
+    private long layoutFlex(Element e, boolean vertical, int minWidth, int maxWidth, int minHeight, int maxHeight) {
+        Insets padding = e.getPadding() != null ? e.getPadding() : NO_PADDING;
+        int padMain = vertical ? padding.top + padding.bottom : padding.left + padding.right;
+        int padCross = vertical ? padding.left + padding.right : padding.top + padding.bottom;
+        int maxMain = shrink(vertical ? maxHeight : maxWidth, padMain);
+        int minMain = shrink(vertical ? minHeight : minWidth, padMain);
+        int maxCross = shrink(vertical ? maxWidth : maxHeight, padCross);
+        int minCross = shrink(vertical ? minWidth : minHeight, padCross);
+
+        // The root hands its children the viewport the way the toolkit content pane used to: full
+        // width, and the height shared out as if every child were Flexible
+        boolean root = e.getParent() == null;
+        boolean stretch = (root || e.getCrossAxisAlignment() == CrossAxisAlignment.STRETCH) && maxCross != UNBOUNDED;
+        int childMinCross = stretch ? maxCross : 0;
+
+        List<Element> children = e.getChildren();
+        int n = children.size();
+        int allocated = n > 1 ? e.getGap() * (n - 1) : 0;
+        int crossSize = 0;
+        int totalFlex = 0;
+
+        for (Element child : children) {
+            int flex = flexOf(child, root);
+            if (flex > 0) {
+                totalFlex += flex;
+                continue;
+            }
+            layoutChild(child, vertical, 0, UNBOUNDED, childMinCross, maxCross);
+            allocated += mainOf(child, vertical);
+            crossSize = Math.max(crossSize, crossOf(child, vertical));
+        }
+
+        if (totalFlex > 0) {
+            int free = maxMain == UNBOUNDED ? 0 : Math.max(0, maxMain - allocated);
+            int flexSeen = 0;
+            int given = 0;
+            for (Element child : children) {
+                int flex = flexOf(child, root);
+                if (flex <= 0) continue;
+                flexSeen += flex;
+                // Cumulative rounding so the shares add up to exactly the free space
+                int share = (int) ((long) free * flexSeen / totalFlex) - given;
+                given += share;
+                layoutChild(child, vertical, child.isTightFlex() ? share : 0, share, childMinCross, maxCross);
+                allocated += mainOf(child, vertical);
+                crossSize = Math.max(crossSize, crossOf(child, vertical));
+            }
+        }
+
+        int mainSize = e.getMainAxisSize() == MainAxisSize.MAX && maxMain != UNBOUNDED ? maxMain : allocated;
+        mainSize = Math.max(mainSize, minMain);
+        crossSize = stretch ? maxCross : Math.max(crossSize, minCross);
+
+        int freeMain = Math.max(0, mainSize - allocated);
+        double leading = 0;
+        double between = e.getGap();
+        switch (e.getMainAxisAlignment()) {
+            case END -> leading = freeMain;
+            case CENTER -> leading = freeMain / 2.0;
+            case SPACE_BETWEEN -> between += n > 1 ? freeMain / (double) (n - 1) : 0;
+            case SPACE_AROUND -> {
+                double space = n > 0 ? freeMain / (double) n : 0;
+                leading = space / 2;
+                between += space;
+            }
+            case SPACE_EVENLY -> {
+                double space = freeMain / (double) (n + 1);
+                leading = space;
+                between += space;
+            }
+            default -> {
+            }
+        }
+
+        double main = (vertical ? padding.top : padding.left) + leading;
+        int crossStart = vertical ? padding.left : padding.top;
+        for (Element child : children) {
+            int childCross = crossOf(child, vertical);
+            int cross = crossStart + switch (e.getCrossAxisAlignment()) {
+                case CENTER -> (crossSize - childCross) / 2;
+                case END -> crossSize - childCross;
+                default -> 0;
+            };
+            int position = (int) Math.round(main);
+            if (vertical) {
+                place(child, cross, position);
+            } else {
+                place(child, position, cross);
+            }
+            main += mainOf(child, vertical) + between;
+        }
+
+        int width = (vertical ? crossSize : mainSize) + (vertical ? padCross : padMain);
+        int height = (vertical ? mainSize : crossSize) + (vertical ? padMain : padCross);
+        return ((long) width << 32) | (height & 0xffffffffL);
+    }
+
+    private void layoutChild(Element child, boolean vertical, int minMain, int maxMain, int minCross, int maxCross) {
+        if (vertical) {
+            layout(child, minCross, maxCross, minMain, maxMain);
+        } else {
+            layout(child, minMain, maxMain, minCross, maxCross);
+        }
+    }
+
+    private static int flexOf(Element child, boolean root) {
+        return root ? Math.max(1, child.getFlex()) : child.getFlex();
+    }
+
+    private static int mainOf(Element child, boolean vertical) {
+        return vertical ? child.layoutHeight : child.layoutWidth;
+    }
+
+    private static int crossOf(Element child, boolean vertical) {
+        return vertical ? child.layoutWidth : child.layoutHeight;
+    }
+
+    private static int shrink(int constraint, int amount) {
+        return constraint == UNBOUNDED ? UNBOUNDED : Math.max(0, constraint - amount);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
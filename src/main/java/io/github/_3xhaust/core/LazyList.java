@@ -0,0 +1,124 @@
+package io.github._3xhaust.core;
+
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Platform-neutral description of a virtualized list or grid. Items have a fixed extent along the
+ * scroll axis, so backends can compute the visible window without building off-screen items.
+ *
+ * <p>Items come from an {@link #itemBuilder}, which builds a view per item shown, or from an
+ * {@link ItemFactory}, whose items are built once per slot and rebound as the slot shows other
+ * indexes.
+ */
+public class LazyList {
+    public final boolean horizontal;
+    public final int itemCount;
+    public final int itemExtent;
+    public final int crossAxisCount;
+    public final int overscan;
+    /** Null when the items come from {@link #items}. */
+    public final IntFunction<View> itemBuilder;
+    /** Null when the items come from {@link #itemBuilder}. */
+    public final ItemFactory items;
+
+    /**
+     * Item that keeps its view across indexes, e.g. a grid row whose cells show bound states: the
+     * view is recorded once, and showing another index only sets the states.
+     */
+    public interface Item {
+        View view();
+
+        /**
+         * Shows the item at {@code index}. Returns true when {@link #view()} must be recorded
+         * again, false when the item updated itself.
+         */
+        boolean bind(int index);
+
+        /**
+         * Called once the list dropped the item, to release what it subscribed.
+         */
+        default void release() {
+        }
+    }
+
+    @FunctionalInterface
+    public interface ItemFactory {
+        /**
+         * Creates an item for a slot {@code crossExtent} pixels across the scroll axis. Slots of
+         * another size get new items.
+         */
+        Item create(int crossExtent);
+    }
+
+    public LazyList(boolean horizontal, int itemCount, int itemExtent, int crossAxisCount, int overscan,
+                    IntFunction<View> itemBuilder) {
+        this(horizontal, itemCount, itemExtent, crossAxisCount, overscan, itemBuilder, null);
+    }
+
+    private LazyList(boolean horizontal, int itemCount, int itemExtent, int crossAxisCount, int overscan,
+                     IntFunction<View> itemBuilder, ItemFactory items) {
+        this.horizontal = horizontal;
+        this.itemCount = Math.max(0, itemCount);
+        this.itemExtent = Math.max(1, itemExtent);
+        this.crossAxisCount = Math.max(1, crossAxisCount);
+        this.overscan = Math.max(0, overscan);
+        this.itemBuilder = itemBuilder;
+        this.items = items;
+    }
+
+    /**
+     * A list whose slots keep their items, see {@link Item}.
+     */
+    public static LazyList ofItems(boolean horizontal, int itemCount, int itemExtent, int crossAxisCount, int overscan,
+                                   ItemFactory items) {
+        return new LazyList(horizontal, itemCount, itemExtent, crossAxisCount, overscan, null, items);
+    }
+
+    /**
+     * Number of lines (rows of a vertical list, columns of a horizontal one).
+     */
+    public int lineCount() {
+        return (itemCount + crossAxisCount - 1) / crossAxisCount;
+    }
+
+    /**
+     * Total size along the scroll axis.
+     */
+    public int contentExtent() {
+        return lineCount() * itemExtent;
+    }
+
+    /**
+     * First line to realize for the given scroll offset, overscan included.
+     */
+    public int firstLine(double offset) {
+        return Math.max(0, (int) (offset / itemExtent) - overscan);
+    }
+
+    /**
+     * Line after the last one to realize for the given scroll offset and viewport size.
+     */
+    public int endLine(double offset, double viewport) {
+        return Math.min(lineCount(), (int) Math.ceil((offset + viewport) / itemExtent) + overscan);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LazyList other)) return false;
+        return horizontal == other.horizontal
+                && itemCount == other.itemCount
+                && itemExtent == other.itemExtent
+                && crossAxisCount == other.crossAxisCount
+                && overscan == other.overscan
+                && itemBuilder == other.itemBuilder
+                && items == other.items;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(horizontal, itemCount, itemExtent, crossAxisCount, overscan, System.identityHashCode(itemBuilder),
+                System.identityHashCode(items));
+    }
+}
@@ -0,0 +1,139 @@
+package io.github._3xhaust.core;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Keeps the realized window of a {@link LazyList}. Slots that scroll out are returned to a pool
+ * and rebound to the items scrolling in, so native components are recycled rather than created.
+ * For lists of {@link LazyList.Item}s, pooled slots keep their item too, so rebinding one only
+ * sets the item's states.
+ *
+ * @param <S> backend slot type, typically a native container plus its mounted {@link Element}
+ */
+public abstract class LazyWindow<S> {
+    private final Map<Integer, S> active = new HashMap<>();
+    private final ArrayDeque<S> pool = new ArrayDeque<>();
+    // Item of each slot, realized or pooled, for lists of items
+    private final Map<S, LazyList.Item> items = new IdentityHashMap<>();
+    private LazyList list;
+    private int crossExtent = 1;
+
+    protected abstract S createSlot();
+
+    /** Renders {@code item} into {@code slot}, reusing whatever the slot showed before. */
+    protected abstract void bindSlot(S slot, int index, View item);
+
+    protected abstract void placeSlot(S slot, int line, int column);
+
+    /** Shows a slot that was just bound; it may come from the pool. */
+    protected abstract void showSlot(S slot);
+
+    protected abstract void releaseSlot(S slot);
+
+    /**
+     * Replaces the list description and rebinds the slots that are currently realized.
+     */
+    public void setList(LazyList list) {
+        if (this.list != null && this.list.items != list.items) releaseItems();
+        this.list = list;
+        Iterator<Map.Entry<Integer, S>> it = active.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, S> entry = it.next();
+            int index = entry.getKey();
+            if (index < list.itemCount) {
+                bind(entry.getValue(), index);
+            } else {
+                release(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Realizes the items visible at {@code offset} within a viewport of {@code viewport} pixels,
+     * in slots {@code crossExtent} pixels across the scroll axis.
+     */
+    public void update(double offset, double viewport, int crossExtent) {
+        if (list == null) return;
+        crossExtent = Math.max(1, crossExtent);
+        if (crossExtent != this.crossExtent) {
+            this.crossExtent = crossExtent;
+            if (!items.isEmpty()) {
+                releaseItems();
+                for (Map.Entry<Integer, S> entry : active.entrySet()) bind(entry.getValue(), entry.getKey());
+            }
+        }
+        int columns = list.crossAxisCount;
+        int from = list.firstLine(offset) * columns;
+        int to = Math.min(list.itemCount, list.endLine(offset, viewport) * columns);
+
+        Iterator<Map.Entry<Integer, S>> it = active.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, S> entry = it.next();
+            int index = entry.getKey();
+            if (index < from || index >= to) {
+                release(entry.getValue());
+                it.remove();
+            }
+        }
+
+        for (int index = from; index < to; index++) {
+            S slot = active.get(index);
+            if (slot == null) {
+                slot = pool.poll();
+                if (slot == null) slot = createSlot();
+                bind(slot, index);
+                showSlot(slot);
+                active.put(index, slot);
+            }
+            placeSlot(slot, index / columns, index % columns);
+        }
+    }
+
+    private void bind(S slot, int index) {
+        if (list.items == null) {
+            bindSlot(slot, index, list.itemBuilder.apply(index));
+            return;
+        }
+        LazyList.Item item = items.get(slot);
+        boolean created = item == null;
+        if (created) {
+            item = list.items.create(crossExtent);
+            items.put(slot, item);
+        }
+        if (item.bind(index) || created) bindSlot(slot, index, item.view());
+    }
+
+    /**
+     * Releases the items the slots hold; the next bind creates new ones. Backends call this when
+     * the list is disposed.
+     */
+    public void releaseItems() {
+        for (LazyList.Item item : items.values()) item.release();
+        items.clear();
+    }
+
+    private void release(S slot) {
+        releaseSlot(slot);
+        pool.push(slot);
+    }
+
+    /**
+     * Slots currently realized, in no particular order.
+     */
+    public Iterable<S> realized() {
+        return active.values();
+    }
+
+    public int realizedCount() {
+        return active.size();
+    }
+
+    public int pooledCount() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,36 @@
+package io.github._3xhaust.core;
+
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Platform-neutral description of a memoized subtree. The recorder calls {@link #body} only when
+ * {@link #inputs} differ from those of the same slot in the previous recording; otherwise the
+ * previously recorded elements are copied over as they are, native handles and layout included,
+ * and carried into the new tree without diffing.
+ *
+ * <p>The body must depend on nothing but its inputs, or reused subtrees go stale.
+ */
+public class Memo {
+    /** Component identity; a slot is reused only by a memo of the same type. */
+    public final Object type;
+    public final Object[] inputs;
+    /** Compares one previous input with the current one at the same position. */
+    public final BiPredicate<Object, Object> equality;
+    public final Supplier<View> body;
+
+    public Memo(Object type, Object[] inputs, BiPredicate<Object, Object> equality, Supplier<View> body) {
+        this.type = type;
+        this.inputs = inputs.clone();
+        this.equality = equality;
+        this.body = body;
+    }
+
+    boolean sameInputs(Object[] previous) {
+        if (previous.length != inputs.length) return false;
+        for (int i = 0; i < inputs.length; i++) {
+            if (!equality.test(previous[i], inputs[i])) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,157 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.theme.Theme;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A view built, diffed and laid out off the UI thread: the host operations the {@link Reconciler}
+ * emitted, in order, and the laid-out tree they produce. Nothing in it touches the toolkit until
+ * {@link #apply(Reconciler.Host)} replays it on the UI thread.
+ */
+public final class Patch {
+    private enum Kind { CREATE, INSERT, MOVE, REMOVE, PATCH, CHILDREN_CHANGED, RETAIN }
+
+    private record Op(Kind kind, Element first, Element second, Element third) {
+    }
+
+    private final Element next;
+    private final boolean fresh;
+    private final Theme theme;
+    private final int width;
+    private final int height;
+    private final List<Op> ops;
+    private final List<Element> damaged;
+    private final List<Element> bound;
+    private final List<String> boundText;
+
+    private Patch(Element next, boolean fresh, Theme theme, int width, int height, List<Op> ops,
+                  List<Element> damaged, List<Element> bound, List<String> boundText) {
+        this.next = next;
+        this.fresh = fresh;
+        this.theme = theme;
+        this.width = width;
+        this.height = height;
+        this.ops = ops;
+        this.damaged = damaged;
+        this.bound = bound;
+        this.boundText = boundText;
+    }
+
+    /**
+     * Records {@code view}, diffs it against {@code previous} and lays it out at the given size with
+     * {@code engine}. Runs on any thread; {@code previous} must not change meanwhile.
+     */
+    static Patch build(ElementRecorder recorder, Element previous, View view, boolean fresh,
+                       LayoutEngine engine, int width, int height) {
+        Element next = recorder.record(view, previous);
+        List<Element> bound = new ArrayList<>();
+        collectBound(next, bound);
+        // Taken before layout, so any state write that races the measurement shows up as a change
+        List<String> boundText = new ArrayList<>(bound.size());
+        for (Element element : bound) boundText.add(element.displayText());
+
+        Recording recording = new Recording();
+        Reconciler.reconcile(previous, next, recording);
+        engine.layout(next, width, height);
+        List<Element> damaged = new ArrayList<>();
+        engine.drainDamaged(damaged::add);
+        return new Patch(next, fresh, recorder.getTheme(), width, height, List.copyOf(recording.ops),
+                List.copyOf(damaged), List.copyOf(bound), List.copyOf(boundText));
+    }
+
+    private static void collectBound(Element element, List<Element> bound) {
+        if (element.getState() != null) bound.add(element);
+        for (Element child : element.getChildren()) collectBound(child, bound);
+    }
+
+    /** Root of the new tree. */
+    public Element getNext() { return next; }
+    /** True for a mount, whose ops start from an empty root instead of the mounted tree. */
+    public boolean isFresh() { return fresh; }
+    /** Base theme the tree was recorded under. */
+    public Theme getTheme() { return theme; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int size() { return ops.size(); }
+
+    /**
+     * Replays the reconciler operations on {@code host}. Must run on the UI thread.
+     */
+    public void apply(Reconciler.Host host) {
+        for (Op op : ops) {
+            switch (op.kind) {
+                case CREATE -> host.create(op.first);
+                case INSERT -> host.insert(op.first, op.second, op.third);
+                case MOVE -> host.move(op.first, op.second, op.third);
+                case REMOVE -> host.remove(op.first, op.second);
+                case PATCH -> host.patch(op.first, op.second);
+                case CHILDREN_CHANGED -> host.childrenChanged(op.first);
+                case RETAIN -> host.retain(op.first, op.second);
+            }
+        }
+    }
+
+    /**
+     * Hands every element whose bounds the layout changed to {@code action}, after {@link #apply}.
+     */
+    public void applyBounds(Consumer<Element> action) {
+        damaged.forEach(action);
+    }
+
+    /**
+     * Invalidates state-bound text whose value changed after the patch was built, so a write that
+     * landed mid-build is measured again by the UI thread's next {@link LayoutEngine#layoutDirty()}.
+     */
+    public void invalidateStale(LayoutEngine engine) {
+        for (int i = 0; i < bound.size(); i++) {
+            Element element = bound.get(i);
+            if (!Objects.equals(element.displayText(), boundText.get(i))) engine.invalidate(element);
+        }
+    }
+
+    /**
+     * Host that only records what the reconciler asks for.
+     */
+    private static final class Recording implements Reconciler.Host {
+        final List<Op> ops = new ArrayList<>();
+
+        @Override
+        public void create(Element element) {
+            ops.add(new Op(Kind.CREATE, element, null, null));
+        }
+
+        @Override
+        public void insert(Element parent, Element child, Element before) {
+            ops.add(new Op(Kind.INSERT, parent, child, before));
+        }
+
+        @Override
+        public void move(Element parent, Element child, Element before) {
+            ops.add(new Op(Kind.MOVE, parent, child, before));
+        }
+
+        @Override
+        public void remove(Element parent, Element child) {
+            ops.add(new Op(Kind.REMOVE, parent, child, null));
+        }
+
+        @Override
+        public void patch(Element previous, Element next) {
+            ops.add(new Op(Kind.PATCH, previous, next, null));
+        }
+
+        @Override
+        public void childrenChanged(Element parent) {
+            ops.add(new Op(Kind.CHILDREN_CHANGED, parent, null, null));
+        }
+
+        @Override
+        public void retain(Element previous, Element next) {
+            ops.add(new Op(Kind.RETAIN, previous, next, null));
+        }
+    }
+}
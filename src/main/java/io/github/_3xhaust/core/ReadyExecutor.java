@@ -0,0 +1,67 @@
+package io.github._3xhaust.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs a renderer's lifecycle tasks on its toolkit thread, but only once {@link Renderer#init} has
+ * finished. Tasks submitted earlier are held and run in submission order right after
+ * {@link #complete()}, so a mount never depends on which queue the toolkit drains first.
+ */
+public class ReadyExecutor implements Executor {
+    private final Executor uiThread;
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    // Handed out to callers, so completing it from outside cannot release the held tasks
+    private final CompletableFuture<Void> readiness = ready.copy();
+    private final List<Runnable> waiting = new ArrayList<>();
+
+    public ReadyExecutor(Executor uiThread) {
+        this.uiThread = uiThread;
+    }
+
+    /**
+     * Queues {@code task} for the toolkit thread, behind initialization. Callable from any thread.
+     */
+    @Override
+    public void execute(Runnable task) {
+        synchronized (waiting) {
+            if (!ready.isDone()) {
+                waiting.add(task);
+                return;
+            }
+        }
+        if (!ready.isCompletedExceptionally()) uiThread.execute(task);
+    }
+
+    /**
+     * Marks the renderer ready and runs the held tasks. Must be called on the toolkit thread.
+     */
+    public void complete() {
+        List<Runnable> tasks;
+        synchronized (waiting) {
+            ready.complete(null);
+            tasks = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        for (Runnable task : tasks) task.run();
+    }
+
+    /**
+     * Fails initialization; held and later tasks are dropped.
+     */
+    public void fail(Throwable error) {
+        synchronized (waiting) {
+            ready.completeExceptionally(error);
+            waiting.clear();
+        }
+    }
+
+    /**
+     * Completes on the toolkit thread once the renderer is ready, or exceptionally if init failed.
+     */
+    public CompletableFuture<Void> readiness() {
+        return readiness;
+    }
+}
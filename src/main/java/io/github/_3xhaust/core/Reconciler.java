@@ -0,0 +1,248 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.theme.Theme;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diffs two {@link Element} trees and emits the minimal insert/move/remove/patch operations to a
+ * backend {@link Host}. Children are matched by key first, then by type in order; moves are limited
+ * to elements outside the longest run that kept its relative order.
+ */
+public final class Reconciler {
+
+    /**
+     * Backend side of the reconciliation. Native components live in {@link Element#getHandle()}.
+     */
+    public interface Host {
+        /** Creates the native component for {@code element} (children are inserted separately). */
+        void create(Element element);
+
+        /** Inserts {@code child} before {@code before}, or at the end when {@code before} is null. */
+        void insert(Element parent, Element child, Element before);
+
+        /** Moves an already attached {@code child} before {@code before}, or to the end. */
+        void move(Element parent, Element child, Element before);
+
+        void remove(Element parent, Element child);
+
+        /** Applies the property changes from {@code previous} to {@code next} on the shared handle. */
+        void patch(Element previous, Element next);
+
+        /** Called once per container after its child list changed structurally. */
+        default void childrenChanged(Element parent) {
+        }
+
+        /** Called for every element carried over into the new tree, before it is patched. */
+        default void retain(Element previous, Element next) {
+        }
+
+        /** Called by {@link #retheme} for every element whose resolved theme changed in place. */
+        default void restyle(Element element, Theme previous) {
+        }
+    }
+
+    /**
+     * One reconcile run: the host plus the element counts reported to {@link RenderMetrics}.
+     */
+    private static final class Pass {
+        final Host host;
+        int created;
+        int reused;
+        int removed;
+
+        Pass(Host host) {
+            this.host = host;
+        }
+    }
+
+    private Reconciler() {
+    }
+
+    /**
+     * Reconciles two root elements. The root handle is carried over as is.
+     */
+    public static void reconcile(Element previous, Element next, Host host) {
+        long started = System.nanoTime();
+        Pass pass = new Pass(host);
+        next.setHandle(previous.getHandle());
+        carryOver(previous, next, reconcileChildren(previous, next, pass), pass);
+        RenderMetrics metrics = RenderMetrics.current();
+        metrics.phase(RenderMetrics.Phase.RECONCILE, System.nanoTime() - started);
+        metrics.nodes(pass.created, pass.reused, pass.removed);
+    }
+
+    /**
+     * Resolves the themes of a mounted tree again under a new base theme, in one pass and without
+     * touching the tree structure. Subtree overrides recorded on the elements are kept.
+     */
+    public static void retheme(Element root, Theme base, Host host) {
+        Theme theme = root.themeOverride != null ? base.derive(root.themeOverride) : base;
+        if (theme != root.theme) {
+            Theme previous = root.theme;
+            root.theme = theme;
+            host.restyle(root, previous);
+        }
+        for (Element child : root.getChildren()) {
+            retheme(child, theme, host);
+        }
+    }
+
+    private static void carryOver(Element previous, Element next, boolean structural, Pass pass) {
+        pass.reused++;
+        pass.host.retain(previous, next);
+        boolean same = previous.sameProps(next);
+        if (!same) pass.host.patch(previous, next);
+        if (same && !structural && !previous.needsLayout && childrenLaidOut(next)) next.adoptLayout(previous);
+    }
+
+    /**
+     * Carries a memo's copy over from the subtree it was copied from, which it matches element for
+     * element, without diffing.
+     */
+    private static void retainCopy(Element previous, Element copy, Pass pass) {
+        pass.reused++;
+        pass.host.retain(previous, copy);
+        List<Element> children = previous.getChildren();
+        List<Element> copies = copy.getChildren();
+        for (int i = 0; i < children.size(); i++) retainCopy(children.get(i), copies.get(i), pass);
+    }
+
+    private static boolean childrenLaidOut(Element element) {
+        for (Element child : element.getChildren()) {
+            if (child.needsLayout) return false;
+        }
+        return true;
+    }
+
+    private static void create(Element element, Pass pass) {
+        element.memoSource = null;
+        pass.created++;
+        pass.host.create(element);
+        List<Element> children = element.getChildren();
+        if (children.isEmpty()) return;
+        for (Element child : children) {
+            create(child, pass);
+            pass.host.insert(element, child, null);
+        }
+        pass.host.childrenChanged(element);
+    }
+
+    private static int count(Element element) {
+        int count = 1;
+        for (Element child : element.getChildren()) count += count(child);
+        return count;
+    }
+
+    /**
+     * Reconciles the children of a matched pair and reports whether the child list changed.
+     */
+    private static boolean reconcileChildren(Element previous, Element next, Pass pass) {
+        List<Element> oldChildren = previous.getChildren();
+        List<Element> newChildren = next.getChildren();
+        int oldSize = oldChildren.size();
+        int newSize = newChildren.size();
+        if (oldSize == 0 && newSize == 0) return false;
+
+        Map<Object, Integer> keyed = new HashMap<>();
+        EnumMap<Element.Type, ArrayDeque<Integer>> unkeyed = new EnumMap<>(Element.Type.class);
+        for (int j = 0; j < oldSize; j++) {
+            Element old = oldChildren.get(j);
+            if (old.getKey() != null) {
+                keyed.put(old.getKey(), j);
+            } else {
+                unkeyed.computeIfAbsent(old.getType(), t -> new ArrayDeque<>()).add(j);
+            }
+        }
+
+        int[] sources = new int[newSize];
+        boolean[] matched = new boolean[oldSize];
+        for (int i = 0; i < newSize; i++) {
+            Element child = newChildren.get(i);
+            Integer source = null;
+            if (child.getKey() != null) {
+                source = keyed.remove(child.getKey());
+                if (source != null && oldChildren.get(source).getType() != child.getType()) source = null;
+            } else {
+                ArrayDeque<Integer> candidates = unkeyed.get(child.getType());
+                if (candidates != null) source = candidates.poll();
+            }
+            sources[i] = source != null ? source : -1;
+            if (source != null) matched[source] = true;
+        }
+
+        boolean structural = false;
+        for (int j = 0; j < oldSize; j++) {
+            if (!matched[j]) {
+                pass.host.remove(next, oldChildren.get(j));
+                pass.removed += count(oldChildren.get(j));
+                structural = true;
+            }
+        }
+
+        for (int i = 0; i < newSize; i++) {
+            if (sources[i] < 0) continue;
+            Element old = oldChildren.get(sources[i]);
+            Element child = newChildren.get(i);
+            // Copied by a memo from this very subtree: props, layout and handles already match
+            if (child.memoSource == old) {
+                child.memoSource = null;
+                retainCopy(old, child, pass);
+                continue;
+            }
+            child.memoSource = null;
+            child.setHandle(old.getHandle());
+            carryOver(old, child, reconcileChildren(old, child, pass), pass);
+        }
+
+        // Walk backwards so every anchor is already in its final position
+        boolean[] stable = longestIncreasingRun(sources);
+        for (int i = newSize - 1; i >= 0; i--) {
+            Element child = newChildren.get(i);
+            Element before = i + 1 < newSize ? newChildren.get(i + 1) : null;
+            if (sources[i] < 0) {
+                create(child, pass);
+                pass.host.insert(next, child, before);
+                structural = true;
+            } else if (!stable[i]) {
+                pass.host.move(next, child, before);
+                structural = true;
+            }
+        }
+
+        if (structural) pass.host.childrenChanged(next);
+        return structural;
+    }
+
+    /**
+     * Marks the positions forming the longest increasing subsequence of matched sources.
+     */
+    private static boolean[] longestIncreasingRun(int[] sources) {
+        int n = sources.length;
+        boolean[] stable = new boolean[n];
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            if (sources[i] < 0) continue;
+            int lo = 0;
+            int hi = length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sources[tails[mid]] < sources[i]) lo = mid + 1;
+                else hi = mid;
+            }
+            previous[i] = lo > 0 ? tails[lo - 1] : -1;
+            tails[lo] = i;
+            if (lo == length) length++;
+        }
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            stable[i] = true;
+        }
+        return stable;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github._3xhaust.core;
+
+/**
+ * Receives timings and counts from the render pipeline. Every method defaults to a no-op, so an
+ * implementation overrides only what it records; {@link #NONE} is installed until
+ * {@link #install(RenderMetrics)} replaces it.
+ *
+ * <p>Callbacks arrive on whichever thread runs the phase (usually the toolkit thread, but state
+ * notifications come from the writing thread), so implementations must be thread-safe.
+ */
+public interface RenderMetrics {
+    RenderMetrics NONE = new RenderMetrics() {
+    };
+
+    enum Phase {
+        /** {@link Renderer#init} up to the window being shown. */
+        INIT,
+        /** Recording a view into an element tree. */
+        BUILD,
+        /** Diffing two element trees and applying the changes to the native nodes. */
+        RECONCILE,
+        /** Laying out a tree or its dirty relayout boundaries. */
+        LAYOUT,
+        /** Painting a frame, on the canvas backends. */
+        PAINT
+    }
+
+    /** {@code phase} took {@code nanos}. */
+    default void phase(Phase phase, long nanos) {
+    }
+
+    /** Time from {@link Renderer#init} to the first mounted tree being laid out. */
+    default void firstMount(long nanos) {
+    }
+
+    /** One reconcile pass created, reused and removed the given numbers of elements. */
+    default void nodes(int created, int reused, int removed) {
+    }
+
+    /** One recording skipped {@code skipped} memo bodies and rendered {@code rendered}. */
+    default void memo(int skipped, int rendered) {
+    }
+
+    /** A state notified {@code listeners} subscribers of a change. */
+    default void stateNotified(int listeners) {
+    }
+
+    /** A frame flush ran {@code nanos} after its first task was queued. */
+    default void eventLatency(long nanos) {
+    }
+
+    /**
+     * Installs {@code metrics} for every renderer in the process; null restores {@link #NONE}.
+     */
+    static void install(RenderMetrics metrics) {
+        Installed.current = metrics != null ? metrics : NONE;
+    }
+
+    static RenderMetrics current() {
+        return Installed.current;
+    }
+
+    final class Installed {
+        private static volatile RenderMetrics current = NONE;
+
+        private Installed() {
+        }
+    }
+}
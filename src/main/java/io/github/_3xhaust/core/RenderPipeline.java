@@ -0,0 +1,205 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.theme.Theme;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves view building, diffing and layout off the UI thread. Each submitted view is recorded,
+ * reconciled against the mounted tree and laid out on a build thread into a {@link Patch}, which
+ * the backend then applies in one UI-thread slice.
+ *
+ * <p>One patch is in flight at a time: the next build starts only after the previous patch was
+ * applied, so diffs always run against a tree whose handles exist. Views submitted meanwhile are
+ * coalesced and only the latest is built (last write wins, like {@link FrameScheduler}).
+ *
+ * <p>The build reads the mounted tree, so the UI thread must leave it alone until the patch is
+ * applied: backends route every change they make to it (state refreshes, relayout on resize,
+ * theme switches) through {@link #whenIdle(Runnable)}, which holds them back while a build is in
+ * flight and replays them, in order, right after the patch lands.
+ *
+ * <p>Views are recorded into a {@link CommandBuffer} first. An update that records the same calls
+ * as the frame built before it, under the same theme, is dropped without diffing or layout.
+ *
+ * <p>Everything but the build itself is confined to the UI thread, so none of it needs a lock.
+ */
+public class RenderPipeline {
+
+    /**
+     * Backend side of the pipeline. Every method is called on the UI thread.
+     */
+    public interface Target {
+        /** Tree the next view is diffed against. */
+        Element mounted();
+
+        /** Fresh root to mount into, carrying the toolkit's root handle. */
+        Element emptyRoot();
+
+        /** Applies a built patch and makes its tree the mounted one. */
+        void apply(Patch patch);
+    }
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    private static final ExecutorService BUILD_THREADS = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "javaui-build-" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ElementRecorder recorder;
+    private final Executor uiThread;
+    private final Executor buildThread;
+    private final LayoutEngine engine;
+    private final Target target;
+    // UI thread only
+    private Theme theme;
+    private View pending;
+    private boolean pendingFresh;
+    private int pendingWidth;
+    private int pendingHeight;
+    private boolean busy;
+    private List<Runnable> deferred = new ArrayList<>();
+    private List<Runnable> replaying = new ArrayList<>();
+    // Build thread only: the buffer behind the last built patch, and the one the next view records into
+    private CommandBuffer built;
+    private Theme builtTheme;
+    private CommandBuffer spare = new CommandBuffer();
+
+    public RenderPipeline(ElementRecorder recorder, Executor uiThread, TextMeasurer measurer, Target target) {
+        this(recorder, uiThread, BUILD_THREADS, measurer, target);
+    }
+
+    /**
+     * @param recorder used only on the build thread from now on
+     * @param measurer shared with the UI thread's layout engine, so it must be thread-safe
+     */
+    public RenderPipeline(ElementRecorder recorder, Executor uiThread, Executor buildThread,
+                          TextMeasurer measurer, Target target) {
+        this.recorder = recorder;
+        this.uiThread = uiThread;
+        this.buildThread = buildThread;
+        this.engine = new LayoutEngine(measurer);
+        this.target = target;
+        this.theme = recorder.getTheme();
+    }
+
+    /**
+     * Thrown by a backend's {@link Renderer} calls when a view renders into the backend directly.
+     * Views are recorded on the build thread, into a buffer and a recorder the pipeline owns;
+     * letting other threads append to that recorder would corrupt the tree being built.
+     */
+    public static IllegalStateException outsideBuild() {
+        return new IllegalStateException("Views render through mount and update, not into the renderer");
+    }
+
+    /**
+     * Base theme for views built from now on. Trees already built keep theirs, so backends compare
+     * {@link Patch#getTheme()} with {@link #getTheme()} when applying.
+     */
+    public void setTheme(Theme theme) {
+        this.theme = theme;
+    }
+
+    public Theme getTheme() {
+        return theme;
+    }
+
+    /**
+     * Queues {@code view} to be built and laid out at {@code width} x {@code height}, the
+     * viewport's size as the UI thread sees it now, and applied; {@code fresh} mounts it from an
+     * empty root. Called on the UI thread.
+     */
+    public void submit(View view, boolean fresh, int width, int height) {
+        pending = view;
+        pendingFresh |= fresh;
+        pendingWidth = width;
+        pendingHeight = height;
+        if (!busy) start();
+    }
+
+    /**
+     * Runs {@code change}, which touches the mounted tree, now if no build is reading that tree,
+     * or else right after the patch being built is applied. Called on the UI thread.
+     */
+    public void whenIdle(Runnable change) {
+        if (busy) {
+            deferred.add(change);
+        } else {
+            change.run();
+        }
+    }
+
+    private void start() {
+        View view = pending;
+        boolean fresh = pendingFresh;
+        int width = pendingWidth;
+        int height = pendingHeight;
+        pending = null;
+        pendingFresh = false;
+        busy = true;
+        // Picked on the UI thread, which swaps the mounted tree only when applying a patch
+        Element previous = fresh ? target.emptyRoot() : target.mounted();
+        Theme theme = this.theme;
+        buildThread.execute(() -> build(view, fresh, previous, theme, width, height));
+    }
+
+    private void build(View view, boolean fresh, Element previous, Theme theme, int width, int height) {
+        Patch patch;
+        try {
+            CommandBuffer buffer = spare;
+            buffer.record(view);
+            if (!fresh && theme == builtTheme && buffer.sameAs(built)) {
+                // Same calls as the mounted frame, so the patch would be empty
+                uiThread.execute(this::finished);
+                return;
+            }
+            recorder.setTheme(theme);
+            patch = Patch.build(recorder, previous, buffer, fresh, engine, width, height);
+            spare = built != null ? built : new CommandBuffer();
+            built = buffer;
+            builtTheme = theme;
+        } catch (RuntimeException | Error e) {
+            // Report on the UI thread, where a failing render surfaced before
+            uiThread.execute(() -> {
+                finished();
+                throw e;
+            });
+            return;
+        }
+        uiThread.execute(() -> {
+            try {
+                target.apply(patch);
+            } finally {
+                finished();
+            }
+        });
+    }
+
+    /**
+     * Replays the changes held back during the build, then starts the next one if a view is
+     * waiting. Runs on the UI thread once nothing reads the mounted tree any more.
+     */
+    private void finished() {
+        try {
+            // A replayed change may queue another; it still runs before the next build starts
+            while (!deferred.isEmpty()) {
+                List<Runnable> changes = deferred;
+                deferred = replaying;
+                replaying = changes;
+                try {
+                    for (Runnable change : changes) change.run();
+                } finally {
+                    changes.clear();
+                }
+            }
+        } finally {
+            busy = false;
+            if (pending != null) start();
+        }
+    }
+}
@@ -2,7 +2,12 @@ package io.github._3xhaust.core;
 
 import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
 import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
 import io.github._3xhaust.state.State;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Platform-neutral renderer API. Each backend (Swing, JavaFX, Android, iOS) maps these calls to
@@ -10,7 +15,13 @@ import io.github._3xhaust.state.State;
  */
 public interface Renderer {
     // Lifecycle
-    void init(String title, int width, int height);
+
+    /**
+     * Creates the window. The returned future completes on the toolkit thread once the renderer is
+     * ready; {@link #mount}, {@link #update} and {@link #setTheme} may be called before that and
+     * are applied in order afterwards.
+     */
+    CompletableFuture<Void> init(String title, int width, int height);
     void mount(View root);
     void update(View oldView, View newView);
     void unmount(View view);
@@ -26,6 +37,22 @@ public interface Renderer {
                  Insets padding,
                  int gap);
 
+    default void pushColumn(MainAxisAlignment mainAxisAlignment,
+                            CrossAxisAlignment crossAxisAlignment,
+                            MainAxisSize mainAxisSize,
+                            Insets padding,
+                            int gap) {
+        pushColumn(mainAxisAlignment, crossAxisAlignment, padding, gap);
+    }
+
+    default void pushRow(MainAxisAlignment mainAxisAlignment,
+                         CrossAxisAlignment crossAxisAlignment,
+                         MainAxisSize mainAxisSize,
+                         Insets padding,
+                         int gap) {
+        pushRow(mainAxisAlignment, crossAxisAlignment, padding, gap);
+    }
+
     void pushCenter();
 
     void pushSizedBox(int width, int height);
@@ -38,5 +65,57 @@ public interface Renderer {
     <T> void addText(State<T> state);
 
     void addButton(String text, Runnable onClick);
+
+    /**
+     * Adds a scrolling viewport that realizes only the visible items of {@code list}.
+     */
+    void addLazyList(LazyList list);
+
+    // Reconciliation
+    /**
+     * Renders the body of {@code memo}, or reuses what it recorded last time when its inputs are
+     * unchanged. Renderers that do not diff always render the body.
+     */
+    default void memo(Memo memo) {
+        memo.body.get().render(this);
+    }
+
+    /**
+     * Tags the next container or leaf with a key so it keeps its identity across updates.
+     */
+    default void key(Object key) {
+    }
+
+    // Layout
+    /**
+     * Gives the next container or leaf a flex factor in its column or row. Tight flex children
+     * (Expanded) fill their share of the free space; loose ones (Flexible) may be smaller.
+     */
+    default void flex(int flex, boolean tight) {
+    }
+
+    // Style
+    /**
+     * Gives the next leaf a compiled style. Backends compare styles by identity.
+     */
+    default void style(ElementStyle style) {
+    }
+
+    // Theme
+    /**
+     * Switches the base theme. A mounted tree is restyled in place, without remounting.
+     */
+    default void setTheme(Theme theme) {
+    }
+
+    /**
+     * Applies {@code override} to the leaves and containers added until the matching
+     * {@link #popTheme()}, and to everything inside them.
+     */
+    default void pushTheme(ThemeOverride override) {
+    }
+
+    default void popTheme() {
+    }
 }
 
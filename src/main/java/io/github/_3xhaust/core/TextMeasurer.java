@@ -0,0 +1,18 @@
+package io.github._3xhaust.core;
+
+import java.awt.*;
+
+/**
+ * Text metrics used by the {@link LayoutEngine}. Each backend supplies the metrics of the toolkit
+ * that will draw the text, so computed sizes match what is rendered.
+ */
+public interface TextMeasurer {
+    /** Advance width of {@code text} in pixels. */
+    int width(String text, Font font);
+
+    /** Height of one line (ascent, descent and leading) in pixels. */
+    int lineHeight(Font font);
+
+    /** Distance from the top of a line to its baseline in pixels. */
+    int ascent(Font font);
+}
@@ -0,0 +1,308 @@
+package io.github._3xhaust.dsl;
+
+import io.github._3xhaust.state.State;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+
+/**
+ * Table of rows stored column by column in primitive arrays, shown by
+ * {@link Layouts#DataGrid(GridData)}. Sorting and filtering never move rows: they rewrite an
+ * index permutation of row numbers, so a table of a million rows re-sorts in place and costs one
+ * int per row on top of its columns.
+ *
+ * <p>Column arrays are used as given, not copied, and must not change afterwards. Not
+ * thread-safe: sort and filter on the thread that handles clicks. Grids showing the data rebind
+ * their visible rows after either; a filter also changes the row count, so update the view after
+ * one to resize the grid's list.
+ */
+public final class GridData {
+    private final int rowCount;
+    private final Column[] columns;
+    // All rows in sort order, and the ones passing the filter in that order
+    private final int[] sorted;
+    private final int[] visible;
+    private int visibleCount;
+    private int[] scratch;
+    private IntPredicate filter;
+    private int sortColumn = -1;
+    private boolean ascending = true;
+    // Bumped whenever the visible rows change order or membership
+    private final State<Integer> version = State.of(0);
+    // Items of the grids showing this data, by first column and row height, least recently used first
+    private final Map<Long, GridItems> items = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, GridItems> eldest) {
+            return size() > 8;
+        }
+    };
+
+    public GridData(Column... columns) {
+        if (columns.length == 0) throw new IllegalArgumentException("A grid needs at least one column");
+        int rows = columns[0].length();
+        for (Column column : columns) {
+            if (column.length() != rows) {
+                throw new IllegalArgumentException("Column '" + column.name + "' has " + column.length()
+                        + " rows, expected " + rows);
+            }
+        }
+        this.rowCount = rows;
+        this.columns = columns.clone();
+        this.sorted = new int[rows];
+        this.visible = new int[rows];
+        for (int i = 0; i < rows; i++) sorted[i] = i;
+        applyFilter();
+    }
+
+    public static IntColumn intColumn(String name, int[] values) {
+        return new IntColumn(name, values);
+    }
+
+    public static LongColumn longColumn(String name, long[] values) {
+        return new LongColumn(name, values);
+    }
+
+    public static DoubleColumn doubleColumn(String name, double[] values) {
+        return new DoubleColumn(name, values);
+    }
+
+    public static StringColumn stringColumn(String name, String[] values) {
+        return new StringColumn(name, values);
+    }
+
+    public int getRowCount() { return rowCount; }
+    public int getColumnCount() { return columns.length; }
+    public Column getColumn(int index) { return columns[index]; }
+    public int getVisibleRowCount() { return visibleCount; }
+    public int getSortColumn() { return sortColumn; }
+    public boolean isAscending() { return ascending; }
+
+    State<Integer> version() { return version; }
+
+    /**
+     * Items of the grids showing this data from column {@code first} at {@code rowHeight}.
+     */
+    GridItems items(int first, int rowHeight) {
+        return items.computeIfAbsent(((long) first << 32) | (rowHeight & 0xFFFFFFFFL),
+                key -> new GridItems(this, first, rowHeight));
+    }
+
+    /**
+     * Row number shown at {@code position} among the visible rows.
+     */
+    public int rowAt(int position) {
+        return visible[position];
+    }
+
+    /**
+     * Text of the cell at a visible position.
+     */
+    public String text(int position, int column) {
+        return columns[column].text(visible[position]);
+    }
+
+    /**
+     * Orders the rows by {@code column}. The sort is stable and starts from the current order, so
+     * the previous sort column breaks ties.
+     */
+    public void sort(int column, boolean ascending) {
+        Column key = columns[column];
+        key.prepareSort();
+        if (scratch == null) scratch = new int[rowCount];
+        if (ascending) mergeSort(sorted, scratch, key::compare);
+        else mergeSort(sorted, scratch, (a, b) -> key.compare(b, a));
+        this.sortColumn = column;
+        this.ascending = ascending;
+        applyFilter();
+        version.update(v -> v + 1);
+    }
+
+    /**
+     * Shows only the rows whose number passes {@code rows}, or all of them when null. The
+     * predicate reads the columns directly, e.g. {@code row -> prices.get(row) > 100}.
+     */
+    public void filter(IntPredicate rows) {
+        this.filter = rows;
+        applyFilter();
+        version.update(v -> v + 1);
+    }
+
+    private void applyFilter() {
+        int count = 0;
+        for (int i = 0; i < rowCount; i++) {
+            int row = sorted[i];
+            if (filter == null || filter.test(row)) visible[count++] = row;
+        }
+        visibleCount = count;
+    }
+
+    /**
+     * Stable bottom-up merge sort of row numbers; {@code scratch} is at least as long as
+     * {@code rows}.
+     */
+    private static void mergeSort(int[] rows, int[] scratch, IntBinaryOperator order) {
+        int count = rows.length;
+        int[] from = rows;
+        int[] to = scratch;
+        for (int width = 1; width < count; width *= 2) {
+            for (int lo = 0; lo < count; lo += width * 2) {
+                int mid = Math.min(lo + width, count);
+                int hi = Math.min(lo + width * 2, count);
+                int left = lo;
+                int right = mid;
+                for (int out = lo; out < hi; out++) {
+                    boolean takeLeft = right >= hi || left < mid && order.applyAsInt(from[left], from[right]) <= 0;
+                    to[out] = takeLeft ? from[left++] : from[right++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != rows) System.arraycopy(from, 0, rows, 0, count);
+    }
+
+    /**
+     * One named column. Cells are formatted only when a visible row is bound.
+     */
+    public abstract static class Column {
+        public final String name;
+        private int width = 120;
+
+        Column(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Width of the column in the grid, in pixels.
+         */
+        public Column width(int width) {
+            this.width = Math.max(1, width);
+            return this;
+        }
+
+        public int getWidth() { return width; }
+
+        abstract int length();
+
+        abstract int compare(int a, int b);
+
+        /** Called before the rows are sorted by this column. */
+        void prepareSort() {
+        }
+
+        public abstract String text(int row);
+    }
+
+    public static final class IntColumn extends Column {
+        private final int[] values;
+
+        IntColumn(String name, int[] values) {
+            super(name);
+            this.values = values;
+        }
+
+        public int get(int row) { return values[row]; }
+
+        @Override
+        int length() { return values.length; }
+
+        @Override
+        int compare(int a, int b) { return Integer.compare(values[a], values[b]); }
+
+        @Override
+        public String text(int row) { return Integer.toString(values[row]); }
+    }
+
+    public static final class LongColumn extends Column {
+        private final long[] values;
+
+        LongColumn(String name, long[] values) {
+            super(name);
+            this.values = values;
+        }
+
+        public long get(int row) { return values[row]; }
+
+        @Override
+        int length() { return values.length; }
+
+        @Override
+        int compare(int a, int b) { return Long.compare(values[a], values[b]); }
+
+        @Override
+        public String text(int row) { return Long.toString(values[row]); }
+    }
+
+    public static final class DoubleColumn extends Column {
+        private final double[] values;
+
+        DoubleColumn(String name, double[] values) {
+            super(name);
+            this.values = values;
+        }
+
+        public double get(int row) { return values[row]; }
+
+        @Override
+        int length() { return values.length; }
+
+        @Override
+        int compare(int a, int b) { return Double.compare(values[a], values[b]); }
+
+        @Override
+        public String text(int row) { return Double.toString(values[row]); }
+    }
+
+    public static final class StringColumn extends Column {
+        private final String[] values;
+        private int[] ranks;
+
+        StringColumn(String name, String[] values) {
+            super(name);
+            this.values = values;
+        }
+
+        public String get(int row) { return values[row]; }
+
+        @Override
+        int length() { return values.length; }
+
+        /**
+         * Ranks the strings once, so this and later sorts compare ints instead of chasing every
+         * string through memory in the permutation's order.
+         */
+        @Override
+        void prepareSort() {
+            if (ranks != null) return;
+            int[] order = new int[values.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            mergeSort(order, new int[order.length], this::compareValues);
+            int[] ranked = new int[values.length];
+            for (int i = 1; i < order.length; i++) {
+                int previous = order[i - 1];
+                ranked[order[i]] = ranked[previous] + (compareValues(previous, order[i]) != 0 ? 1 : 0);
+            }
+            ranks = ranked;
+        }
+
+        @Override
+        int compare(int a, int b) { return Integer.compare(ranks[a], ranks[b]); }
+
+        // Nulls first
+        private int compareValues(int a, int b) {
+            String left = values[a];
+            String right = values[b];
+            if (left == null || right == null) return left == null ? (right == null ? 0 : -1) : 1;
+            return left.compareTo(right);
+        }
+
+        @Override
+        public String text(int row) {
+            String value = values[row];
+            return value != null ? value : "";
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.github._3xhaust.dsl;
+
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Renderer;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.state.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Header and row items of the grids showing a {@link GridData} from one column at one row
+ * height. Cached by the data (see {@link GridData#items}), so the factories keep their identity
+ * across renders and lazy lists keep their realized items.
+ */
+final class GridItems {
+    private final GridData data;
+    private final int first;
+    private final int rowHeight;
+    // Of the grid rendered last; header buttons are recorded once per slot and call it through here
+    Runnable onSort = () -> {
+    };
+    final LazyList.ItemFactory header = width -> new HeaderItem(end(width));
+    final LazyList.ItemFactory rows = width -> new RowItem(end(width));
+
+    GridItems(GridData data, int first, int rowHeight) {
+        this.data = data;
+        this.first = first;
+        this.rowHeight = rowHeight;
+    }
+
+    /**
+     * End of the columns from {@link #first} that start within {@code width} pixels.
+     */
+    private int end(int width) {
+        int end = first;
+        for (int x = 0; end < data.getColumnCount() && x < width; end++) {
+            x += data.getColumn(end).getWidth();
+        }
+        return end;
+    }
+
+    private void sort(int column) {
+        data.sort(column, column != data.getSortColumn() || !data.isAscending());
+        onSort.run();
+    }
+
+    private String arrow(int column) {
+        if (column != data.getSortColumn()) return "";
+        return data.isAscending() ? " \u25B2" : " \u25BC";
+    }
+
+    /**
+     * Header of one slot; the sort arrows are states, so a sort only sets them.
+     */
+    private final class HeaderItem implements LazyList.Item {
+        private final int end;
+        private final List<State<String>> arrows = new ArrayList<>();
+        private final Subscription sorted;
+
+        HeaderItem(int end) {
+            this.end = end;
+            for (int column = first; column < end; column++) arrows.add(State.of(arrow(column)));
+            sorted = data.version().subscribe(version -> show());
+        }
+
+        @Override
+        public View view() {
+            return this::render;
+        }
+
+        private void render(Renderer renderer) {
+            renderer.pushRow(MainAxisAlignment.START, CrossAxisAlignment.START, MainAxisSize.MIN, null, 0);
+            for (int column = first; column < end; column++) {
+                GridData.Column header = data.getColumn(column);
+                int sortBy = column;
+                renderer.pushSizedBox(header.getWidth(), rowHeight);
+                renderer.pushRow(MainAxisAlignment.START, CrossAxisAlignment.CENTER, MainAxisSize.MIN, null, 0);
+                renderer.addButton(header.name, () -> sort(sortBy));
+                renderer.addText(arrows.get(column - first));
+                renderer.pop();
+                renderer.pop();
+            }
+            renderer.pop();
+        }
+
+        @Override
+        public boolean bind(int index) {
+            show();
+            return false;
+        }
+
+        private void show() {
+            for (int column = first; column < end; column++) arrows.get(column - first).set(arrow(column));
+        }
+
+        @Override
+        public void release() {
+            sorted.unsubscribe();
+        }
+    }
+
+    /**
+     * Row of one slot. Its cells are states recorded once, so showing another row or a
+     * re-sorted one only sets their texts.
+     */
+    private final class RowItem implements LazyList.Item {
+        private final int end;
+        private final List<State<String>> cells = new ArrayList<>();
+        private final Subscription changed;
+        private int position = -1;
+
+        RowItem(int end) {
+            this.end = end;
+            for (int column = first; column < end; column++) cells.add(State.of(""));
+            changed = data.version().subscribe(version -> show());
+        }
+
+        @Override
+        public View view() {
+            return this::render;
+        }
+
+        // Cells go straight to the renderer, without a widget per cell
+        private void render(Renderer renderer) {
+            renderer.pushRow(MainAxisAlignment.START, CrossAxisAlignment.CENTER, MainAxisSize.MIN, null, 0);
+            for (int column = first; column < end; column++) {
+                renderer.pushSizedBox(data.getColumn(column).getWidth(), rowHeight);
+                renderer.addText(cells.get(column - first));
+                renderer.pop();
+            }
+            renderer.pop();
+        }
+
+        @Override
+        public boolean bind(int index) {
+            position = index;
+            show();
+            return false;
+        }
+
+        // A filter may have dropped the row before the view shrank the list
+        private void show() {
+            boolean shown = position >= 0 && position < data.getVisibleRowCount();
+            for (int column = first; column < end; column++) {
+                cells.get(column - first).set(shown ? data.text(position, column) : "");
+            }
+        }
+
+        @Override
+        public void release() {
+            changed.unsubscribe();
+        }
+    }
+}
@@ -1,16 +1,57 @@
 package io.github._3xhaust.dsl;
 
 import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Memo;
 import io.github._3xhaust.core.Renderer;
 import io.github._3xhaust.core.View;
 import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
 import io.github._3xhaust.dsl.enums.MainAxisAlignment;
 import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 public class Layouts {
+    public static KeyedWidget Keyed(Object key, View child) {
+        return new KeyedWidget(key, child);
+    }
+
+    public static LazyListWidget LazyColumn(int itemCount, IntFunction<View> itemBuilder) {
+        return new LazyListWidget(false, 1, itemCount, itemBuilder);
+    }
+
+    public static LazyListWidget LazyRow(int itemCount, IntFunction<View> itemBuilder) {
+        return new LazyListWidget(true, 1, itemCount, itemBuilder);
+    }
+
+    public static LazyListWidget LazyGrid(int crossAxisCount, int itemCount, IntFunction<View> itemBuilder) {
+        return new LazyListWidget(false, crossAxisCount, itemCount, itemBuilder);
+    }
+
+    /**
+     * Table over {@code data} that builds only the rows scrolled into view and only the columns
+     * that fit its width; clicking a header sorts by that column.
+     */
+    public static DataGridWidget DataGrid(GridData data) {
+        return new DataGridWidget(data);
+    }
+
+    /**
+     * Re-renders {@code body} only when one of {@code inputs} changed since the last update. The
+     * body's class identifies the component, so each call site memoizes separately. Memos are
+     * matched by position; key them when siblings are inserted or reordered before them.
+     */
+    public static MemoWidget Memo(Supplier<View> body, Object... inputs) {
+        return new MemoWidget(body.getClass(), inputs, body);
+    }
+
     public static ColumnWidget Column(View... children) {
         return new ColumnWidget(Arrays.asList(children));
     }
@@ -47,6 +88,14 @@ public class Layouts {
         return new FlexibleWidget(child, flex);
     }
 
+    public static ThemedWidget Themed(Theme theme, View child) {
+        return new ThemedWidget(theme.asOverride(), child);
+    }
+
+    public static ThemedWidget Themed(ThemeOverride override, View child) {
+        return new ThemedWidget(override, child);
+    }
+
     public static class ColumnWidget implements View {
         private final List<View> children;
         private MainAxisAlignment mainAxisAlignment = MainAxisAlignment.START;
@@ -91,7 +140,7 @@ public class Layouts {
 
         @Override
         public void render(Renderer renderer) {
-            renderer.pushColumn(mainAxisAlignment, crossAxisAlignment, padding, gap);
+            renderer.pushColumn(mainAxisAlignment, crossAxisAlignment, mainAxisSize, padding, gap);
             for (View child : children) {
                 child.render(renderer);
             }
@@ -143,7 +192,7 @@ public class Layouts {
 
         @Override
         public void render(Renderer renderer) {
-            renderer.pushRow(mainAxisAlignment, crossAxisAlignment, padding, gap);
+            renderer.pushRow(mainAxisAlignment, crossAxisAlignment, mainAxisSize, padding, gap);
             for (View child : children) {
                 child.render(renderer);
             }
@@ -204,6 +253,7 @@ public class Layouts {
 
         @Override
         public void render(Renderer renderer) {
+            renderer.flex(flex, true);
             child.render(renderer);
         }
     }
@@ -219,7 +269,167 @@ public class Layouts {
 
         @Override
         public void render(Renderer renderer) {
+            renderer.flex(flex, false);
+            child.render(renderer);
+        }
+    }
+
+    public static class LazyListWidget implements View {
+        private final boolean horizontal;
+        private final int crossAxisCount;
+        private final int itemCount;
+        private final IntFunction<View> itemBuilder;
+        private int itemExtent = 32;
+        private int overscan = 4;
+
+        public LazyListWidget(boolean horizontal, int crossAxisCount, int itemCount, IntFunction<View> itemBuilder) {
+            this.horizontal = horizontal;
+            this.crossAxisCount = crossAxisCount;
+            this.itemCount = itemCount;
+            this.itemBuilder = itemBuilder;
+        }
+
+        /**
+         * Fixed size of every item along the scroll axis.
+         */
+        public LazyListWidget itemExtent(int extent) {
+            this.itemExtent = extent;
+            return this;
+        }
+
+        /**
+         * Extra lines realized beyond each edge of the viewport.
+         */
+        public LazyListWidget overscan(int lines) {
+            this.overscan = lines;
+            return this;
+        }
+
+        @Override
+        public void render(Renderer renderer) {
+            renderer.addLazyList(new LazyList(horizontal, itemCount, itemExtent, crossAxisCount, overscan, itemBuilder));
+        }
+    }
+
+    public static class KeyedWidget implements View {
+        private final Object key;
+        private final View child;
+
+        public KeyedWidget(Object key, View child) {
+            this.key = key;
+            this.child = child;
+        }
+
+        @Override
+        public void render(Renderer renderer) {
+            renderer.key(key);
+            child.render(renderer);
+        }
+    }
+
+    public static class ThemedWidget implements View {
+        private final ThemeOverride override;
+        private final View child;
+
+        public ThemedWidget(ThemeOverride override, View child) {
+            this.override = override;
+            this.child = child;
+        }
+
+        @Override
+        public void render(Renderer renderer) {
+            renderer.pushTheme(override);
             child.render(renderer);
+            renderer.popTheme();
+        }
+    }
+
+    public static class MemoWidget implements View {
+        private final Object type;
+        private final Object[] inputs;
+        private final Supplier<View> body;
+        private BiPredicate<Object, Object> equality = Objects::equals;
+        private Memo memo;
+
+        public MemoWidget(Object type, Object[] inputs, Supplier<View> body) {
+            this.type = type;
+            this.inputs = inputs;
+            this.body = body;
+        }
+
+        /**
+         * Compares inputs with {@code equality} instead of {@link Objects#equals}, e.g. by identity
+         * for large immutable models.
+         */
+        public MemoWidget equality(BiPredicate<Object, Object> equality) {
+            this.equality = equality;
+            this.memo = null;
+            return this;
+        }
+
+        @Override
+        public void render(Renderer renderer) {
+            // Built once, so rendering the same widget again allocates nothing
+            if (memo == null) memo = new Memo(type, inputs, equality, body);
+            renderer.memo(memo);
+        }
+    }
+
+    public static class DataGridWidget implements View {
+        private final GridData data;
+        private int rowHeight = 28;
+        private int overscan = 4;
+        private int firstColumn;
+        private Runnable onSort = () -> {
+        };
+
+        public DataGridWidget(GridData data) {
+            this.data = data;
+        }
+
+        public DataGridWidget rowHeight(int height) {
+            this.rowHeight = height;
+            return this;
+        }
+
+        /**
+         * Extra rows realized beyond each edge of the viewport.
+         */
+        public DataGridWidget overscan(int rows) {
+            this.overscan = rows;
+            return this;
+        }
+
+        /**
+         * Shows the columns from {@code column} on, as many as start within the grid's width.
+         * Scrolling sideways is moving this window and updating the view.
+         */
+        public DataGridWidget firstColumn(int column) {
+            this.firstColumn = column;
+            return this;
+        }
+
+        /**
+         * Called after a header click re-sorted the data. The grid rebinds its rows and header
+         * arrow on its own.
+         */
+        public DataGridWidget onSort(Runnable onSort) {
+            this.onSort = onSort;
+            return this;
+        }
+
+        @Override
+        public void render(Renderer renderer) {
+            int first = Math.max(0, Math.min(firstColumn, data.getColumnCount() - 1));
+            // Cached on the data, so a widget built anew by every render keeps the grid's rows
+            GridItems items = data.items(first, rowHeight);
+            items.onSort = onSort;
+            renderer.pushColumn(MainAxisAlignment.START, CrossAxisAlignment.START, MainAxisSize.MAX, null, 0);
+            // The header is a one-item list too, so it learns the grid's width the way the rows do
+            renderer.addLazyList(LazyList.ofItems(false, 1, rowHeight, 1, 0, items.header));
+            renderer.flex(1, true);
+            renderer.addLazyList(LazyList.ofItems(false, data.getVisibleRowCount(), rowHeight, 1, overscan, items.rows));
+            renderer.pop();
         }
     }
 }
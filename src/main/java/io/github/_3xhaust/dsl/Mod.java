@@ -1,5 +1,7 @@
 package io.github._3xhaust.dsl;
 
+import io.github._3xhaust.core.FontCache;
+
 import java.awt.*;
 
 public class Mod {
@@ -48,7 +50,7 @@ public class Mod {
             String fontFamily = family != null ? family : Font.SANS_SERIF;
             int fontSize = size != -1 ? size : 12;
             int fontWeight = weight != -1 ? weight : Font.PLAIN;
-            return new Font(fontFamily, fontWeight, fontSize);
+            return FontCache.get(fontFamily, fontWeight, fontSize);
         }
 
         public String getFamily() { return family; }
@@ -1,5 +1,9 @@
 package io.github._3xhaust.dsl;
 
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.FontCache;
+import io.github._3xhaust.dsl.styles.StyleValues;
+
 import java.awt.*;
 
 public class Style {
@@ -39,7 +43,7 @@ public class Style {
     public Style() {}
 
     public Style font(String name, int style, int size) {
-        this.font = new Font(name, style, size);
+        this.font = FontCache.get(name, style, size);
         return this;
     }
 
@@ -50,18 +54,18 @@ public class Style {
 
     public Style fontSize(int size) {
         if (this.font != null) {
-            this.font = this.font.deriveFont((float) size);
+            this.font = FontCache.withSize(this.font, size);
         } else {
-            this.font = new Font(Font.SANS_SERIF, Font.PLAIN, size);
+            this.font = FontCache.get(Font.SANS_SERIF, Font.PLAIN, size);
         }
         return this;
     }
 
     public Style fontStyle(int style) {
         if (this.font != null) {
-            this.font = this.font.deriveFont(style);
+            this.font = FontCache.withWeight(this.font, style);
         } else {
-            this.font = new Font(Font.SANS_SERIF, style, 12);
+            this.font = FontCache.get(Font.SANS_SERIF, style, 12);
         }
         return this;
     }
@@ -180,6 +184,23 @@ public class Style {
         return this;
     }
 
+    /**
+     * Compiles this builder into the shared immutable style; compile once and reuse the result.
+     */
+    public ElementStyle compile() {
+        Dimension fixed = size != null ? size : preferredSize;
+        ElementStyle.Builder builder = ElementStyle.builder()
+                .font(font)
+                .foreground(foregroundColor)
+                .background(opaque ? backgroundColor : null)
+                .padding(StyleValues.insets(padding))
+                .textAlign(StyleValues.textAlign(horizontalAlignment));
+        if (fixed != null) builder.size(fixed.width > 0 ? fixed.width : -1, fixed.height > 0 ? fixed.height : -1);
+        if (minimumSize != null && minimumSize.width > 0) builder.minWidth(minimumSize.width);
+        if (border != null) builder.border(border.getThickness(), border.getColor());
+        return builder.build();
+    }
+
     public Font getFont() { return font; }
     public Color getForegroundColor() { return foregroundColor; }
     public Color getBackgroundColor() { return backgroundColor; }
@@ -1,5 +1,8 @@
 package io.github._3xhaust.dsl;
 
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.FontCache;
+import io.github._3xhaust.core.Insets;
 import io.github._3xhaust.core.Renderer;
 import io.github._3xhaust.core.View;
 import io.github._3xhaust.state.State;
@@ -33,13 +36,8 @@ public class Widgets {
         private final State<?> state;
         private final boolean isLabel;
 
-        private Font font;
-        private Color color;
-        private Color backgroundColor;
-        private int textAlign = -1;
-        private Insets padding;
-        private BorderInfo border;
-        private Dimension minSize;
+        private ElementStyle.Builder style = ElementStyle.builder();
+        private ElementStyle compiled;
 
         public TextWidget(String text) {
             this.text = text;
@@ -67,7 +65,8 @@ public class Widgets {
 
         public TextWidget font(Mod.FontModifier... modifiers) {
             if (modifiers.length == 1) {
-                this.font = modifiers[0].toFont();
+                style.font(modifiers[0].toFont());
+                compiled = null;
             } else {
                 String family = Font.SANS_SERIF;
                 int size = 12;
@@ -79,54 +78,82 @@ public class Widgets {
                     if (mod.getWeight() != -1) weight = mod.getWeight();
                 }
 
-                this.font = new Font(family, weight, size);
+                style.font(FontCache.get(family, weight, size));
+                compiled = null;
             }
             return this;
         }
 
         public TextWidget color(Color color) {
-            this.color = color;
+            style.foreground(color);
+            compiled = null;
             return this;
         }
 
         public TextWidget background(Color color) {
-            this.backgroundColor = color;
+            style.background(color);
+            compiled = null;
             return this;
         }
 
-        public TextWidget alignCenter() { this.textAlign = 1; return this; }
-        public TextWidget alignLeft() { this.textAlign = 0; return this; }
-        public TextWidget alignRight() { this.textAlign = 2; return this; }
+        public TextWidget alignCenter() { return align(ElementStyle.ALIGN_CENTER); }
+        public TextWidget alignLeft() { return align(ElementStyle.ALIGN_LEFT); }
+        public TextWidget alignRight() { return align(ElementStyle.ALIGN_RIGHT); }
+
+        private TextWidget align(int textAlign) {
+            style.textAlign(textAlign);
+            compiled = null;
+            return this;
+        }
 
         public TextWidget padding(int all) {
-            this.padding = new Insets(all, all, all, all);
+            style.padding(Insets.all(all));
+            compiled = null;
             return this;
         }
 
         public TextWidget padding(int vertical, int horizontal) {
-            this.padding = new Insets(vertical, horizontal, vertical, horizontal);
+            style.padding(Insets.verticalHorizontal(vertical, horizontal));
+            compiled = null;
             return this;
         }
 
         public TextWidget border(int width, Color color) {
-            this.border = new BorderInfo(width, color);
+            style.border(width, color);
+            compiled = null;
             return this;
         }
 
+        /**
+         * Replaces this widget's style with a compiled one, shared as is.
+         */
+        public TextWidget style(ElementStyle compiled) {
+            this.style = compiled.toBuilder();
+            this.compiled = compiled;
+            return this;
+        }
+
+        private ElementStyle compiled() {
+            if (compiled == null) compiled = style.build();
+            return compiled;
+        }
+
         public TextWidget minWidth(int width) {
-            this.minSize = new Dimension(width, 0);
+            style.minWidth(width);
+            compiled = null;
             return this;
         }
 
         @Override
         public void render(Renderer renderer) {
+            ElementStyle style = compiled();
+            if (style != ElementStyle.EMPTY) renderer.style(style);
             if (state != null) {
                 renderer.addText(state);
             } else {
                 renderer.addText(text);
             }
         }
-        // 스타일은 플랫폼별 렌더러에서 적용 경로를 별도 제공하는 방향으로 이관 예정
     }
 
     public static class ButtonWidget implements View {
@@ -134,12 +161,8 @@ public class Widgets {
         private final Runnable onClick;
         private final String buttonType;
 
-        private Font font;
-        private Color color;
-        private Color backgroundColor;
-        private Insets padding;
-        private BorderInfo border;
-        private Dimension preferredSize;
+        private ElementStyle.Builder style = ElementStyle.builder();
+        private ElementStyle compiled;
 
         public ButtonWidget(String text, Runnable onClick) {
             this(text, onClick, "primary");
@@ -153,7 +176,8 @@ public class Widgets {
 
         public ButtonWidget font(Mod.FontModifier... modifiers) {
             if (modifiers.length == 1) {
-                this.font = modifiers[0].toFont();
+                style.font(modifiers[0].toFont());
+                compiled = null;
             } else {
                 String family = Font.SANS_SERIF;
                 int size = 12;
@@ -165,55 +189,67 @@ public class Widgets {
                     if (mod.getWeight() != -1) weight = mod.getWeight();
                 }
 
-                this.font = new Font(family, weight, size);
+                style.font(FontCache.get(family, weight, size));
+                compiled = null;
             }
             return this;
         }
 
         public ButtonWidget color(Color color) {
-            this.color = color;
+            style.foreground(color);
+            compiled = null;
             return this;
         }
 
         public ButtonWidget background(Color color) {
-            this.backgroundColor = color;
+            style.background(color);
+            compiled = null;
             return this;
         }
 
         public ButtonWidget padding(int all) {
-            this.padding = new Insets(all, all, all, all);
+            style.padding(Insets.all(all));
+            compiled = null;
             return this;
         }
 
         public ButtonWidget padding(int vertical, int horizontal) {
-            this.padding = new Insets(vertical, horizontal, vertical, horizontal);
+            style.padding(Insets.verticalHorizontal(vertical, horizontal));
+            compiled = null;
             return this;
         }
 
         public ButtonWidget border(int width, Color color) {
-            this.border = new BorderInfo(width, color);
+            style.border(width, color);
+            compiled = null;
             return this;
         }
 
+        /**
+         * Replaces this widget's style with a compiled one, shared as is.
+         */
+        public ButtonWidget style(ElementStyle compiled) {
+            this.style = compiled.toBuilder();
+            this.compiled = compiled;
+            return this;
+        }
+
+        private ElementStyle compiled() {
+            if (compiled == null) compiled = style.build();
+            return compiled;
+        }
+
         public ButtonWidget size(int width, int height) {
-            this.preferredSize = new Dimension(width, height);
+            style.size(width, height);
+            compiled = null;
             return this;
         }
 
         @Override
         public void render(Renderer renderer) {
+            ElementStyle style = compiled();
+            if (style != ElementStyle.EMPTY) renderer.style(style);
             renderer.addButton(text, onClick);
         }
-        // 스타일은 플랫폼별 렌더러에서 적용 경로를 별도 제공하는 방향으로 이관 예정
-    }
-
-    private static class BorderInfo {
-        final int width;
-        final Color color;
-
-        BorderInfo(int width, Color color) {
-            this.width = width;
-            this.color = color;
-        }
     }
 }
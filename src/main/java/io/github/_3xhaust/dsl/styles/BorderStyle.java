@@ -20,7 +20,7 @@ public class BorderStyle {
     }
 
     public BorderStyle color(String colorStr) {
-        this.color = parseColor(colorStr);
+        this.color = StyleValues.color(colorStr);
         return this;
     }
 
@@ -37,25 +37,6 @@ public class BorderStyle {
         return new BorderStyle().width(width).style(style).color(color);
     }
 
-    private Color parseColor(String colorStr) {
-        return switch (colorStr.toLowerCase()) {
-            case "red" -> Color.RED;
-            case "blue" -> Color.BLUE;
-            case "green" -> Color.GREEN;
-            case "black" -> Color.BLACK;
-            case "white" -> Color.WHITE;
-            case "gray" -> Color.GRAY;
-            case "lightgray" -> Color.LIGHT_GRAY;
-            case "darkgray" -> Color.DARK_GRAY;
-            case "yellow" -> Color.YELLOW;
-            case "orange" -> Color.ORANGE;
-            case "pink" -> Color.PINK;
-            case "cyan" -> Color.CYAN;
-            case "magenta" -> Color.MAGENTA;
-            default -> Color.BLACK;
-        };
-    }
-
     public int getWidth() { return width; }
     public Color getColor() { return color; }
     public String getStyle() { return style; }
@@ -1,5 +1,8 @@
 package io.github._3xhaust.dsl.styles;
 
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.FontCache;
+
 import java.awt.*;
 
 public class ButtonStyle {
@@ -28,7 +31,7 @@ public class ButtonStyle {
     }
 
     public ButtonStyle color(String colorStr) {
-        this.color = parseColor(colorStr);
+        this.color = StyleValues.color(colorStr);
         return this;
     }
 
@@ -38,7 +41,7 @@ public class ButtonStyle {
     }
 
     public ButtonStyle backgroundColor(String colorStr) {
-        this.backgroundColor = parseColor(colorStr);
+        this.backgroundColor = StyleValues.color(colorStr);
         return this;
     }
 
@@ -108,35 +111,32 @@ public class ButtonStyle {
         return this;
     }
 
-    private Color parseColor(String colorStr) {
-        return switch (colorStr.toLowerCase()) {
-            case "red" -> Color.RED;
-            case "blue" -> Color.BLUE;
-            case "green" -> Color.GREEN;
-            case "black" -> Color.BLACK;
-            case "white" -> Color.WHITE;
-            case "gray" -> Color.GRAY;
-            case "lightgray" -> Color.LIGHT_GRAY;
-            case "darkgray" -> Color.DARK_GRAY;
-            case "yellow" -> Color.YELLOW;
-            case "orange" -> Color.ORANGE;
-            case "pink" -> Color.PINK;
-            case "cyan" -> Color.CYAN;
-            case "magenta" -> Color.MAGENTA;
-            default -> Color.BLACK;
-        };
-    }
-
     public Font getFont() {
         if (fontSize != -1 || fontStyle != -1 || fontFamily != null) {
             String family = fontFamily != null ? fontFamily : Font.SANS_SERIF;
             int style = fontStyle != -1 ? fontStyle : Font.PLAIN;
             int size = fontSize != -1 ? fontSize : 12;
-            return new Font(family, style, size);
+            return FontCache.get(family, style, size);
         }
         return font;
     }
 
+    /**
+     * Compiles this builder into the shared immutable style; compile once and reuse the result.
+     */
+    public ElementStyle compile() {
+        Dimension fixed = size != null ? size : preferredSize;
+        ElementStyle.Builder builder = ElementStyle.builder()
+                .font(getFont())
+                .foreground(color)
+                .background(backgroundColor)
+                .padding(StyleValues.insets(padding))
+                .textAlign(StyleValues.textAlign(textAlign));
+        if (fixed != null) builder.size(fixed.width > 0 ? fixed.width : -1, fixed.height > 0 ? fixed.height : -1);
+        if (border != null) builder.border(border.getWidth(), border.getColor());
+        return builder.build();
+    }
+
     public Color getColor() { return color; }
     public Color getBackgroundColor() { return backgroundColor; }
     public Dimension getSize() { return size; }
@@ -0,0 +1,55 @@
+package io.github._3xhaust.dsl.styles;
+
+import io.github._3xhaust.core.ElementStyle;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Conversions shared by the style builders when they are compiled into an {@link ElementStyle}.
+ */
+public final class StyleValues {
+    private static final Map<String, Color> NAMED_COLORS = Map.ofEntries(
+            Map.entry("red", Color.RED),
+            Map.entry("blue", Color.BLUE),
+            Map.entry("green", Color.GREEN),
+            Map.entry("black", Color.BLACK),
+            Map.entry("white", Color.WHITE),
+            Map.entry("gray", Color.GRAY),
+            Map.entry("lightgray", Color.LIGHT_GRAY),
+            Map.entry("darkgray", Color.DARK_GRAY),
+            Map.entry("yellow", Color.YELLOW),
+            Map.entry("orange", Color.ORANGE),
+            Map.entry("pink", Color.PINK),
+            Map.entry("cyan", Color.CYAN),
+            Map.entry("magenta", Color.MAGENTA));
+
+    private StyleValues() {
+    }
+
+    /**
+     * Color for a CSS-like name; unknown names are black.
+     */
+    public static Color color(String name) {
+        return NAMED_COLORS.getOrDefault(name.toLowerCase(Locale.ROOT), Color.BLACK);
+    }
+
+    public static io.github._3xhaust.core.Insets insets(Insets insets) {
+        if (insets == null) return null;
+        return new io.github._3xhaust.core.Insets(insets.top, insets.left, insets.bottom, insets.right);
+    }
+
+    /**
+     * {@link ElementStyle} alignment for a {@link SwingConstants} horizontal alignment, or -1.
+     */
+    public static int textAlign(int swingAlignment) {
+        return switch (swingAlignment) {
+            case SwingConstants.LEFT -> ElementStyle.ALIGN_LEFT;
+            case SwingConstants.CENTER -> ElementStyle.ALIGN_CENTER;
+            case SwingConstants.RIGHT -> ElementStyle.ALIGN_RIGHT;
+            default -> -1;
+        };
+    }
+}
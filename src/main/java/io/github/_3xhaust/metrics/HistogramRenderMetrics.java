@@ -0,0 +1,161 @@
+package io.github._3xhaust.metrics;
+
+import io.github._3xhaust.core.RenderMetrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps render metrics in memory: a histogram per phase and for event-queue latency, plus running
+ * totals of reconciled nodes, memoized subtrees and state notifications. Recording is lock-free and allocation-free,
+ * so it can stay installed in production and be read with {@link #report()} when a frame janks.
+ */
+public class HistogramRenderMetrics implements RenderMetrics {
+
+    /**
+     * Durations bucketed by power of two, so percentiles are accurate to within a factor of two.
+     */
+    public static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value) - (value == 0 ? 0 : 1));
+            count.increment();
+            total.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        public long count() { return count.sum(); }
+        public long max() { return max.get(); }
+
+        public double mean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) total.sum() / n;
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile (0-100), capped at the maximum.
+         */
+        public long percentile(double percentile) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(n * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < 64; i++) {
+                seen += buckets.get(i);
+                if (seen >= Math.max(1, rank)) return Math.min(i == 63 ? Long.MAX_VALUE : (2L << i) - 1, max());
+            }
+            return max();
+        }
+
+        void reset() {
+            for (int i = 0; i < 64; i++) buckets.set(i, 0);
+            count.reset();
+            total.reset();
+            max.set(0);
+        }
+    }
+
+    private final Map<Phase, Histogram> phases = new EnumMap<>(Phase.class);
+    private final Histogram eventLatency = new Histogram();
+    private final AtomicLong firstMount = new AtomicLong(-1);
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder removed = new LongAdder();
+    private final LongAdder memoSkipped = new LongAdder();
+    private final LongAdder memoRendered = new LongAdder();
+    private final LongAdder stateNotifications = new LongAdder();
+    private final LongAdder listenersNotified = new LongAdder();
+
+    public HistogramRenderMetrics() {
+        for (Phase phase : Phase.values()) phases.put(phase, new Histogram());
+    }
+
+    @Override
+    public void phase(Phase phase, long nanos) {
+        phases.get(phase).record(nanos);
+    }
+
+    @Override
+    public void firstMount(long nanos) {
+        firstMount.set(nanos);
+    }
+
+    @Override
+    public void nodes(int created, int reused, int removed) {
+        this.created.add(created);
+        this.reused.add(reused);
+        this.removed.add(removed);
+    }
+
+    @Override
+    public void memo(int skipped, int rendered) {
+        memoSkipped.add(skipped);
+        memoRendered.add(rendered);
+    }
+
+    @Override
+    public void stateNotified(int listeners) {
+        stateNotifications.increment();
+        listenersNotified.add(listeners);
+    }
+
+    @Override
+    public void eventLatency(long nanos) {
+        eventLatency.record(nanos);
+    }
+
+    public Histogram getPhase(Phase phase) { return phases.get(phase); }
+    public Histogram getEventLatency() { return eventLatency; }
+    /** Nanoseconds from init to the most recent first mount, or -1 before any. */
+    public long getFirstMount() { return firstMount.get(); }
+    public long getCreated() { return created.sum(); }
+    public long getReused() { return reused.sum(); }
+    public long getRemoved() { return removed.sum(); }
+    public long getMemoSkipped() { return memoSkipped.sum(); }
+    public long getMemoRendered() { return memoRendered.sum(); }
+    public long getStateNotifications() { return stateNotifications.sum(); }
+    public long getListenersNotified() { return listenersNotified.sum(); }
+
+    public void reset() {
+        for (Histogram histogram : phases.values()) histogram.reset();
+        eventLatency.reset();
+        firstMount.set(-1);
+        created.reset();
+        reused.reset();
+        removed.reset();
+        memoSkipped.reset();
+        memoRendered.reset();
+        stateNotifications.reset();
+        listenersNotified.reset();
+    }
+
+    /**
+     * Multi-line summary of everything recorded, in microseconds.
+     */
+    public String report() {
+        StringBuilder out = new StringBuilder();
+        if (getFirstMount() >= 0) out.append(String.format("first mount  %.1f ms%n", getFirstMount() / 1e6));
+        for (Map.Entry<Phase, Histogram> entry : phases.entrySet()) {
+            append(out, entry.getKey().name(), entry.getValue());
+        }
+        append(out, "LATENCY", eventLatency);
+        out.append(String.format("nodes        created %d, reused %d, removed %d%n", getCreated(), getReused(), getRemoved()));
+        out.append(String.format("memos        skipped %d, rendered %d%n", getMemoSkipped(), getMemoRendered()));
+        out.append(String.format("states       %d notifications, %d listener calls%n", getStateNotifications(), getListenersNotified()));
+        return out.toString();
+    }
+
+    private static void append(StringBuilder out, String name, Histogram histogram) {
+        if (histogram.count() == 0) return;
+        out.append(String.format("%-12s n=%d mean=%.1fus p50<=%.1fus p99<=%.1fus max=%.1fus%n", name, histogram.count(),
+                histogram.mean() / 1e3, histogram.percentile(50) / 1e3, histogram.percentile(99) / 1e3, histogram.max() / 1e3));
+    }
+}
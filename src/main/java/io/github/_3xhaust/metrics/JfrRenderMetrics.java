@@ -0,0 +1,139 @@
+package io.github._3xhaust.metrics;
+
+import io.github._3xhaust.core.RenderMetrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Emits render metrics as Java Flight Recorder events, so UI phases line up with GC, allocation and
+ * thread events in the same recording. Events cost nothing beyond the enabled check while no
+ * recording is running. State notifications fire on every write and are disabled by default;
+ * enable {@code io.github._3xhaust.StateNotification} in the recording settings to see them.
+ */
+public class JfrRenderMetrics implements RenderMetrics {
+
+    @Name("io.github._3xhaust.RenderPhase")
+    @Label("Render Phase")
+    @Category({"JavaUI"})
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Phase Duration")
+        @Timespan
+        long phaseDuration;
+    }
+
+    @Name("io.github._3xhaust.FirstMount")
+    @Label("First Mount")
+    @Description("Time from Renderer.init to the first mounted tree being laid out")
+    @Category({"JavaUI"})
+    static final class FirstMountEvent extends Event {
+        @Label("Time To First Mount")
+        @Timespan
+        long sinceInit;
+    }
+
+    @Name("io.github._3xhaust.Reconcile")
+    @Label("Reconcile Nodes")
+    @Category({"JavaUI"})
+    static final class NodesEvent extends Event {
+        @Label("Created")
+        int created;
+
+        @Label("Reused")
+        int reused;
+
+        @Label("Removed")
+        int removed;
+    }
+
+    @Name("io.github._3xhaust.Memo")
+    @Label("Memoized Subtrees")
+    @Description("Memo bodies one recording skipped because their inputs were unchanged, and those it rendered")
+    @Category({"JavaUI"})
+    static final class MemoEvent extends Event {
+        @Label("Skipped")
+        int skipped;
+
+        @Label("Rendered")
+        int rendered;
+    }
+
+    @Name("io.github._3xhaust.StateNotification")
+    @Label("State Notification")
+    @Category({"JavaUI"})
+    @Enabled(false)
+    static final class StateEvent extends Event {
+        @Label("Listeners")
+        int listeners;
+    }
+
+    @Name("io.github._3xhaust.EventLatency")
+    @Label("Event Queue Latency")
+    @Description("Time from the first update queued for a frame to the frame flushing on the UI thread")
+    @Category({"JavaUI"})
+    static final class LatencyEvent extends Event {
+        @Label("Latency")
+        @Timespan
+        long latency;
+    }
+
+    @Override
+    public void phase(Phase phase, long nanos) {
+        PhaseEvent event = new PhaseEvent();
+        if (!event.isEnabled()) return;
+        event.phase = phase.name();
+        event.phaseDuration = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void firstMount(long nanos) {
+        FirstMountEvent event = new FirstMountEvent();
+        if (!event.isEnabled()) return;
+        event.sinceInit = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void nodes(int created, int reused, int removed) {
+        NodesEvent event = new NodesEvent();
+        if (!event.isEnabled()) return;
+        event.created = created;
+        event.reused = reused;
+        event.removed = removed;
+        event.commit();
+    }
+
+    @Override
+    public void memo(int skipped, int rendered) {
+        MemoEvent event = new MemoEvent();
+        if (!event.isEnabled()) return;
+        event.skipped = skipped;
+        event.rendered = rendered;
+        event.commit();
+    }
+
+    @Override
+    public void stateNotified(int listeners) {
+        StateEvent event = new StateEvent();
+        if (!event.isEnabled()) return;
+        event.listeners = listeners;
+        event.commit();
+    }
+
+    @Override
+    public void eventLatency(long nanos) {
+        LatencyEvent event = new LatencyEvent();
+        if (!event.isEnabled()) return;
+        event.latency = nanos;
+        event.commit();
+    }
+}
@@ -0,0 +1,116 @@
+package io.github._3xhaust.platform.headless;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.LazyWindow;
+import io.github._3xhaust.core.Reconciler;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.theme.Theme;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Headless counterpart of the toolkit lazy lists: realizes the window of a {@link LazyList} into
+ * slot nodes under the list node, ordered by position.
+ */
+class HeadlessLazyList extends LazyWindow<HeadlessLazyList.Slot> {
+    private final HeadlessNode node;
+    private final ElementRecorder recorder = new ElementRecorder();
+    private final Reconciler.Host host;
+    private final HeadlessRenderer renderer;
+    // Realized and pooled slots alike, since pooled ones keep their subscriptions
+    private final List<Slot> slots = new ArrayList<>();
+    private LazyList list;
+    private double offset;
+
+    static class Slot {
+        final HeadlessNode root = new HeadlessNode(Element.Type.COLUMN);
+        Element mounted = Element.root();
+
+        Slot() {
+            mounted.setHandle(root);
+        }
+    }
+
+    HeadlessLazyList(HeadlessNode node, Reconciler.Host host, HeadlessRenderer renderer, Theme theme) {
+        this.node = node;
+        this.host = host;
+        this.renderer = renderer;
+        recorder.setTheme(theme);
+    }
+
+    /**
+     * Restyles the realized items in place; recycled slots record under the new theme.
+     */
+    void setTheme(Theme theme) {
+        recorder.setTheme(theme);
+        for (Slot slot : realized()) Reconciler.retheme(slot.mounted, theme, host);
+    }
+
+    void setLazyList(LazyList list) {
+        this.list = list;
+        setList(list);
+        scrollTo(offset);
+    }
+
+    /**
+     * Re-windows and re-places the slots after the list node was resized.
+     */
+    void refresh() {
+        scrollTo(offset);
+    }
+
+    void scrollTo(double offset) {
+        this.offset = offset;
+        update(offset, list.horizontal ? node.width : node.height, crossExtent());
+        node.children.sort(Comparator.comparingInt((HeadlessNode n) -> n.y).thenComparingInt(n -> n.x));
+    }
+
+    private int crossExtent() {
+        return Math.max(1, (list.horizontal ? node.height : node.width) / list.crossAxisCount);
+    }
+
+    @Override
+    protected Slot createSlot() {
+        Slot slot = new Slot();
+        node.children.add(slot.root);
+        slots.add(slot);
+        return slot;
+    }
+
+    @Override
+    protected void bindSlot(Slot slot, int index, View item) {
+        Element next = recorder.record(item, slot.mounted);
+        Reconciler.reconcile(slot.mounted, next, host);
+        slot.mounted = next;
+    }
+
+    @Override
+    protected void placeSlot(Slot slot, int line, int column) {
+        int cross = crossExtent();
+        int main = line * list.itemExtent;
+        slot.root.x = list.horizontal ? main : column * cross;
+        slot.root.y = list.horizontal ? column * cross : main;
+        slot.root.width = list.horizontal ? list.itemExtent : cross;
+        slot.root.height = list.horizontal ? cross : list.itemExtent;
+        renderer.relayout(slot.mounted);
+    }
+
+    @Override
+    protected void showSlot(Slot slot) {
+        if (!node.children.contains(slot.root)) node.children.add(slot.root);
+    }
+
+    @Override
+    protected void releaseSlot(Slot slot) {
+        node.children.remove(slot.root);
+    }
+
+    void dispose() {
+        for (Slot slot : slots) renderer.dispose(slot.mounted);
+        releaseItems();
+    }
+}
@@ -0,0 +1,91 @@
+package io.github._3xhaust.platform.headless;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.state.Subscription;
+import io.github._3xhaust.theme.Theme;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight stand-in for a native component, created by {@link HeadlessRenderer}.
+ */
+public final class HeadlessNode {
+    final Element.Type type;
+    final List<HeadlessNode> children = new ArrayList<>();
+    Element element;
+    String text;
+    Subscription subscription;
+    HeadlessLazyList lazy;
+    int x;
+    int y;
+    int width;
+    int height;
+
+    HeadlessNode(Element.Type type) {
+        this.type = type;
+    }
+
+    public Element.Type getType() { return type; }
+    public String getText() { return text; }
+    public ElementStyle getStyle() { return element != null ? element.getStyle() : ElementStyle.EMPTY; }
+    public Theme getTheme() { return element != null ? element.getTheme() : Theme.LIGHT; }
+    public List<HeadlessNode> getChildren() { return children; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /**
+     * Runs the click handler of a button node.
+     */
+    public void click() {
+        if (type != Element.Type.BUTTON) throw new IllegalStateException("Not a button: " + type);
+        Runnable onClick = element.getOnClick();
+        if (onClick != null) onClick.run();
+    }
+
+    /**
+     * Scrolls a lazy list node so the window starting at {@code offset} is realized.
+     */
+    public void scrollTo(double offset) {
+        if (lazy == null) throw new IllegalStateException("Not a lazy list: " + type);
+        lazy.scrollTo(offset);
+    }
+
+    /**
+     * Depth-first search for the first node of {@code type} showing {@code text}.
+     */
+    public HeadlessNode find(Element.Type type, String text) {
+        if (this.type == type && text.equals(this.text)) return this;
+        for (HeadlessNode child : children) {
+            HeadlessNode found = child.find(type, text);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    /**
+     * Number of nodes in this subtree, this one included.
+     */
+    public int count() {
+        int count = 1;
+        for (HeadlessNode child : children) count += child.count();
+        return count;
+    }
+
+    void dump(StringBuilder out, int depth) {
+        out.append("  ".repeat(depth)).append(type.name().toLowerCase());
+        if (text != null) out.append(" \"").append(text).append('"');
+        out.append('\n');
+        for (HeadlessNode child : children) child.dump(out, depth + 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        dump(out, 0);
+        return out.toString();
+    }
+}
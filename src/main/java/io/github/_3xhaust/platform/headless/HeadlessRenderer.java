@@ -0,0 +1,331 @@
+package io.github._3xhaust.platform.headless;
+
+import io.github._3xhaust.core.CachedTextMeasurer;
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Memo;
+import io.github._3xhaust.core.Reconciler;
+import io.github._3xhaust.core.Renderer;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Renderer that builds a {@link HeadlessNode} tree instead of toolkit components. It needs no
+ * display and no toolkit thread: every call runs synchronously on the caller, which makes it
+ * suitable for tests, benchmarks and server-side layout.
+ */
+public class HeadlessRenderer implements Renderer {
+    private final ElementRecorder recorder = new ElementRecorder();
+    private final HeadlessHost host = new HeadlessHost();
+    private final LayoutEngine engine = new LayoutEngine(CachedTextMeasurer.awt());
+    private final HeadlessNode root = new HeadlessNode(Element.Type.COLUMN);
+    private Element mounted;
+    private String title;
+
+    public HeadlessRenderer() {
+        init("Headless", 640, 480);
+    }
+
+    @Override
+    public CompletableFuture<Void> init(String title, int width, int height) {
+        this.title = title;
+        root.width = width;
+        root.height = height;
+        mounted = Element.root();
+        mounted.setHandle(root);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void mount(View view) {
+        unmount(null);
+        reconcile(mounted, view);
+    }
+
+    @Override
+    public void update(View oldView, View newView) {
+        reconcile(mounted, newView);
+    }
+
+    /**
+     * Removes the mounted tree and releases its state subscriptions.
+     */
+    @Override
+    public void unmount(View view) {
+        dispose(mounted);
+        root.children.clear();
+        mounted = Element.root();
+        mounted.setHandle(root);
+    }
+
+    private void reconcile(Element previous, View view) {
+        recorder.begin(previous);
+        view.render(this);
+        Element next = recorder.end();
+        Reconciler.reconcile(previous, next, host);
+        mounted = next;
+        relayout(next);
+    }
+
+    /**
+     * Lays out a mounted tree to the size of its root node and copies the changed bounds onto
+     * the nodes.
+     */
+    void relayout(Element top) {
+        HeadlessNode node = (HeadlessNode) top.getHandle();
+        engine.layout(top, node.width, node.height);
+        engine.drainDamaged(this::applyBounds);
+    }
+
+    private void applyBounds(Element element) {
+        HeadlessNode node = (HeadlessNode) element.getHandle();
+        node.x = element.getLayoutX();
+        node.y = element.getLayoutY();
+        node.width = element.getLayoutWidth();
+        node.height = element.getLayoutHeight();
+        if (node.lazy != null) node.lazy.refresh();
+    }
+
+    public LayoutEngine getLayoutEngine() {
+        return engine;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public HeadlessNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Clicks the first button labelled {@code text}.
+     */
+    public void click(String text) {
+        HeadlessNode button = root.find(Element.Type.BUTTON, text);
+        if (button == null) throw new IllegalArgumentException("No button labelled '" + text + "'");
+        button.click();
+    }
+
+    /**
+     * Indented text rendering of the current node tree.
+     */
+    public String dump() {
+        return root.toString();
+    }
+
+    // Views render through this renderer; the calls are recorded and reconciled afterwards
+    @Override
+    public void key(Object key) {
+        recorder.key(key);
+    }
+
+    @Override
+    public void memo(Memo memo) {
+        recorder.memo(memo);
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        recorder.pushColumn(mainAxisAlignment, crossAxisAlignment, padding, gap);
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                           MainAxisSize mainAxisSize, Insets padding, int gap) {
+        recorder.pushColumn(mainAxisAlignment, crossAxisAlignment, mainAxisSize, padding, gap);
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        recorder.pushRow(mainAxisAlignment, crossAxisAlignment, padding, gap);
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                        MainAxisSize mainAxisSize, Insets padding, int gap) {
+        recorder.pushRow(mainAxisAlignment, crossAxisAlignment, mainAxisSize, padding, gap);
+    }
+
+    @Override
+    public void flex(int flex, boolean tight) {
+        recorder.flex(flex, tight);
+    }
+
+    @Override
+    public void style(ElementStyle style) {
+        recorder.style(style);
+    }
+
+    @Override
+    public void pushTheme(ThemeOverride override) {
+        recorder.pushTheme(override);
+    }
+
+    @Override
+    public void popTheme() {
+        recorder.popTheme();
+    }
+
+    @Override
+    public void setTheme(Theme theme) {
+        recorder.setTheme(theme);
+        Reconciler.retheme(mounted, theme, host);
+        engine.layoutDirty();
+        engine.drainDamaged(this::applyBounds);
+    }
+
+    @Override
+    public void pushCenter() {
+        recorder.pushCenter();
+    }
+
+    @Override
+    public void pushSizedBox(int width, int height) {
+        recorder.pushSizedBox(width, height);
+    }
+
+    @Override
+    public void pop() {
+        recorder.pop();
+    }
+
+    @Override
+    public void addText(String text) {
+        recorder.addText(text);
+    }
+
+    @Override
+    public <T> void addText(State<T> state) {
+        recorder.addText(state);
+    }
+
+    @Override
+    public void addButton(String text, Runnable onClick) {
+        recorder.addButton(text, onClick);
+    }
+
+    @Override
+    public void addLazyList(LazyList list) {
+        recorder.addLazyList(list);
+    }
+
+    private class HeadlessHost implements Reconciler.Host {
+        @Override
+        public void create(Element element) {
+            HeadlessNode node = new HeadlessNode(element.getType());
+            node.element = element;
+            element.setHandle(node);
+            switch (element.getType()) {
+                case TEXT -> {
+                    node.text = element.displayText();
+                    bind(node, element.getState());
+                }
+                case BUTTON -> node.text = element.getText();
+                case SIZED_BOX -> {
+                    node.width = element.getWidth();
+                    node.height = element.getHeight();
+                }
+                case LAZY -> {
+                    // Lazy lists fill the renderer viewport until a layout pass sizes them
+                    node.width = root.width;
+                    node.height = root.height;
+                    node.lazy = new HeadlessLazyList(node, this, HeadlessRenderer.this, element.getTheme());
+                    node.lazy.setLazyList(element.getLazyList());
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void insert(Element parent, Element child, Element before) {
+            List<HeadlessNode> children = ((HeadlessNode) parent.getHandle()).children;
+            HeadlessNode node = (HeadlessNode) child.getHandle();
+            children.add(before == null ? children.size() : children.indexOf((HeadlessNode) before.getHandle()), node);
+        }
+
+        @Override
+        public void move(Element parent, Element child, Element before) {
+            ((HeadlessNode) parent.getHandle()).children.remove((HeadlessNode) child.getHandle());
+            insert(parent, child, before);
+        }
+
+        @Override
+        public void remove(Element parent, Element child) {
+            ((HeadlessNode) parent.getHandle()).children.remove((HeadlessNode) child.getHandle());
+            dispose(child);
+        }
+
+        @Override
+        public void retain(Element previous, Element next) {
+            ((HeadlessNode) next.getHandle()).element = next;
+        }
+
+        @Override
+        public void patch(Element previous, Element next) {
+            HeadlessNode node = (HeadlessNode) next.getHandle();
+            switch (next.getType()) {
+                case TEXT -> {
+                    if (previous.getState() != next.getState()) bind(node, next.getState());
+                    node.text = next.displayText();
+                }
+                case BUTTON -> node.text = next.getText();
+                case SIZED_BOX -> {
+                    node.width = next.getWidth();
+                    node.height = next.getHeight();
+                }
+                case LAZY -> {
+                    node.lazy.setLazyList(next.getLazyList());
+                    if (previous.getTheme() != next.getTheme()) node.lazy.setTheme(next.getTheme());
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void restyle(Element element, Theme previous) {
+            HeadlessNode node = (HeadlessNode) element.getHandle();
+            if (node.lazy != null) node.lazy.setTheme(element.getTheme());
+            if (!element.isContainer() && !previous.sameTypography(element.getTheme())) engine.invalidate(element);
+        }
+    }
+
+    /**
+     * Releases the state subscriptions held by a subtree that left the node tree.
+     */
+    void dispose(Element element) {
+        HeadlessNode node = (HeadlessNode) element.getHandle();
+        if (node != null) {
+            if (node.subscription != null) {
+                node.subscription.unsubscribe();
+                node.subscription = null;
+            }
+            if (node.lazy != null) node.lazy.dispose();
+        }
+        for (Element child : element.getChildren()) dispose(child);
+    }
+
+    private void bind(HeadlessNode node, State<?> state) {
+        if (node.subscription != null) node.subscription.unsubscribe();
+        node.subscription = state == null ? null : state.subscribe(value -> {
+            node.text = value != null ? value.toString() : "";
+            engine.invalidate(node.element);
+            engine.layoutDirty();
+            engine.drainDamaged(this::applyBounds);
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package io.github._3xhaust.platform.javafx;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.state.Subscription;
+
+/**
+ * Handle of an element drawn by {@link JavaFXCanvasRenderer}. It outlives the element: the
+ * reconciler carries it over to the matching element of every new tree.
+ */
+final class CanvasNode {
+    Element element;
+    Subscription subscription;
+    JavaFXCanvasLazyList lazy;
+    JavaFXCanvasLazyList.Slot slot;
+
+    // Area last painted on the canvas, damaged again when the element moves or goes away
+    boolean painted;
+    double paintedX;
+    double paintedY;
+    double paintedWidth;
+    double paintedHeight;
+
+    CanvasNode(Element element) {
+        this.element = element;
+    }
+}
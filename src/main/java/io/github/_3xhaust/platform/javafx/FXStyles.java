@@ -0,0 +1,133 @@
+package io.github._3xhaust.platform.javafx;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.theme.Theme;
+
+import javafx.geometry.Pos;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * JavaFX resources for compiled styles and themes. Both are interned, so each combination is
+ * converted once per renderer and looked up by identity afterwards.
+ */
+final class FXStyles {
+    static final String BUTTON_CLASS = "javaui-button";
+
+    /**
+     * Scene stylesheet giving buttons their hover and pressed shades. Each button defines the
+     * looked-up colors it uses in its own inline style, so the states need no event handlers.
+     */
+    static final String STYLESHEET = "data:text/css;base64," + Base64.getEncoder().encodeToString((
+            "." + BUTTON_CLASS + " { -fx-background-color: -javaui-primary; -fx-background-insets: 0; -fx-background-radius: 0; }\n"
+                    + "." + BUTTON_CLASS + ":hover { -fx-background-color: -javaui-primary-hover; }\n"
+                    + "." + BUTTON_CLASS + ":armed { -fx-background-color: -javaui-primary-pressed; }\n")
+            .getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * A style converted to JavaFX values, with the theme defaults filled in.
+     */
+    static final class Resolved {
+        final Font font;
+        final java.awt.Font awtFont;
+        final Color foreground;
+        final Color background;
+        final Color borderColor;
+        final double borderWidth;
+        final Pos alignment;
+        final int textAlign;
+        final String css;
+
+        Resolved(ElementStyle style, Theme theme, boolean button) {
+            awtFont = style.fontOr(theme.font(button ? Theme.BUTTON : Theme.BODY));
+            font = JavaFXTextMeasurer.toFxFont(awtFont);
+            foreground = color(style.foregroundOr(theme.color(button ? Theme.ON_PRIMARY : Theme.ON_BACKGROUND)));
+            background = style.background != null ? color(style.background) : button ? color(theme.color(Theme.PRIMARY)) : null;
+            borderColor = style.hasBorder() ? color(style.borderColor) : null;
+            borderWidth = style.hasBorder() ? style.borderWidth : 0;
+            textAlign = style.textAlign >= 0 ? style.textAlign : button ? ElementStyle.ALIGN_CENTER : ElementStyle.ALIGN_LEFT;
+            alignment = switch (textAlign) {
+                case ElementStyle.ALIGN_CENTER -> Pos.CENTER;
+                case ElementStyle.ALIGN_RIGHT -> Pos.CENTER_RIGHT;
+                default -> Pos.CENTER_LEFT;
+            };
+            css = css(style, theme, button);
+        }
+
+        private static String css(ElementStyle style, Theme theme, boolean button) {
+            StringBuilder css = new StringBuilder();
+            if (button) {
+                // A fixed style background stays the same in every state
+                css.append("-javaui-primary: ").append(hex(style.backgroundOr(theme.color(Theme.PRIMARY)))).append(';')
+                        .append("-javaui-primary-hover: ").append(hex(style.backgroundOr(theme.color(Theme.PRIMARY_HOVER)))).append(';')
+                        .append("-javaui-primary-pressed: ").append(hex(style.backgroundOr(theme.color(Theme.PRIMARY_PRESSED)))).append(';');
+            } else if (style.background != null) {
+                css.append("-fx-background-color: ").append(hex(style.background)).append(';');
+            }
+            if (style.hasBorder()) {
+                css.append("-fx-border-color: ").append(hex(style.borderColor)).append(';')
+                        .append("-fx-border-width: ").append(style.borderWidth).append(';');
+            }
+            Insets padding = style.paddingOr(button ? LayoutEngine.BUTTON_PADDING : null);
+            if (padding != null) {
+                css.append("-fx-padding: ").append(padding.top).append(' ').append(padding.right).append(' ')
+                        .append(padding.bottom).append(' ').append(padding.left).append(';');
+            }
+            return css.toString();
+        }
+    }
+
+    // Styles are weak keys, so those nothing shows any more can be collected
+    private final Map<Theme, Map<ElementStyle, Resolved>> text = new IdentityHashMap<>();
+    private final Map<Theme, Map<ElementStyle, Resolved>> buttons = new IdentityHashMap<>();
+    private final Map<Theme, Color[]> colors = new IdentityHashMap<>();
+
+    Resolved text(Element element) {
+        return text.computeIfAbsent(element.getTheme(), t -> new WeakHashMap<>())
+                .computeIfAbsent(element.getStyle(), s -> new Resolved(s, element.getTheme(), false));
+    }
+
+    Resolved button(Element element) {
+        return buttons.computeIfAbsent(element.getTheme(), t -> new WeakHashMap<>())
+                .computeIfAbsent(element.getStyle(), s -> new Resolved(s, element.getTheme(), true));
+    }
+
+    /**
+     * JavaFX color of a theme token.
+     */
+    Color color(Theme theme, int token) {
+        return colors.computeIfAbsent(theme, t -> {
+            Color[] converted = new Color[Theme.COLOR_COUNT];
+            for (int i = 0; i < converted.length; i++) converted[i] = color(t.color(i));
+            return converted;
+        })[token];
+    }
+
+    /**
+     * Background of a container: painted only where its theme's background differs from the one
+     * it sits on, so themed subtrees stand out and everything else stays transparent.
+     */
+    static String containerCss(Element element) {
+        Element parent = element.getParent();
+        java.awt.Color background = element.getTheme().color(Theme.BACKGROUND);
+        if (parent != null && background.equals(parent.getTheme().color(Theme.BACKGROUND))) return "";
+        return "-fx-background-color: " + hex(background) + ";";
+    }
+
+    static Color color(java.awt.Color color) {
+        return Color.rgb(color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha() / 255.0);
+    }
+
+    private static String hex(java.awt.Color color) {
+        return String.format("#%02x%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+    }
+}
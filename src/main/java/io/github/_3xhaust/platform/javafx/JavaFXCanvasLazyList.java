@@ -0,0 +1,180 @@
+package io.github._3xhaust.platform.javafx;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.LazyWindow;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.theme.Theme;
+
+import javafx.geometry.Point2D;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lazy list drawn by the canvas backend. Realized items are element trees painted at their slot
+ * position; scrolling only moves the window and damages the list area.
+ */
+class JavaFXCanvasLazyList extends LazyWindow<JavaFXCanvasLazyList.Slot> {
+    private final JavaFXCanvasRenderer renderer;
+    private final CanvasNode node;
+    private final ElementRecorder recorder = new ElementRecorder();
+    private final List<Slot> slots = new ArrayList<>();
+    private LazyList list;
+    private double offset;
+
+    class Slot {
+        Element mounted = Element.root();
+        int x;
+        int y;
+        int width;
+        int height;
+
+        Slot() {
+            CanvasNode root = new CanvasNode(mounted);
+            root.slot = this;
+            mounted.setHandle(root);
+        }
+
+        /**
+         * Absolute canvas position of the slot, scroll offset included.
+         */
+        Point2D origin() {
+            Point2D origin = JavaFXCanvasRenderer.origin(node.element);
+            return new Point2D(origin.getX() + x - (list.horizontal ? offset : 0),
+                    origin.getY() + y - (list.horizontal ? 0 : offset));
+        }
+    }
+
+    JavaFXCanvasLazyList(JavaFXCanvasRenderer renderer, CanvasNode node) {
+        this.renderer = renderer;
+        this.node = node;
+        recorder.setTheme(node.element.getTheme());
+    }
+
+    /**
+     * Restyles the realized items in place; recycled slots record under the new theme.
+     */
+    void setTheme(Theme theme) {
+        recorder.setTheme(theme);
+        for (Slot slot : realized()) renderer.retheme(slot.mounted, theme);
+        renderer.damageArea(node.element);
+    }
+
+    void setLazyList(LazyList list) {
+        this.list = list;
+        setList(list);
+        refresh();
+    }
+
+    LazyList getLazyList() {
+        return list;
+    }
+
+    double getOffset() {
+        return offset;
+    }
+
+    private int viewport() {
+        return list.horizontal ? node.element.getLayoutWidth() : node.element.getLayoutHeight();
+    }
+
+    private int crossExtent() {
+        return Math.max(1, (list.horizontal ? node.element.getLayoutHeight() : node.element.getLayoutWidth()) / list.crossAxisCount);
+    }
+
+    void scrollBy(double delta) {
+        double max = Math.max(0, list.contentExtent() - viewport());
+        double next = Math.max(0, Math.min(max, offset + delta));
+        if (next == offset) return;
+        offset = next;
+        refresh();
+    }
+
+    /**
+     * Re-windows the slots for the current size and offset, then damages the list area.
+     */
+    void refresh() {
+        offset = Math.max(0, Math.min(offset, Math.max(0, list.contentExtent() - viewport())));
+        update(offset, viewport(), crossExtent());
+        renderer.damageArea(node.element);
+    }
+
+    @Override
+    protected Slot createSlot() {
+        Slot slot = new Slot();
+        slots.add(slot);
+        return slot;
+    }
+
+    @Override
+    protected void bindSlot(Slot slot, int index, View item) {
+        slot.mounted = renderer.reconcile(slot.mounted, recorder.record(item, slot.mounted));
+    }
+
+    @Override
+    protected void placeSlot(Slot slot, int line, int column) {
+        int cross = crossExtent();
+        int main = line * list.itemExtent;
+        slot.x = list.horizontal ? main : column * cross;
+        slot.y = list.horizontal ? column * cross : main;
+        slot.width = list.horizontal ? list.itemExtent : cross;
+        slot.height = list.horizontal ? cross : list.itemExtent;
+        renderer.layout(slot.mounted, slot.width, slot.height);
+    }
+
+    // Only realized slots are painted and hit
+
+    @Override
+    protected void showSlot(Slot slot) {
+    }
+
+    @Override
+    protected void releaseSlot(Slot slot) {
+    }
+
+    /**
+     * Draws the realized items of a list whose top-left corner is at ({@code x}, {@code y}),
+     * limited to the damaged area.
+     */
+    void paint(JavaFXCanvasRenderer.Painter painter, double x, double y, double clipX, double clipY, double clipWidth, double clipHeight) {
+        Element element = node.element;
+        double left = Math.max(clipX, x);
+        double top = Math.max(clipY, y);
+        double right = Math.min(clipX + clipWidth, x + element.getLayoutWidth());
+        double bottom = Math.min(clipY + clipHeight, y + element.getLayoutHeight());
+        if (right <= left || bottom <= top) return;
+        painter.pushClip(left, top, right - left, bottom - top);
+        double originX = x - (list.horizontal ? offset : 0);
+        double originY = y - (list.horizontal ? 0 : offset);
+        for (Slot slot : realized()) {
+            double slotX = originX + slot.x;
+            double slotY = originY + slot.y;
+            if (slotX >= right || slotY >= bottom || slotX + slot.width <= left || slotY + slot.height <= top) continue;
+            painter.paintChildren(slot.mounted, slotX, slotY, left, top, right - left, bottom - top);
+        }
+        painter.paintScrollThumb(element.getTheme(), x, y, element.getLayoutWidth(), element.getLayoutHeight(),
+                list.horizontal, offset, list.contentExtent());
+        painter.popClip();
+    }
+
+    /**
+     * Button under the list-relative point, if any.
+     */
+    Element hit(double x, double y) {
+        double contentX = x + (list.horizontal ? offset : 0);
+        double contentY = y + (list.horizontal ? 0 : offset);
+        for (Slot slot : realized()) {
+            if (contentX < slot.x || contentY < slot.y
+                    || contentX >= slot.x + slot.width || contentY >= slot.y + slot.height) continue;
+            return JavaFXCanvasRenderer.hit(slot.mounted, contentX - slot.x, contentY - slot.y);
+        }
+        return null;
+    }
+
+    void dispose() {
+        for (Slot slot : slots) renderer.dispose(slot.mounted);
+        releaseItems();
+    }
+}
@@ -0,0 +1,713 @@
+package io.github._3xhaust.platform.javafx;
+
+import io.github._3xhaust.core.CachedTextMeasurer;
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.FrameScheduler;
+import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Memo;
+import io.github._3xhaust.core.Patch;
+import io.github._3xhaust.core.ReadyExecutor;
+import io.github._3xhaust.core.Reconciler;
+import io.github._3xhaust.core.RenderMetrics;
+import io.github._3xhaust.core.RenderPipeline;
+import io.github._3xhaust.core.Renderer;
+import io.github._3xhaust.core.TextMeasurer;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import javafx.application.Platform;
+import javafx.geometry.Point2D;
+import javafx.scene.Cursor;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * JavaFX backend that draws the whole view onto a single {@link Canvas} instead of building a
+ * scene-graph node per widget, so the scene holds a constant number of nodes however large the
+ * view is. Damaged areas are collected into one rectangle and repainted on the next pulse; mouse
+ * events are routed to buttons by hit-testing the laid-out element tree.
+ */
+public class JavaFXCanvasRenderer implements Renderer {
+    private static final double BUTTON_ARC = 8;
+    private static final double SCROLL_THUMB = 6;
+    private static final View EMPTY = renderer -> {
+    };
+
+    private final Stage stage;
+    private Canvas canvas;
+    private Painter painter;
+    // Written on the FX thread when a patch is applied; builds get it handed over when they start
+    private Element mounted;
+    // Set by init and cleared once the first mount is reported
+    private volatile long initStarted;
+    // Lifecycle calls wait for init, then run on the toolkit thread in the order they were made
+    private final ReadyExecutor lifecycle = new ReadyExecutor(Platform::runLater);
+    private final CanvasHost host = new CanvasHost();
+    private final FXStyles styles = new FXStyles();
+    private final TextMeasurer measurer = new CachedTextMeasurer(new JavaFXTextMeasurer());
+    private final LayoutEngine engine = new LayoutEngine(measurer);
+    private final RenderPipeline pipeline = new RenderPipeline(new ElementRecorder(), Platform::runLater, measurer, new BuildTarget());
+    // Frames change the mounted tree, so they wait for any build reading it
+    private final FrameScheduler scheduler = new FrameScheduler(
+            frame -> Platform.runLater(() -> pipeline.whenIdle(frame)), this::layoutDirty);
+
+    // Union of the areas to repaint on the next pulse
+    private boolean damaged;
+    private boolean paintPosted;
+    private double damageLeft;
+    private double damageTop;
+    private double damageRight;
+    private double damageBottom;
+
+    private CanvasNode hovered;
+    private CanvasNode pressed;
+
+    public JavaFXCanvasRenderer(Stage stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public CompletableFuture<Void> init(String title, int width, int height) {
+        initStarted = System.nanoTime();
+        Runnable setup = () -> {
+            try {
+                createWindow(title, width, height);
+            } catch (RuntimeException | Error e) {
+                lifecycle.fail(e);
+                throw e;
+            }
+            lifecycle.complete();
+        };
+        if (Platform.isFxApplicationThread()) {
+            setup.run();
+        } else {
+            Platform.runLater(setup);
+        }
+        return lifecycle.readiness();
+    }
+
+    private void createWindow(String title, int width, int height) {
+        canvas = new Canvas(width, height);
+        painter = new Painter(canvas.getGraphicsContext2D());
+        Pane root = new Pane(canvas);
+        root.widthProperty().addListener((o, before, after) -> resize(after.doubleValue(), canvas.getHeight()));
+        root.heightProperty().addListener((o, before, after) -> resize(canvas.getWidth(), after.doubleValue()));
+        routeEvents();
+        Scene scene = new Scene(root, width, height);
+        stage.setTitle(title);
+        stage.setScene(scene);
+        stage.show();
+        mounted = Element.root();
+        mounted.setHandle(new CanvasNode(mounted));
+        RenderMetrics.current().phase(RenderMetrics.Phase.INIT, System.nanoTime() - initStarted);
+    }
+
+    @Override
+    public void mount(View view) {
+        lifecycle.execute(() -> submit(view, true));
+    }
+
+    @Override
+    public void update(View oldView, View newView) {
+        // The diff runs against the mounted tree, which is the one recorded from oldView
+        lifecycle.execute(() -> submit(newView, false));
+    }
+
+    /**
+     * Receives views built, diffed and laid out on the build thread, and applies them on the FX thread.
+     */
+    private class BuildTarget implements RenderPipeline.Target {
+        @Override
+        public Element mounted() {
+            return mounted;
+        }
+
+        @Override
+        public Element emptyRoot() {
+            Element empty = Element.root();
+            empty.setHandle(new CanvasNode(empty));
+            return empty;
+        }
+
+        @Override
+        public void apply(Patch patch) {
+            if (patch.isFresh()) dispose(mounted);
+            patch.apply(host);
+            Element next = patch.getNext();
+            mounted = next;
+            patch.applyBounds(JavaFXCanvasRenderer.this::damageElement);
+            // Catch up with a theme switch or resize that happened while the patch was built
+            if (patch.getTheme() != pipeline.getTheme()) retheme(next, pipeline.getTheme());
+            patch.invalidateStale(engine);
+            if (patch.getWidth() != (int) canvas.getWidth() || patch.getHeight() != (int) canvas.getHeight()) {
+                layout(next, (int) canvas.getWidth(), (int) canvas.getHeight());
+            }
+            layoutDirty();
+            if (!patch.isFresh()) return;
+            damage(0, 0, canvas.getWidth(), canvas.getHeight());
+            if (initStarted != 0) {
+                RenderMetrics.current().firstMount(System.nanoTime() - initStarted);
+                initStarted = 0;
+            }
+        }
+    }
+
+    /**
+     * Replaces the mounted tree with an empty one, releasing its state subscriptions. Ordered
+     * with mount and update like any other view.
+     */
+    @Override
+    public void unmount(View view) {
+        lifecycle.execute(() -> submit(EMPTY, true));
+    }
+
+    private void submit(View view, boolean fresh) {
+        pipeline.submit(view, fresh, (int) canvas.getWidth(), (int) canvas.getHeight());
+    }
+
+    public LayoutEngine getLayoutEngine() {
+        return engine;
+    }
+
+    private void resize(double width, double height) {
+        canvas.setWidth(width);
+        canvas.setHeight(height);
+        if (mounted == null) return;
+        pipeline.whenIdle(() -> {
+            layout(mounted, (int) canvas.getWidth(), (int) canvas.getHeight());
+            damage(0, 0, canvas.getWidth(), canvas.getHeight());
+        });
+    }
+
+    Element reconcile(Element previous, Element next) {
+        Reconciler.reconcile(previous, next, host);
+        return next;
+    }
+
+    void retheme(Element root, Theme theme) {
+        Reconciler.retheme(root, theme, host);
+    }
+
+    /**
+     * Lays out a tree (the mounted root or a lazy list slot) and damages whatever moved.
+     */
+    void layout(Element root, int width, int height) {
+        engine.layout(root, width, height);
+        engine.drainDamaged(this::damageElement);
+    }
+
+    /**
+     * Runs at the end of every frame: lays out the relayout boundaries dirtied by bound state.
+     */
+    private void layoutDirty() {
+        engine.layoutDirty();
+        engine.drainDamaged(this::damageElement);
+    }
+
+    /**
+     * Damages where an element was painted last and where it is now.
+     */
+    private void damageElement(Element element) {
+        CanvasNode node = (CanvasNode) element.getHandle();
+        if (node.painted) damage(node.paintedX, node.paintedY, node.paintedWidth, node.paintedHeight);
+        Point2D origin = origin(element);
+        node.painted = true;
+        node.paintedX = origin.getX();
+        node.paintedY = origin.getY();
+        node.paintedWidth = element.getLayoutWidth();
+        node.paintedHeight = element.getLayoutHeight();
+        damage(node.paintedX, node.paintedY, node.paintedWidth, node.paintedHeight);
+        if (node.lazy != null) node.lazy.refresh();
+    }
+
+    void damageArea(Element element) {
+        Point2D origin = origin(element);
+        damage(origin.getX(), origin.getY(), element.getLayoutWidth(), element.getLayoutHeight());
+    }
+
+    private void damage(double x, double y, double width, double height) {
+        if (width <= 0 || height <= 0) return;
+        if (damaged) {
+            damageLeft = Math.min(damageLeft, x);
+            damageTop = Math.min(damageTop, y);
+            damageRight = Math.max(damageRight, x + width);
+            damageBottom = Math.max(damageBottom, y + height);
+        } else {
+            damaged = true;
+            damageLeft = x;
+            damageTop = y;
+            damageRight = x + width;
+            damageBottom = y + height;
+        }
+        if (!paintPosted) {
+            paintPosted = true;
+            Platform.runLater(this::paintDamage);
+        }
+    }
+
+    private void paintDamage() {
+        paintPosted = false;
+        if (!damaged || mounted == null) return;
+        damaged = false;
+        double left = Math.max(0, Math.floor(damageLeft));
+        double top = Math.max(0, Math.floor(damageTop));
+        double width = Math.min(canvas.getWidth(), Math.ceil(damageRight)) - left;
+        double height = Math.min(canvas.getHeight(), Math.ceil(damageBottom)) - top;
+        if (width <= 0 || height <= 0) return;
+        long started = System.nanoTime();
+        painter.pushClip(left, top, width, height);
+        painter.gc.setFill(styles.color(mounted.getTheme(), Theme.BACKGROUND));
+        painter.gc.fillRect(left, top, width, height);
+        painter.paintChildren(mounted, 0, 0, left, top, width, height);
+        painter.popClip();
+        RenderMetrics.current().phase(RenderMetrics.Phase.PAINT, System.nanoTime() - started);
+    }
+
+    /**
+     * Absolute canvas position of {@code element}, following lazy list slots up to the root.
+     */
+    static Point2D origin(Element element) {
+        double x = 0;
+        double y = 0;
+        Element top = element;
+        for (Element e = element; e != null; e = e.getParent()) {
+            x += e.getLayoutX();
+            y += e.getLayoutY();
+            top = e;
+        }
+        if (top.getHandle() instanceof CanvasNode node && node.slot != null) {
+            Point2D slot = node.slot.origin();
+            x += slot.getX();
+            y += slot.getY();
+        }
+        return new Point2D(x, y);
+    }
+
+    /**
+     * Deepest button under a point given relative to {@code container}.
+     */
+    static Element hit(Element container, double x, double y) {
+        List<Element> children = container.getChildren();
+        for (int i = children.size() - 1; i >= 0; i--) {
+            Element child = children.get(i);
+            double cx = x - child.getLayoutX();
+            double cy = y - child.getLayoutY();
+            if (cx < 0 || cy < 0 || cx >= child.getLayoutWidth() || cy >= child.getLayoutHeight()) continue;
+            return switch (child.getType()) {
+                case BUTTON -> child;
+                case TEXT -> null;
+                case LAZY -> ((CanvasNode) child.getHandle()).lazy.hit(cx, cy);
+                default -> hit(child, cx, cy);
+            };
+        }
+        return null;
+    }
+
+    private static JavaFXCanvasLazyList lazyAt(Element container, double x, double y) {
+        for (Element child : container.getChildren()) {
+            double cx = x - child.getLayoutX();
+            double cy = y - child.getLayoutY();
+            if (cx < 0 || cy < 0 || cx >= child.getLayoutWidth() || cy >= child.getLayoutHeight()) continue;
+            if (child.getType() == Element.Type.LAZY) return ((CanvasNode) child.getHandle()).lazy;
+            return lazyAt(child, cx, cy);
+        }
+        return null;
+    }
+
+    private CanvasNode buttonAt(double x, double y) {
+        if (mounted == null) return null;
+        Element button = hit(mounted, x, y);
+        return button != null ? (CanvasNode) button.getHandle() : null;
+    }
+
+    private void routeEvents() {
+        canvas.setOnMouseMoved(e -> setHovered(buttonAt(e.getX(), e.getY())));
+        canvas.setOnMouseDragged(e -> setHovered(buttonAt(e.getX(), e.getY())));
+        canvas.setOnMouseExited(e -> setHovered(null));
+        canvas.setOnMousePressed(e -> {
+            if (e.getButton() != MouseButton.PRIMARY) return;
+            pressed = buttonAt(e.getX(), e.getY());
+            if (pressed != null) damageNode(pressed);
+        });
+        canvas.setOnMouseReleased(e -> {
+            if (e.getButton() != MouseButton.PRIMARY || pressed == null) return;
+            CanvasNode target = pressed;
+            pressed = null;
+            damageNode(target);
+            if (target == buttonAt(e.getX(), e.getY())) target.element.getOnClick().run();
+        });
+        canvas.setOnScroll(e -> {
+            if (mounted == null) return;
+            JavaFXCanvasLazyList lazy = lazyAt(mounted, e.getX(), e.getY());
+            if (lazy != null) lazy.scrollBy(-(lazy.getLazyList().horizontal ? e.getDeltaX() : e.getDeltaY()));
+        });
+    }
+
+    private void setHovered(CanvasNode node) {
+        if (node == hovered) return;
+        if (hovered != null) damageNode(hovered);
+        hovered = node;
+        if (hovered != null) damageNode(hovered);
+        canvas.setCursor(node != null ? Cursor.HAND : Cursor.DEFAULT);
+    }
+
+    private void damageNode(CanvasNode node) {
+        if (node.painted) damage(node.paintedX, node.paintedY, node.paintedWidth, node.paintedHeight);
+    }
+
+    /**
+     * Releases the state subscriptions held by a subtree that left the canvas.
+     */
+    void dispose(Element element) {
+        CanvasNode node = (CanvasNode) element.getHandle();
+        if (node != null) {
+            if (node.subscription != null) {
+                node.subscription.unsubscribe();
+                node.subscription = null;
+            }
+            if (node.lazy != null) node.lazy.dispose();
+        }
+        for (Element child : element.getChildren()) dispose(child);
+    }
+
+    private void bind(CanvasNode node, State<?> state) {
+        if (node.subscription != null) node.subscription.unsubscribe();
+        node.subscription = null;
+        if (state == null) return;
+        Runnable refresh = () -> {
+            // Disposed while the refresh was queued
+            if (node.subscription == null) return;
+            engine.invalidate(node.element);
+            engine.markNeedsPaint(node.element);
+        };
+        node.subscription = state.subscribe(value -> scheduler.schedule(refresh));
+    }
+
+    /**
+     * Draws elements onto the canvas, skipping every subtree outside the clip. Columns and rows
+     * are searched by position, so a repaint costs roughly the number of visible elements.
+     */
+    class Painter {
+        final GraphicsContext gc;
+
+        Painter(GraphicsContext gc) {
+            this.gc = gc;
+        }
+
+        void pushClip(double x, double y, double width, double height) {
+            gc.save();
+            gc.beginPath();
+            gc.rect(x, y, width, height);
+            gc.clip();
+        }
+
+        void popClip() {
+            gc.restore();
+        }
+
+        void paintChildren(Element container, double x, double y,
+                           double clipX, double clipY, double clipWidth, double clipHeight) {
+            List<Element> children = container.getChildren();
+            Element.Type type = container.getType();
+            boolean vertical = type == Element.Type.COLUMN;
+            boolean ordered = vertical || type == Element.Type.ROW;
+            double clipStart = vertical ? clipY - y : clipX - x;
+            double clipEnd = vertical ? clipY + clipHeight - y : clipX + clipWidth - x;
+            int from = ordered ? firstVisible(children, vertical, clipStart) : 0;
+            for (int i = from; i < children.size(); i++) {
+                Element child = children.get(i);
+                if (ordered && (vertical ? child.getLayoutY() : child.getLayoutX()) >= clipEnd) break;
+                double cx = x + child.getLayoutX();
+                double cy = y + child.getLayoutY();
+                if (cx >= clipX + clipWidth || cy >= clipY + clipHeight
+                        || cx + child.getLayoutWidth() <= clipX || cy + child.getLayoutHeight() <= clipY) continue;
+                paint(child, cx, cy, clipX, clipY, clipWidth, clipHeight);
+            }
+        }
+
+        private void paint(Element element, double x, double y,
+                           double clipX, double clipY, double clipWidth, double clipHeight) {
+            CanvasNode node = (CanvasNode) element.getHandle();
+            switch (element.getType()) {
+                case TEXT -> {
+                    FXStyles.Resolved style = styles.text(element);
+                    paintBox(style, style.background, x, y, element.getLayoutWidth(), element.getLayoutHeight(), 0);
+                    paintText(style, element.getStyle().paddingOr(null), element.displayText(),
+                            x, y, element.getLayoutWidth(), element.getLayoutHeight());
+                }
+                case BUTTON -> {
+                    FXStyles.Resolved style = styles.button(element);
+                    Color background = element.getStyle().background != null || (node != pressed && node != hovered)
+                            ? style.background
+                            : styles.color(element.getTheme(), node == pressed ? Theme.PRIMARY_PRESSED : Theme.PRIMARY_HOVER);
+                    paintBox(style, background, x, y, element.getLayoutWidth(), element.getLayoutHeight(), BUTTON_ARC);
+                    paintText(style, element.getStyle().paddingOr(LayoutEngine.BUTTON_PADDING), element.getText(),
+                            x, y, element.getLayoutWidth(), element.getLayoutHeight());
+                }
+                case LAZY -> node.lazy.paint(this, x, y, clipX, clipY, clipWidth, clipHeight);
+                default -> {
+                    paintThemeBackground(element, x, y);
+                    paintChildren(element, x, y, clipX, clipY, clipWidth, clipHeight);
+                }
+            }
+        }
+
+        /**
+         * Fills a container whose theme background differs from the one it is drawn over.
+         */
+        private void paintThemeBackground(Element element, double x, double y) {
+            Element parent = element.getParent();
+            if (parent == null || parent.getTheme() == element.getTheme()) return;
+            Color background = styles.color(element.getTheme(), Theme.BACKGROUND);
+            if (background.equals(styles.color(parent.getTheme(), Theme.BACKGROUND))) return;
+            gc.setFill(background);
+            gc.fillRect(x, y, element.getLayoutWidth(), element.getLayoutHeight());
+        }
+
+        private void paintBox(FXStyles.Resolved style, Color background,
+                              double x, double y, double width, double height, double arc) {
+            if (background != null) {
+                gc.setFill(background);
+                gc.fillRoundRect(x, y, width, height, arc, arc);
+            }
+            if (style.borderColor != null) {
+                double inset = style.borderWidth / 2;
+                gc.setStroke(style.borderColor);
+                gc.setLineWidth(style.borderWidth);
+                gc.strokeRoundRect(x + inset, y + inset, width - style.borderWidth, height - style.borderWidth, arc, arc);
+            }
+        }
+
+        /**
+         * Draws a single line of text inside the padded box, vertically centered.
+         */
+        private void paintText(FXStyles.Resolved style, Insets padding, String text,
+                               double x, double y, double width, double height) {
+            double left = x + style.borderWidth + (padding != null ? padding.left : 0);
+            double inner = width - style.borderWidth * 2 - (padding != null ? padding.left + padding.right : 0);
+            gc.setFont(style.font);
+            gc.setFill(style.foreground);
+            double textX = switch (style.textAlign) {
+                case ElementStyle.ALIGN_CENTER -> left + (inner - measurer.width(text, style.awtFont)) / 2.0;
+                case ElementStyle.ALIGN_RIGHT -> left + inner - measurer.width(text, style.awtFont);
+                default -> left;
+            };
+            double textY = y + (height - measurer.lineHeight(style.awtFont)) / 2.0 + measurer.ascent(style.awtFont);
+            gc.fillText(text, textX, textY);
+        }
+
+        void paintScrollThumb(Theme theme, double x, double y, double width, double height, boolean horizontal,
+                              double offset, int contentExtent) {
+            double viewport = horizontal ? width : height;
+            if (contentExtent <= viewport || viewport <= 0) return;
+            double length = Math.max(SCROLL_THUMB * 4, viewport * viewport / contentExtent);
+            double position = (viewport - length) * offset / (contentExtent - viewport);
+            gc.setFill(styles.color(theme, Theme.SCROLLBAR));
+            if (horizontal) {
+                gc.fillRoundRect(x + position, y + height - SCROLL_THUMB - 2, length, SCROLL_THUMB, SCROLL_THUMB, SCROLL_THUMB);
+            } else {
+                gc.fillRoundRect(x + width - SCROLL_THUMB - 2, y + position, SCROLL_THUMB, length, SCROLL_THUMB, SCROLL_THUMB);
+            }
+        }
+    }
+
+    /**
+     * Last child starting at or before {@code clipStart}; children of a column or row are laid
+     * out in order along the main axis.
+     */
+    private static int firstVisible(List<Element> children, boolean vertical, double clipStart) {
+        int lo = 0;
+        int hi = children.size() - 1;
+        int found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            Element child = children.get(mid);
+            if ((vertical ? child.getLayoutY() : child.getLayoutX()) <= clipStart) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    // Views are recorded by the pipeline's build, never through the renderer itself
+    @Override
+    public void key(Object key) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void memo(Memo memo) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                           MainAxisSize mainAxisSize, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                        MainAxisSize mainAxisSize, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void flex(int flex, boolean tight) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void style(ElementStyle style) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushTheme(ThemeOverride override) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void popTheme() {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void setTheme(Theme theme) {
+        lifecycle.execute(() -> {
+            pipeline.setTheme(theme);
+            pipeline.whenIdle(() -> {
+                retheme(mounted, pipeline.getTheme());
+                layoutDirty();
+                damage(0, 0, canvas.getWidth(), canvas.getHeight());
+            });
+        });
+    }
+
+    @Override
+    public void pushCenter() {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushSizedBox(int width, int height) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pop() {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addText(String text) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public <T> void addText(State<T> state) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addButton(String text, Runnable onClick) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addLazyList(LazyList list) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    private class CanvasHost implements Reconciler.Host {
+        @Override
+        public void create(Element element) {
+            CanvasNode node = new CanvasNode(element);
+            element.setHandle(node);
+            switch (element.getType()) {
+                case TEXT -> bind(node, element.getState());
+                case LAZY -> {
+                    node.lazy = new JavaFXCanvasLazyList(JavaFXCanvasRenderer.this, node);
+                    node.lazy.setLazyList(element.getLazyList());
+                }
+                default -> {
+                }
+            }
+        }
+
+        // Children are drawn in element order, so the tree itself is the only structure to update
+        @Override
+        public void insert(Element parent, Element child, Element before) {
+        }
+
+        @Override
+        public void move(Element parent, Element child, Element before) {
+        }
+
+        @Override
+        public void remove(Element parent, Element child) {
+            damageNode((CanvasNode) child.getHandle());
+            dispose(child);
+        }
+
+        @Override
+        public void retain(Element previous, Element next) {
+            ((CanvasNode) next.getHandle()).element = next;
+        }
+
+        @Override
+        public void patch(Element previous, Element next) {
+            CanvasNode node = (CanvasNode) next.getHandle();
+            switch (next.getType()) {
+                case TEXT -> {
+                    if (previous.getState() != next.getState()) bind(node, next.getState());
+                }
+                case LAZY -> {
+                    node.lazy.setLazyList(next.getLazyList());
+                    if (previous.getTheme() != next.getTheme()) node.lazy.setTheme(next.getTheme());
+                }
+                default -> {
+                }
+            }
+            engine.markNeedsPaint(next);
+        }
+
+        @Override
+        public void restyle(Element element, Theme previous) {
+            CanvasNode node = (CanvasNode) element.getHandle();
+            if (node.lazy != null) node.lazy.setTheme(element.getTheme());
+            // The caller repaints the whole area; only a font change needs layout
+            if (!element.isContainer() && !previous.sameTypography(element.getTheme())) engine.invalidate(element);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.github._3xhaust.platform.javafx;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.LazyWindow;
+import io.github._3xhaust.core.Reconciler;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.theme.Theme;
+
+import javafx.geometry.Bounds;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scroll pane that realizes only the visible items of a {@link LazyList}. Each slot is a pane
+ * with its own mounted element tree; recycled slots are reconciled against the new item, so the
+ * labels and buttons inside are patched instead of recreated.
+ */
+class JavaFXLazyList extends ScrollPane {
+    private final Pane content = new Pane();
+    private final ElementRecorder recorder = new ElementRecorder();
+    private final Reconciler.Host host;
+    private final LayoutEngine engine;
+    private final SlotWindow window = new SlotWindow();
+    // Realized and pooled slots alike, since pooled ones keep their subscriptions
+    private final List<Slot> slots = new ArrayList<>();
+    private LazyList list;
+    private double crossExtent;
+
+    private static class Slot {
+        final Pane box;
+        Element mounted;
+
+        Slot(Pane box, Element mounted) {
+            this.box = box;
+            this.mounted = mounted;
+        }
+    }
+
+    JavaFXLazyList(LazyList list, Reconciler.Host host, LayoutEngine engine, Theme theme) {
+        this.host = host;
+        this.engine = engine;
+        recorder.setTheme(theme);
+        setContent(content);
+        vvalueProperty().addListener((o, before, after) -> refresh());
+        hvalueProperty().addListener((o, before, after) -> refresh());
+        viewportBoundsProperty().addListener((o, before, after) -> refresh());
+        setList(list);
+    }
+
+    void setList(LazyList list) {
+        this.list = list;
+        setFitToWidth(!list.horizontal);
+        setFitToHeight(list.horizontal);
+        if (list.horizontal) {
+            content.setMinWidth(list.contentExtent());
+            content.setPrefWidth(list.contentExtent());
+        } else {
+            content.setMinHeight(list.contentExtent());
+            content.setPrefHeight(list.contentExtent());
+        }
+        window.setList(list);
+        refresh();
+    }
+
+    /**
+     * Restyles the realized items in place; recycled and new slots record under the new theme.
+     */
+    void setTheme(Theme theme) {
+        recorder.setTheme(theme);
+        for (Slot slot : window.realized()) {
+            Reconciler.retheme(slot.mounted, theme, host);
+        }
+    }
+
+    private void refresh() {
+        Bounds viewport = getViewportBounds();
+        if (viewport == null) return;
+        double main = list.horizontal ? viewport.getWidth() : viewport.getHeight();
+        double cross = list.horizontal ? viewport.getHeight() : viewport.getWidth();
+        crossExtent = Math.max(1, cross / list.crossAxisCount);
+        // Scroll values are fractions of the scrollable range
+        double fraction = list.horizontal ? getHvalue() / getHmax() : getVvalue() / getVmax();
+        double offset = fraction * Math.max(0, list.contentExtent() - main);
+        window.update(offset, main, (int) crossExtent);
+    }
+
+    int realizedCount() {
+        return window.realizedCount();
+    }
+
+    void dispose() {
+        for (Slot slot : slots) JavaFXRenderer.dispose(slot.mounted);
+        window.releaseItems();
+    }
+
+    private class SlotWindow extends LazyWindow<Slot> {
+        @Override
+        protected Slot createSlot() {
+            Pane box = new Pane();
+            content.getChildren().add(box);
+            Element root = Element.root();
+            root.setHandle(box);
+            Slot slot = new Slot(box, root);
+            slots.add(slot);
+            return slot;
+        }
+
+        @Override
+        protected void bindSlot(Slot slot, int index, View item) {
+            Element next = recorder.record(item, slot.mounted);
+            Reconciler.reconcile(slot.mounted, next, host);
+            slot.mounted = next;
+        }
+
+        @Override
+        protected void placeSlot(Slot slot, int line, int column) {
+            double main = line * (double) list.itemExtent;
+            double cross = column * crossExtent;
+            int width = list.horizontal ? list.itemExtent : (int) crossExtent;
+            int height = list.horizontal ? (int) crossExtent : list.itemExtent;
+            slot.box.setPrefSize(width, height);
+            if (list.horizontal) {
+                slot.box.relocate(main, cross);
+            } else {
+                slot.box.relocate(cross, main);
+            }
+            engine.layout(slot.mounted, width, height);
+            engine.drainDamaged(JavaFXRenderer::applyBounds);
+        }
+
+        @Override
+        protected void showSlot(Slot slot) {
+            slot.box.setVisible(true);
+        }
+
+        @Override
+        protected void releaseSlot(Slot slot) {
+            slot.box.setVisible(false);
+        }
+    }
+}
@@ -1,215 +1,456 @@
 package io.github._3xhaust.platform.javafx;
 
+import io.github._3xhaust.core.CachedTextMeasurer;
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.FrameScheduler;
 import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Memo;
+import io.github._3xhaust.core.Patch;
+import io.github._3xhaust.core.ReadyExecutor;
+import io.github._3xhaust.core.Reconciler;
+import io.github._3xhaust.core.RenderMetrics;
+import io.github._3xhaust.core.RenderPipeline;
 import io.github._3xhaust.core.Renderer;
+import io.github._3xhaust.core.TextMeasurer;
 import io.github._3xhaust.core.View;
 import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
 import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
 import io.github._3xhaust.state.State;
+import io.github._3xhaust.state.Subscription;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
 
 import javafx.application.Platform;
-import javafx.geometry.Pos;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.layout.*;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
 import javafx.stage.Stage;
-import javafx.scene.paint.Color;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
 
 public class JavaFXRenderer implements Renderer {
+    private static final String SUBSCRIPTION = "javaui.subscription";
+    private static final String ELEMENT = "javaui.element";
+    private static final View EMPTY = renderer -> {
+    };
+
     private final Stage stage;
-    private final Deque<ContainerContext> stack = new ArrayDeque<>();
-
-    private static class ContainerContext {
-        final Pane pane;
-        final String type; // column, row, center, sizedBox
-        final MainAxisAlignment mainAxisAlignment;
-        final CrossAxisAlignment crossAxisAlignment;
-        final int gap;
-        boolean firstChild = true;
-
-        ContainerContext(Pane pane, String type,
-                         MainAxisAlignment mainAxisAlignment,
-                         CrossAxisAlignment crossAxisAlignment,
-                         int gap) {
-            this.pane = pane;
-            this.type = type;
-            this.mainAxisAlignment = mainAxisAlignment;
-            this.crossAxisAlignment = crossAxisAlignment;
-            this.gap = gap;
-        }
-    }
+    private Pane root;
+    // Written on the FX thread when a patch is applied; builds get it handed over when they start
+    private Element mounted;
+    // Set by init and cleared once the first mount is reported
+    private volatile long initStarted;
+    // Lifecycle calls wait for init, then run on the toolkit thread in the order they were made
+    private final ReadyExecutor lifecycle = new ReadyExecutor(Platform::runLater);
+    private final FXHost host = new FXHost();
+    private final FXStyles styles = new FXStyles();
+    // Shared with the build thread; the cache serializes access to the JavaFX text probe
+    private final TextMeasurer measurer = new CachedTextMeasurer(new JavaFXTextMeasurer());
+    private final LayoutEngine engine = new LayoutEngine(measurer);
+    private final RenderPipeline pipeline = new RenderPipeline(new ElementRecorder(), Platform::runLater, measurer, new BuildTarget());
+    // Frames change the mounted tree, so they wait for any build reading it
+    private final FrameScheduler scheduler = new FrameScheduler(
+            frame -> Platform.runLater(() -> pipeline.whenIdle(frame)), this::layoutDirty);
 
     public JavaFXRenderer(Stage stage) {
         this.stage = stage;
     }
 
     @Override
-    public void init(String title, int width, int height) {
+    public CompletableFuture<Void> init(String title, int width, int height) {
+        initStarted = System.nanoTime();
         Runnable setup = () -> {
-            VBox root = new VBox();
-            root.setFillWidth(true);
-            Scene scene = new Scene(root, width, height);
-            scene.setFill(Color.WHITE);
-            root.setStyle("-fx-background-color: white;");
-            stage.setTitle(title);
-            stage.setScene(scene);
-            stage.show();
-            stack.clear();
-            stack.push(new ContainerContext(root, "column", MainAxisAlignment.START, CrossAxisAlignment.START, 0));
+            try {
+                createWindow(title, width, height);
+            } catch (RuntimeException | Error e) {
+                lifecycle.fail(e);
+                throw e;
+            }
+            lifecycle.complete();
         };
         if (Platform.isFxApplicationThread()) {
             setup.run();
         } else {
             Platform.runLater(setup);
         }
+        return lifecycle.readiness();
+    }
+
+    private void createWindow(String title, int width, int height) {
+        root = new Pane();
+        root.widthProperty().addListener((o, before, after) -> relayoutWhenIdle());
+        root.heightProperty().addListener((o, before, after) -> relayoutWhenIdle());
+        // Button actions bubble up to one handler for the whole scene
+        root.addEventHandler(ActionEvent.ACTION, JavaFXRenderer::dispatch);
+        Scene scene = new Scene(root, width, height);
+        scene.getStylesheets().add(FXStyles.STYLESHEET);
+        scene.setFill(styles.color(pipeline.getTheme(), Theme.BACKGROUND));
+        stage.setTitle(title);
+        stage.setScene(scene);
+        stage.show();
+        mounted = Element.root();
+        mounted.setHandle(root);
+        root.setStyle(FXStyles.containerCss(mounted));
+        RenderMetrics.current().phase(RenderMetrics.Phase.INIT, System.nanoTime() - initStarted);
     }
 
     @Override
-    public void mount(View root) {
-        Platform.runLater(() -> {
-            if (stack.isEmpty()) return;
-            ContainerContext ctx = stack.peek();
-            ctx.pane.getChildren().clear();
-            ctx.firstChild = true;
-            root.render(this);
-        });
+    public void mount(View view) {
+        lifecycle.execute(() -> submit(view, true));
     }
 
     @Override
     public void update(View oldView, View newView) {
-        // TODO: diff/reconcile
+        // The diff runs against the mounted tree, which is the one recorded from oldView
+        lifecycle.execute(() -> submit(newView, false));
     }
 
+    /**
+     * Replaces the mounted tree with an empty one, releasing its state subscriptions. Ordered
+     * with mount and update like any other view.
+     */
     @Override
     public void unmount(View view) {
+        lifecycle.execute(() -> submit(EMPTY, true));
     }
 
-    private void attachToParent(Pane child) {
-        if (!stack.isEmpty()) {
-            ContainerContext parent = stack.peek();
-            if (parent.pane instanceof VBox) {
-                ((VBox) parent.pane).getChildren().add(child);
-            } else if (parent.pane instanceof HBox) {
-                ((HBox) parent.pane).getChildren().add(child);
-            } else if (parent.pane instanceof StackPane) {
-                ((StackPane) parent.pane).getChildren().add(child);
-            } else {
-                parent.pane.getChildren().add(child);
-            }
-        }
+    private void submit(View view, boolean fresh) {
+        pipeline.submit(view, fresh, (int) root.getWidth(), (int) root.getHeight());
     }
 
-    private void configurePadding(Pane pane, Insets padding) {
-        if (padding != null) {
-            pane.setPadding(new javafx.geometry.Insets(padding.top, padding.right, padding.bottom, padding.left));
+    /**
+     * Receives views built, diffed and laid out on the build thread, and applies them on the FX
+     * thread.
+     */
+    private class BuildTarget implements RenderPipeline.Target {
+        @Override
+        public Element mounted() {
+            return mounted;
+        }
+
+        @Override
+        public Element emptyRoot() {
+            Element empty = Element.root();
+            empty.setHandle(root);
+            return empty;
         }
-    }
 
-    private void push(Pane pane, String type,
-                      MainAxisAlignment mainAxisAlignment,
-                      CrossAxisAlignment crossAxisAlignment,
-                      int gap) {
-        attachToParent(pane);
-        if (pane instanceof VBox vbox) {
-            vbox.setSpacing(Math.max(0, gap));
-            vbox.setFillWidth(true);
-            switch (crossAxisAlignment) {
-                case START -> vbox.setAlignment(Pos.TOP_LEFT);
-                case CENTER -> vbox.setAlignment(Pos.TOP_CENTER);
-                case END -> vbox.setAlignment(Pos.TOP_RIGHT);
-                case STRETCH -> vbox.setAlignment(Pos.TOP_LEFT);
-                default -> vbox.setAlignment(Pos.TOP_CENTER);
+        @Override
+        public void apply(Patch patch) {
+            if (patch.isFresh()) {
+                dispose(mounted);
+                root.getChildren().clear();
             }
-        } else if (pane instanceof HBox hbox) {
-            hbox.setSpacing(Math.max(0, gap));
-            switch (crossAxisAlignment) {
-                case START -> hbox.setAlignment(Pos.TOP_LEFT);
-                case CENTER -> hbox.setAlignment(Pos.CENTER_LEFT);
-                case END -> hbox.setAlignment(Pos.BOTTOM_LEFT);
-                case STRETCH -> hbox.setAlignment(Pos.CENTER_LEFT);
-                default -> hbox.setAlignment(Pos.CENTER_LEFT);
+            patch.apply(host);
+            Element next = patch.getNext();
+            mounted = next;
+            patch.applyBounds(JavaFXRenderer::applyBounds);
+            // Catch up with a theme switch or resize that happened while the patch was built
+            if (patch.getTheme() != pipeline.getTheme()) Reconciler.retheme(next, pipeline.getTheme(), host);
+            patch.invalidateStale(engine);
+            if (patch.getWidth() != (int) root.getWidth() || patch.getHeight() != (int) root.getHeight()) relayout(next);
+            layoutDirty();
+            if (patch.isFresh() && initStarted != 0) {
+                RenderMetrics.current().firstMount(System.nanoTime() - initStarted);
+                initStarted = 0;
             }
-        } else if (pane instanceof StackPane stackPane) {
-            stackPane.setAlignment(Pos.CENTER);
         }
-        stack.push(new ContainerContext(pane, type, mainAxisAlignment, crossAxisAlignment, gap));
+    }
+
+    // Views are recorded by the pipeline's build, never through the renderer itself
+    @Override
+    public void key(Object key) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void memo(Memo memo) {
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
-        VBox vbox = new VBox();
-        configurePadding(vbox, padding);
-        push(vbox, "column", mainAxisAlignment, crossAxisAlignment, gap);
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                           MainAxisSize mainAxisSize, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
-        HBox hbox = new HBox();
-        configurePadding(hbox, padding);
-        push(hbox, "row", mainAxisAlignment, crossAxisAlignment, gap);
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                        MainAxisSize mainAxisSize, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void flex(int flex, boolean tight) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void style(ElementStyle style) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushTheme(ThemeOverride override) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void popTheme() {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void setTheme(Theme theme) {
+        lifecycle.execute(() -> {
+            pipeline.setTheme(theme);
+            stage.getScene().setFill(styles.color(theme, Theme.BACKGROUND));
+            pipeline.whenIdle(() -> {
+                Reconciler.retheme(mounted, pipeline.getTheme(), host);
+                layoutDirty();
+            });
+        });
     }
 
     @Override
     public void pushCenter() {
-        StackPane pane = new StackPane();
-        push(pane, "center", MainAxisAlignment.CENTER, CrossAxisAlignment.CENTER, 0);
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void pushSizedBox(int width, int height) {
-        Pane pane = new Pane();
-        pane.setMinSize(width, height);
-        pane.setPrefSize(width, height);
-        pane.setMaxSize(width, height);
-        push(pane, "sizedBox", MainAxisAlignment.START, CrossAxisAlignment.START, 0);
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void pop() {
-        if (!stack.isEmpty()) stack.pop();
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void addText(String text) {
-        Label label = new Label(text);
-        if (!stack.isEmpty()) {
-            ContainerContext parent = stack.peek();
-            if (parent.pane instanceof VBox vbox) vbox.getChildren().add(label);
-            else if (parent.pane instanceof HBox hbox) hbox.getChildren().add(label);
-            else if (parent.pane instanceof StackPane stackPane) stackPane.getChildren().add(label);
-            else parent.pane.getChildren().add(label);
-        }
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public <T> void addText(State<T> state) {
-        Label label = new Label(state.get() != null ? state.get().toString() : "");
-        state.bindOnChange(newVal -> Platform.runLater(() -> label.setText(newVal != null ? newVal.toString() : "")));
-        if (!stack.isEmpty()) {
-            ContainerContext parent = stack.peek();
-            if (parent.pane instanceof VBox vbox) vbox.getChildren().add(label);
-            else if (parent.pane instanceof HBox hbox) hbox.getChildren().add(label);
-            else if (parent.pane instanceof StackPane stackPane) stackPane.getChildren().add(label);
-            else parent.pane.getChildren().add(label);
-        }
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void addButton(String text, Runnable onClick) {
-        Button button = new Button(text);
-        button.setOnAction(e -> onClick.run());
-        if (!stack.isEmpty()) {
-            ContainerContext parent = stack.peek();
-            if (parent.pane instanceof VBox vbox) vbox.getChildren().add(button);
-            else if (parent.pane instanceof HBox hbox) hbox.getChildren().add(button);
-            else if (parent.pane instanceof StackPane stackPane) stackPane.getChildren().add(button);
-            else parent.pane.getChildren().add(button);
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addLazyList(LazyList list) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    private class FXHost implements Reconciler.Host {
+        @Override
+        public void create(Element element) {
+            switch (element.getType()) {
+                case COLUMN, ROW, CENTER, SIZED_BOX -> {
+                    Pane pane = new Pane();
+                    pane.setStyle(FXStyles.containerCss(element));
+                    element.setHandle(pane);
+                }
+                case TEXT -> {
+                    Label label = new Label(element.displayText());
+                    applyStyle(label, element);
+                    label.getProperties().put(ELEMENT, element);
+                    bind(label, element.getState());
+                    element.setHandle(label);
+                }
+                case BUTTON -> {
+                    Button button = new Button(element.getText());
+                    button.getStyleClass().add(FXStyles.BUTTON_CLASS);
+                    applyStyle(button, element);
+                    button.getProperties().put(ELEMENT, element);
+                    element.setHandle(button);
+                }
+                case LAZY -> element.setHandle(new JavaFXLazyList(element.getLazyList(), this, engine, element.getTheme()));
+            }
+            // Positions come from the layout engine, not from the parent pane
+            ((Node) element.getHandle()).setManaged(false);
+        }
+
+        @Override
+        public void insert(Element parent, Element child, Element before) {
+            ObservableList<Node> children = ((Pane) parent.getHandle()).getChildren();
+            Node node = (Node) child.getHandle();
+            children.add(before == null ? children.size() : children.indexOf((Node) before.getHandle()), node);
+        }
+
+        @Override
+        public void move(Element parent, Element child, Element before) {
+            ObservableList<Node> children = ((Pane) parent.getHandle()).getChildren();
+            children.remove((Node) child.getHandle());
+            insert(parent, child, before);
+        }
+
+        @Override
+        public void remove(Element parent, Element child) {
+            ((Pane) parent.getHandle()).getChildren().remove((Node) child.getHandle());
+            dispose(child);
+        }
+
+        @Override
+        public void retain(Element previous, Element next) {
+            if (next.getType() == Element.Type.TEXT || next.getType() == Element.Type.BUTTON) {
+                ((Node) next.getHandle()).getProperties().put(ELEMENT, next);
+            }
+        }
+
+        @Override
+        public void patch(Element previous, Element next) {
+            switch (next.getType()) {
+                case TEXT -> {
+                    Label label = (Label) next.getHandle();
+                    if (previous.getState() != next.getState()) bind(label, next.getState());
+                    if (restyled(previous, next)) applyStyle(label, next);
+                    label.setText(next.displayText());
+                }
+                case BUTTON -> {
+                    Button button = (Button) next.getHandle();
+                    if (restyled(previous, next)) applyStyle(button, next);
+                    button.getProperties().put(ELEMENT, next);
+                    button.setText(next.getText());
+                }
+                case LAZY -> {
+                    JavaFXLazyList lazy = (JavaFXLazyList) next.getHandle();
+                    lazy.setList(next.getLazyList());
+                    if (previous.getTheme() != next.getTheme()) lazy.setTheme(next.getTheme());
+                }
+                default -> {
+                    if (previous.getTheme() != next.getTheme()) restyle(next, previous.getTheme());
+                }
+            }
+        }
+
+        @Override
+        public void restyle(Element element, Theme previous) {
+            switch (element.getType()) {
+                case TEXT -> applyStyle((Label) element.getHandle(), element);
+                case BUTTON -> applyStyle((Button) element.getHandle(), element);
+                case LAZY -> ((JavaFXLazyList) element.getHandle()).setTheme(element.getTheme());
+                default -> ((Node) element.getHandle()).setStyle(FXStyles.containerCss(element));
+            }
+            if (!element.isContainer() && !previous.sameTypography(element.getTheme())) engine.invalidate(element);
         }
     }
-}
 
+    private static void dispatch(ActionEvent event) {
+        if (event.getTarget() instanceof Button button && button.getProperties().get(ELEMENT) instanceof Element element) {
+            event.consume();
+            element.getOnClick().run();
+        }
+    }
+
+    private static boolean restyled(Element previous, Element next) {
+        return previous.getStyle() != next.getStyle() || previous.getTheme() != next.getTheme();
+    }
+
+    private void applyStyle(Label label, Element element) {
+        FXStyles.Resolved resolved = styles.text(element);
+        label.setFont(resolved.font);
+        label.setTextFill(resolved.foreground);
+        label.setAlignment(resolved.alignment);
+        label.setStyle(resolved.css);
+    }
+
+    private void applyStyle(Button button, Element element) {
+        FXStyles.Resolved resolved = styles.button(element);
+        button.setFont(resolved.font);
+        button.setTextFill(resolved.foreground);
+        button.setStyle(resolved.css);
+    }
+
+    private void bind(Label label, State<?> state) {
+        if (label.getProperties().remove(SUBSCRIPTION) instanceof Subscription previous) previous.unsubscribe();
+        if (state == null) return;
+        Runnable refresh = () -> {
+            // Disposed while the refresh was queued
+            if (!(label.getProperties().get(ELEMENT) instanceof Element element)) return;
+            Object value = state.peek();
+            label.setText(value != null ? value.toString() : "");
+            engine.invalidate(element);
+        };
+        Subscription subscription = state.subscribe(newVal -> scheduler.schedule(refresh));
+        label.getProperties().put(SUBSCRIPTION, subscription);
+    }
+
+    /**
+     * Releases the state subscriptions held by a subtree that left the scene. The subscription
+     * is the only path from a state back to its label, and the label leads to the element and the
+     * rest of the old tree, so a state that outlives its screen would otherwise pin all of it.
+     */
+    static void dispose(Element element) {
+        Object handle = element.getHandle();
+        if (handle instanceof Label label) {
+            if (label.getProperties().remove(SUBSCRIPTION) instanceof Subscription subscription) subscription.unsubscribe();
+            label.getProperties().remove(ELEMENT);
+        } else if (handle instanceof Button button) {
+            button.getProperties().remove(ELEMENT);
+        } else if (handle instanceof JavaFXLazyList lazy) {
+            lazy.dispose();
+        }
+        for (Element child : element.getChildren()) dispose(child);
+    }
+
+    public LayoutEngine getLayoutEngine() {
+        return engine;
+    }
+
+    private void relayoutWhenIdle() {
+        // Resizes arrive before the first mount too
+        if (mounted != null) pipeline.whenIdle(() -> relayout(mounted));
+    }
 
+    /**
+     * Lays out a mounted tree to the current size of its root pane and applies the bounds that
+     * changed.
+     */
+    private void relayout(Element top) {
+        Region pane = (Region) top.getHandle();
+        engine.layout(top, (int) pane.getWidth(), (int) pane.getHeight());
+        engine.drainDamaged(JavaFXRenderer::applyBounds);
+    }
+
+    /**
+     * Runs at the end of every frame: lays out the relayout boundaries dirtied by bound state.
+     */
+    private void layoutDirty() {
+        engine.layoutDirty();
+        engine.drainDamaged(JavaFXRenderer::applyBounds);
+    }
+
+    /**
+     * Copies the computed layout of a paint-dirty element onto its node.
+     */
+    static void applyBounds(Element element) {
+        ((Node) element.getHandle()).resizeRelocate(element.getLayoutX(), element.getLayoutY(),
+                element.getLayoutWidth(), element.getLayoutHeight());
+    }
+}
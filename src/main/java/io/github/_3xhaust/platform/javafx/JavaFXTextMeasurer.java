@@ -0,0 +1,43 @@
+package io.github._3xhaust.platform.javafx;
+
+import io.github._3xhaust.core.TextMeasurer;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Text metrics from the JavaFX text layout, so engine sizes match what labels render.
+ */
+class JavaFXTextMeasurer implements TextMeasurer {
+    private final Text probe = new Text();
+    private final Map<java.awt.Font, Font> fonts = new HashMap<>();
+
+    static Font toFxFont(java.awt.Font font) {
+        return Font.font(font.getName(), font.isBold() ? FontWeight.BOLD : FontWeight.NORMAL, font.getSize2D());
+    }
+
+    private Text probe(String text, java.awt.Font font) {
+        probe.setFont(fonts.computeIfAbsent(font, JavaFXTextMeasurer::toFxFont));
+        probe.setText(text);
+        return probe;
+    }
+
+    @Override
+    public int width(String text, java.awt.Font font) {
+        return (int) Math.ceil(probe(text, font).getLayoutBounds().getWidth());
+    }
+
+    @Override
+    public int lineHeight(java.awt.Font font) {
+        return (int) Math.ceil(probe("Ag", font).getLayoutBounds().getHeight());
+    }
+
+    @Override
+    public int ascent(java.awt.Font font) {
+        return (int) Math.ceil(probe("Ag", font).getBaselineOffset());
+    }
+}
@@ -0,0 +1,26 @@
+package io.github._3xhaust.platform.swing;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.state.Subscription;
+
+/**
+ * Handle of an element drawn by {@link SwingCanvasRenderer}. It outlives the element: the
+ * reconciler carries it over to the matching element of every new tree.
+ */
+final class CanvasNode {
+    Element element;
+    Subscription subscription;
+    SwingCanvasLazyList lazy;
+    SwingCanvasLazyList.Slot slot;
+
+    // Area last painted on the canvas, repainted when the element moves or goes away
+    boolean painted;
+    int paintedX;
+    int paintedY;
+    int paintedWidth;
+    int paintedHeight;
+
+    CanvasNode(Element element) {
+        this.element = element;
+    }
+}
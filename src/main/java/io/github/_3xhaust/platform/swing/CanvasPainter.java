@@ -0,0 +1,167 @@
+package io.github._3xhaust.platform.swing;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.theme.Theme;
+
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Draws a laid-out element tree with Graphics2D, skipping every subtree outside the clip. Holds
+ * no component, so the same code paints the on-screen canvas and offscreen images; an instance
+ * is confined to the thread painting with it.
+ */
+final class CanvasPainter {
+    private static final int BUTTON_ARC = 8;
+    private static final int SCROLL_THUMB = 6;
+    private static final Insets NO_PADDING = Insets.all(0);
+
+    // Buttons drawn in their hover and pressed shades; null offscreen
+    CanvasNode hovered;
+    CanvasNode pressed;
+
+    /**
+     * Fills {@code clip} with the root's theme background and paints the tree over it.
+     */
+    void paintTree(Graphics2D g, Element root, Rectangle clip) {
+        g.setColor(root.getTheme().color(Theme.BACKGROUND));
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        paintChildren(g, root, 0, 0, clip);
+    }
+
+    /**
+     * Paints the children of {@code container}, whose top-left corner is at ({@code x}, {@code y}).
+     */
+    void paintChildren(Graphics2D g, Element container, int x, int y, Rectangle clip) {
+        List<Element> children = container.getChildren();
+        Element.Type type = container.getType();
+        boolean vertical = type == Element.Type.COLUMN;
+        boolean ordered = vertical || type == Element.Type.ROW;
+        int clipStart = vertical ? clip.y - y : clip.x - x;
+        int clipEnd = vertical ? clip.y + clip.height - y : clip.x + clip.width - x;
+        int from = ordered ? firstVisible(children, vertical, clipStart) : 0;
+        for (int i = from; i < children.size(); i++) {
+            Element child = children.get(i);
+            if (ordered && (vertical ? child.getLayoutY() : child.getLayoutX()) >= clipEnd) break;
+            int cx = x + child.getLayoutX();
+            int cy = y + child.getLayoutY();
+            if (!clip.intersects(cx, cy, child.getLayoutWidth(), child.getLayoutHeight())) continue;
+            paint(g, child, cx, cy, clip);
+        }
+    }
+
+    /**
+     * Last child starting at or before {@code clipStart}; children of a column or row are laid
+     * out in order along the main axis.
+     */
+    private static int firstVisible(List<Element> children, boolean vertical, int clipStart) {
+        int lo = 0;
+        int hi = children.size() - 1;
+        int found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            Element child = children.get(mid);
+            if ((vertical ? child.getLayoutY() : child.getLayoutX()) <= clipStart) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private void paint(Graphics2D g, Element element, int x, int y, Rectangle clip) {
+        CanvasNode node = (CanvasNode) element.getHandle();
+        switch (element.getType()) {
+            case TEXT -> {
+                ElementStyle style = element.getStyle();
+                Theme theme = element.getTheme();
+                paintBox(g, style, style.background, x, y, element.getLayoutWidth(), element.getLayoutHeight(), 0);
+                paintText(g, style, element.displayText(), theme.font(Theme.BODY), theme.color(Theme.ON_BACKGROUND),
+                        ElementStyle.ALIGN_LEFT, x, y, element.getLayoutWidth(), element.getLayoutHeight(), null);
+            }
+            case BUTTON -> {
+                ElementStyle style = element.getStyle();
+                Theme theme = element.getTheme();
+                Color shade = theme.color(node == pressed ? Theme.PRIMARY_PRESSED : node == hovered ? Theme.PRIMARY_HOVER : Theme.PRIMARY);
+                paintBox(g, style, style.backgroundOr(shade), x, y, element.getLayoutWidth(), element.getLayoutHeight(), BUTTON_ARC);
+                paintText(g, style, element.getText(), theme.font(Theme.BUTTON), theme.color(Theme.ON_PRIMARY),
+                        ElementStyle.ALIGN_CENTER, x, y, element.getLayoutWidth(), element.getLayoutHeight(),
+                        LayoutEngine.BUTTON_PADDING);
+            }
+            case LAZY -> node.lazy.paint(this, g, x, y, clip);
+            default -> {
+                paintThemeBackground(g, element, x, y);
+                paintChildren(g, element, x, y, clip);
+            }
+        }
+    }
+
+    /**
+     * Fills a container whose theme background differs from the one it is drawn over.
+     */
+    private static void paintThemeBackground(Graphics2D g, Element element, int x, int y) {
+        Element parent = element.getParent();
+        if (parent == null || parent.getTheme() == element.getTheme()) return;
+        Color background = element.getTheme().color(Theme.BACKGROUND);
+        if (background.equals(parent.getTheme().color(Theme.BACKGROUND))) return;
+        g.setColor(background);
+        g.fillRect(x, y, element.getLayoutWidth(), element.getLayoutHeight());
+    }
+
+    private static void paintBox(Graphics2D g, ElementStyle style, Color background,
+                                 int x, int y, int width, int height, int arc) {
+        if (background != null) {
+            g.setColor(background);
+            g.fillRoundRect(x, y, width, height, arc, arc);
+        }
+        if (style.hasBorder()) {
+            g.setColor(style.borderColor);
+            g.setStroke(new BasicStroke(style.borderWidth));
+            int inset = style.borderWidth / 2;
+            g.drawRoundRect(x + inset, y + inset, width - style.borderWidth, height - style.borderWidth, arc, arc);
+        }
+    }
+
+    /**
+     * Draws a single line of text inside the padded box, vertically centered.
+     */
+    private static void paintText(Graphics2D g, ElementStyle style, String text, Font defaultFont, Color defaultColor,
+                                  int defaultAlign, int x, int y, int width, int height, Insets defaultPadding) {
+        Font font = style.fontOr(defaultFont);
+        Insets padding = style.paddingOr(defaultPadding != null ? defaultPadding : NO_PADDING);
+        int border = style.hasBorder() ? style.borderWidth : 0;
+        int left = x + padding.left + border;
+        int inner = width - padding.left - padding.right - border * 2;
+        g.setFont(font);
+        g.setColor(style.foregroundOr(defaultColor));
+        FontMetrics metrics = g.getFontMetrics();
+        int textX = switch (style.textAlign >= 0 ? style.textAlign : defaultAlign) {
+            case ElementStyle.ALIGN_CENTER -> left + (inner - metrics.stringWidth(text)) / 2;
+            case ElementStyle.ALIGN_RIGHT -> left + inner - metrics.stringWidth(text);
+            default -> left;
+        };
+        int textY = y + (height - metrics.getHeight()) / 2 + metrics.getAscent();
+        g.drawString(text, textX, textY);
+    }
+
+    void paintScrollThumb(Graphics2D g, Color color, int x, int y, int width, int height, boolean horizontal,
+                          double offset, int contentExtent) {
+        int viewport = horizontal ? width : height;
+        if (contentExtent <= viewport || viewport <= 0) return;
+        int length = Math.max(SCROLL_THUMB * 4, (int) ((long) viewport * viewport / contentExtent));
+        int position = (int) ((viewport - length) * offset / (contentExtent - viewport));
+        g.setColor(color);
+        if (horizontal) {
+            g.fillRoundRect(x + position, y + height - SCROLL_THUMB - 2, length, SCROLL_THUMB, SCROLL_THUMB, SCROLL_THUMB);
+        } else {
+            g.fillRoundRect(x + width - SCROLL_THUMB - 2, y + position, SCROLL_THUMB, length, SCROLL_THUMB, SCROLL_THUMB);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package io.github._3xhaust.platform.swing;
+
+import io.github._3xhaust.core.AwtTextMeasurer;
+import io.github._3xhaust.core.CachedTextMeasurer;
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.core.Reconciler;
+import io.github._3xhaust.core.RenderMetrics;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.theme.Theme;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lays out a view and draws it into an image, without a window or the toolkit thread. Painting is
+ * the canvas backend's, so an image matches what {@link SwingCanvasRenderer} shows at the same
+ * size. Lazy lists are drawn at their first screenful.
+ *
+ * <p>Safe to call from many threads at once: each call records, lays out and paints its own tree,
+ * and text is measured through a cache per thread instead of the shared one, which would serialize
+ * the workers on its lock. The tree is a snapshot; bound states are read once and not subscribed.
+ */
+public final class ImageRasterizer {
+    private static final ThreadLocal<CachedTextMeasurer> MEASURERS =
+            ThreadLocal.withInitial(() -> new CachedTextMeasurer(new AwtTextMeasurer()));
+
+    private final Theme theme;
+
+    public ImageRasterizer() {
+        this(Theme.LIGHT);
+    }
+
+    public ImageRasterizer(Theme theme) {
+        this.theme = theme;
+    }
+
+    public BufferedImage rasterize(View view, int width, int height) {
+        return rasterize(view, width, height, 1);
+    }
+
+    /**
+     * Lays {@code view} out at {@code width} x {@code height} and draws it scaled by
+     * {@code scale}, so thumbnails keep the layout of the full-size view.
+     */
+    public BufferedImage rasterize(View view, int width, int height, double scale) {
+        Job job = new Job(MEASURERS.get());
+        Element root = job.build(view, width, height);
+        long started = System.nanoTime();
+        BufferedImage image = new BufferedImage(Math.max(1, (int) Math.ceil(width * scale)),
+                Math.max(1, (int) Math.ceil(height * scale)), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.scale(scale, scale);
+            job.painter.paintTree(g, root, new Rectangle(0, 0, width, height));
+        } finally {
+            g.dispose();
+            job.release();
+        }
+        RenderMetrics.current().phase(RenderMetrics.Phase.PAINT, System.nanoTime() - started);
+        return image;
+    }
+
+    public void writePng(View view, int width, int height, OutputStream out) throws IOException {
+        writePng(view, width, height, 1, out);
+    }
+
+    /**
+     * Rasterizes {@code view} (see {@link #rasterize(View, int, int, double)}) and writes it to
+     * {@code out} as PNG. The stream is left open.
+     */
+    public void writePng(View view, int width, int height, double scale, OutputStream out) throws IOException {
+        if (!ImageIO.write(rasterize(view, width, height, scale), "png", out)) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    /**
+     * State of one rasterization; confined to the calling thread.
+     */
+    private final class Job implements Reconciler.Host, SwingCanvasLazyList.Owner {
+        final LayoutEngine engine;
+        final CanvasPainter painter = new CanvasPainter();
+        final List<SwingCanvasLazyList> lazies = new ArrayList<>();
+
+        Job(CachedTextMeasurer measurer) {
+            engine = new LayoutEngine(measurer);
+        }
+
+        Element build(View view, int width, int height) {
+            ElementRecorder recorder = new ElementRecorder();
+            recorder.setTheme(theme);
+            Element empty = Element.root();
+            empty.setHandle(new CanvasNode(empty));
+            Element root = reconcile(empty, recorder.record(view));
+            ((CanvasNode) root.getHandle()).element = root;
+            layout(root, width, height);
+            return root;
+        }
+
+        /**
+         * Lets go of the items the lazy lists created, which may subscribe to the app's states.
+         */
+        void release() {
+            for (SwingCanvasLazyList lazy : lazies) lazy.releaseItems();
+        }
+
+        @Override
+        public Element reconcile(Element previous, Element next) {
+            Reconciler.reconcile(previous, next, this);
+            return next;
+        }
+
+        @Override
+        public void retheme(Element root, Theme theme) {
+            Reconciler.retheme(root, theme, this);
+        }
+
+        @Override
+        public void layout(Element root, int width, int height) {
+            engine.layout(root, width, height);
+            engine.drainDamaged(element -> {
+                CanvasNode node = (CanvasNode) element.getHandle();
+                if (node.lazy != null) node.lazy.refresh();
+            });
+        }
+
+        // Nothing is on screen to repaint, and nothing was subscribed to release
+
+        @Override
+        public void repaintArea(Element element) {
+        }
+
+        @Override
+        public void dispose(Element element) {
+        }
+
+        @Override
+        public void create(Element element) {
+            CanvasNode node = new CanvasNode(element);
+            element.setHandle(node);
+            if (element.getType() == Element.Type.LAZY) {
+                node.lazy = new SwingCanvasLazyList(this, node);
+                lazies.add(node.lazy);
+                node.lazy.setLazyList(element.getLazyList());
+            }
+        }
+
+        @Override
+        public void insert(Element parent, Element child, Element before) {
+        }
+
+        @Override
+        public void move(Element parent, Element child, Element before) {
+        }
+
+        @Override
+        public void remove(Element parent, Element child) {
+        }
+
+        @Override
+        public void retain(Element previous, Element next) {
+            ((CanvasNode) next.getHandle()).element = next;
+        }
+
+        @Override
+        public void patch(Element previous, Element next) {
+        }
+    }
+}
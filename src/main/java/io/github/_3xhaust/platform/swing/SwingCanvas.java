@@ -0,0 +1,160 @@
+package io.github._3xhaust.platform.swing;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.RenderMetrics;
+import io.github._3xhaust.theme.Theme;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.util.List;
+
+/**
+ * The single component the canvas backend draws into. Painting walks the laid-out element tree
+ * (see {@link CanvasPainter}) and skips every subtree outside the clip; columns and rows are
+ * searched by position, so a repaint costs roughly the number of visible elements. Buttons are
+ * hit-tested against the same tree.
+ */
+@SuppressWarnings("serial")
+class SwingCanvas extends JComponent {
+    private final CanvasPainter painter = new CanvasPainter();
+    private Element root;
+
+    SwingCanvas() {
+        setOpaque(true);
+        setDoubleBuffered(true);
+        setBackground(Theme.LIGHT.color(Theme.BACKGROUND));
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHovered(buttonAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                setHovered(buttonAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHovered(null);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) return;
+                painter.pressed = buttonAt(e.getX(), e.getY());
+                if (painter.pressed != null) repaintNode(painter.pressed);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e) || painter.pressed == null) return;
+                CanvasNode target = painter.pressed;
+                painter.pressed = null;
+                repaintNode(target);
+                if (target == buttonAt(e.getX(), e.getY())) target.element.getOnClick().run();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                SwingCanvasLazyList lazy = lazyAt(root, e.getX(), e.getY());
+                if (lazy != null) lazy.scrollBy(e.getPreciseWheelRotation() * lazy.getLazyList().itemExtent);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    void setRoot(Element root) {
+        this.root = root;
+    }
+
+    /**
+     * Absolute canvas position of {@code element}, following lazy list slots up to the root.
+     */
+    static Point origin(Element element) {
+        int x = 0;
+        int y = 0;
+        Element top = element;
+        for (Element e = element; e != null; e = e.getParent()) {
+            x += e.getLayoutX();
+            y += e.getLayoutY();
+            top = e;
+        }
+        if (top.getHandle() instanceof CanvasNode node && node.slot != null) {
+            Point slot = node.slot.origin();
+            x += slot.x;
+            y += slot.y;
+        }
+        return new Point(x, y);
+    }
+
+    private void setHovered(CanvasNode node) {
+        if (node == painter.hovered) return;
+        if (painter.hovered != null) repaintNode(painter.hovered);
+        painter.hovered = node;
+        if (painter.hovered != null) repaintNode(painter.hovered);
+        setCursor(node != null ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+    }
+
+    private void repaintNode(CanvasNode node) {
+        if (node.painted) repaint(node.paintedX, node.paintedY, node.paintedWidth, node.paintedHeight);
+    }
+
+    private CanvasNode buttonAt(int x, int y) {
+        if (root == null) return null;
+        Element button = hit(root, x, y);
+        return button != null ? (CanvasNode) button.getHandle() : null;
+    }
+
+    /**
+     * Deepest button under a point given relative to {@code container}.
+     */
+    static Element hit(Element container, int x, int y) {
+        List<Element> children = container.getChildren();
+        for (int i = children.size() - 1; i >= 0; i--) {
+            Element child = children.get(i);
+            int cx = x - child.getLayoutX();
+            int cy = y - child.getLayoutY();
+            if (cx < 0 || cy < 0 || cx >= child.getLayoutWidth() || cy >= child.getLayoutHeight()) continue;
+            return switch (child.getType()) {
+                case BUTTON -> child;
+                case TEXT -> null;
+                case LAZY -> ((CanvasNode) child.getHandle()).lazy.hit(cx, cy);
+                default -> hit(child, cx, cy);
+            };
+        }
+        return null;
+    }
+
+    private static SwingCanvasLazyList lazyAt(Element container, int x, int y) {
+        if (container == null) return null;
+        for (Element child : container.getChildren()) {
+            int cx = x - child.getLayoutX();
+            int cy = y - child.getLayoutY();
+            if (cx < 0 || cy < 0 || cx >= child.getLayoutWidth() || cy >= child.getLayoutHeight()) continue;
+            if (child.getType() == Element.Type.LAZY) return ((CanvasNode) child.getHandle()).lazy;
+            return lazyAt(child, cx, cy);
+        }
+        return null;
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        long started = System.nanoTime();
+        Graphics2D g = (Graphics2D) graphics;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        if (root == null) {
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            return;
+        }
+        painter.paintTree(g, root, clip);
+        RenderMetrics.current().phase(RenderMetrics.Phase.PAINT, System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,193 @@
+package io.github._3xhaust.platform.swing;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.LazyWindow;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.theme.Theme;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lazy list drawn by the canvas backend. Realized items are element trees painted at their slot
+ * position; scrolling only moves the window and repaints the list area.
+ */
+class SwingCanvasLazyList extends LazyWindow<SwingCanvasLazyList.Slot> {
+    /**
+     * What a list needs from the renderer drawing it: the on-screen canvas or an offscreen image.
+     */
+    interface Owner {
+        Element reconcile(Element previous, Element next);
+
+        void retheme(Element root, Theme theme);
+
+        void layout(Element root, int width, int height);
+
+        void repaintArea(Element element);
+
+        void dispose(Element element);
+    }
+
+    private final Owner renderer;
+    private final CanvasNode node;
+    private final ElementRecorder recorder = new ElementRecorder();
+    private final List<Slot> slots = new ArrayList<>();
+    private LazyList list;
+    private double offset;
+
+    class Slot {
+        Element mounted = Element.root();
+        int x;
+        int y;
+        int width;
+        int height;
+
+        Slot() {
+            CanvasNode root = new CanvasNode(mounted);
+            root.slot = this;
+            mounted.setHandle(root);
+        }
+
+        /**
+         * Absolute canvas position of the slot, scroll offset included.
+         */
+        Point origin() {
+            Point origin = SwingCanvas.origin(node.element);
+            int scroll = (int) offset;
+            return new Point(origin.x + x - (list.horizontal ? scroll : 0), origin.y + y - (list.horizontal ? 0 : scroll));
+        }
+    }
+
+    SwingCanvasLazyList(Owner renderer, CanvasNode node) {
+        this.renderer = renderer;
+        this.node = node;
+        recorder.setTheme(node.element.getTheme());
+    }
+
+    /**
+     * Restyles the realized items in place; recycled slots record under the new theme.
+     */
+    void setTheme(Theme theme) {
+        recorder.setTheme(theme);
+        for (Slot slot : realized()) renderer.retheme(slot.mounted, theme);
+        renderer.repaintArea(node.element);
+    }
+
+    void setLazyList(LazyList list) {
+        this.list = list;
+        setList(list);
+        refresh();
+    }
+
+    LazyList getLazyList() {
+        return list;
+    }
+
+    double getOffset() {
+        return offset;
+    }
+
+    private int viewport() {
+        return list.horizontal ? node.element.getLayoutWidth() : node.element.getLayoutHeight();
+    }
+
+    private int crossExtent() {
+        return Math.max(1, (list.horizontal ? node.element.getLayoutHeight() : node.element.getLayoutWidth()) / list.crossAxisCount);
+    }
+
+    void scrollBy(double delta) {
+        double max = Math.max(0, list.contentExtent() - viewport());
+        double next = Math.max(0, Math.min(max, offset + delta));
+        if (next == offset) return;
+        offset = next;
+        refresh();
+    }
+
+    /**
+     * Re-windows the slots for the current size and offset, then repaints the list area.
+     */
+    void refresh() {
+        offset = Math.max(0, Math.min(offset, Math.max(0, list.contentExtent() - viewport())));
+        update(offset, viewport(), crossExtent());
+        renderer.repaintArea(node.element);
+    }
+
+    @Override
+    protected Slot createSlot() {
+        Slot slot = new Slot();
+        slots.add(slot);
+        return slot;
+    }
+
+    @Override
+    protected void bindSlot(Slot slot, int index, View item) {
+        slot.mounted = renderer.reconcile(slot.mounted, recorder.record(item, slot.mounted));
+    }
+
+    @Override
+    protected void placeSlot(Slot slot, int line, int column) {
+        int cross = crossExtent();
+        int main = line * list.itemExtent;
+        slot.x = list.horizontal ? main : column * cross;
+        slot.y = list.horizontal ? column * cross : main;
+        slot.width = list.horizontal ? list.itemExtent : cross;
+        slot.height = list.horizontal ? cross : list.itemExtent;
+        renderer.layout(slot.mounted, slot.width, slot.height);
+    }
+
+    // Only realized slots are painted and hit
+
+    @Override
+    protected void showSlot(Slot slot) {
+    }
+
+    @Override
+    protected void releaseSlot(Slot slot) {
+    }
+
+    /**
+     * Draws the realized items of a list whose top-left corner is at ({@code x}, {@code y}).
+     */
+    void paint(CanvasPainter painter, Graphics2D g, int x, int y, Rectangle clip) {
+        Element element = node.element;
+        Rectangle area = clip.intersection(new Rectangle(x, y, element.getLayoutWidth(), element.getLayoutHeight()));
+        if (area.isEmpty()) return;
+        Shape previousClip = g.getClip();
+        g.clip(area);
+        int scroll = (int) offset;
+        int originX = x - (list.horizontal ? scroll : 0);
+        int originY = y - (list.horizontal ? 0 : scroll);
+        for (Slot slot : realized()) {
+            int slotX = originX + slot.x;
+            int slotY = originY + slot.y;
+            if (!area.intersects(slotX, slotY, slot.width, slot.height)) continue;
+            painter.paintChildren(g, slot.mounted, slotX, slotY, area);
+        }
+        painter.paintScrollThumb(g, element.getTheme().color(Theme.SCROLLBAR), x, y, element.getLayoutWidth(), element.getLayoutHeight(),
+                list.horizontal, offset, list.contentExtent());
+        g.setClip(previousClip);
+    }
+
+    /**
+     * Button under the list-relative point, if any.
+     */
+    Element hit(int x, int y) {
+        int scroll = (int) offset;
+        int contentX = x + (list.horizontal ? scroll : 0);
+        int contentY = y + (list.horizontal ? 0 : scroll);
+        for (Slot slot : realized()) {
+            if (contentX < slot.x || contentY < slot.y
+                    || contentX >= slot.x + slot.width || contentY >= slot.y + slot.height) continue;
+            return SwingCanvas.hit(slot.mounted, contentX - slot.x, contentY - slot.y);
+        }
+        return null;
+    }
+
+    void dispose() {
+        for (Slot slot : slots) renderer.dispose(slot.mounted);
+        releaseItems();
+    }
+}
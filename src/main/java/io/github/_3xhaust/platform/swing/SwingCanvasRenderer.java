@@ -0,0 +1,426 @@
+package io.github._3xhaust.platform.swing;
+
+import io.github._3xhaust.core.CachedTextMeasurer;
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.FrameScheduler;
+import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Memo;
+import io.github._3xhaust.core.Patch;
+import io.github._3xhaust.core.ReadyExecutor;
+import io.github._3xhaust.core.Reconciler;
+import io.github._3xhaust.core.RenderMetrics;
+import io.github._3xhaust.core.RenderPipeline;
+import io.github._3xhaust.core.Renderer;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Swing backend that draws the whole view into one {@link JComponent} with Graphics2D instead of
+ * creating a component per widget. Elements keep a lightweight {@link CanvasNode} as their handle;
+ * layout comes from the core engine and only the areas of damaged elements are repainted, so large
+ * trees stay cheap to update and to hit-test.
+ */
+public class SwingCanvasRenderer implements Renderer {
+    private static final View EMPTY = renderer -> {
+    };
+
+    private JFrame frame;
+    private SwingCanvas canvas;
+    // Written on the EDT when a patch is applied; builds get it handed over when they start
+    private Element mounted;
+    // Lifecycle calls wait for init, then run on the toolkit thread in the order they were made
+    private final ReadyExecutor lifecycle = new ReadyExecutor(SwingUtilities::invokeLater);
+    // Set by init and cleared once the first mount is reported
+    private volatile long initStarted;
+    private final CanvasHost host = new CanvasHost();
+    private final LayoutEngine engine = new LayoutEngine(CachedTextMeasurer.awt());
+    private final RenderPipeline pipeline = new RenderPipeline(new ElementRecorder(), SwingUtilities::invokeLater,
+            CachedTextMeasurer.awt(), new BuildTarget());
+    // Frames change the mounted tree, so they wait for any build reading it
+    private final FrameScheduler scheduler = new FrameScheduler(
+            frame -> SwingUtilities.invokeLater(() -> pipeline.whenIdle(frame)), this::layoutDirty);
+    private final SwingCanvasLazyList.Owner lazyOwner = new LazyOwner();
+
+    @Override
+    public CompletableFuture<Void> init(String title, int width, int height) {
+        initStarted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            try {
+                createWindow(title, width, height);
+            } catch (RuntimeException | Error e) {
+                lifecycle.fail(e);
+                throw e;
+            }
+            lifecycle.complete();
+        });
+        return lifecycle.readiness();
+    }
+
+    private void createWindow(String title, int width, int height) {
+        frame = new JFrame(title);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setSize(width, height);
+        frame.setLocationRelativeTo(null);
+
+        canvas = new SwingCanvas();
+        canvas.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                pipeline.whenIdle(() -> layout(mounted, canvas.getWidth(), canvas.getHeight()));
+            }
+        });
+        frame.setContentPane(canvas);
+        frame.setVisible(true);
+        mounted = Element.root();
+        mounted.setHandle(new CanvasNode(mounted));
+        canvas.setRoot(mounted);
+        RenderMetrics.current().phase(RenderMetrics.Phase.INIT, System.nanoTime() - initStarted);
+    }
+
+    @Override
+    public void mount(View view) {
+        lifecycle.execute(() -> submit(view, true));
+    }
+
+    @Override
+    public void update(View oldView, View newView) {
+        // The diff runs against the mounted tree, which is the one recorded from oldView
+        lifecycle.execute(() -> submit(newView, false));
+    }
+
+    /**
+     * Receives views built, diffed and laid out on the build thread, and applies them on the EDT.
+     */
+    private class BuildTarget implements RenderPipeline.Target {
+        @Override
+        public Element mounted() {
+            return mounted;
+        }
+
+        @Override
+        public Element emptyRoot() {
+            Element empty = Element.root();
+            empty.setHandle(new CanvasNode(empty));
+            return empty;
+        }
+
+        @Override
+        public void apply(Patch patch) {
+            if (patch.isFresh()) dispose(mounted);
+            patch.apply(host);
+            Element next = patch.getNext();
+            mounted = next;
+            canvas.setRoot(next);
+            patch.applyBounds(SwingCanvasRenderer.this::repaintElement);
+            // Catch up with a theme switch or resize that happened while the patch was built
+            if (patch.getTheme() != pipeline.getTheme()) retheme(next, pipeline.getTheme());
+            patch.invalidateStale(engine);
+            if (patch.getWidth() != canvas.getWidth() || patch.getHeight() != canvas.getHeight()) {
+                layout(next, canvas.getWidth(), canvas.getHeight());
+            }
+            layoutDirty();
+            if (!patch.isFresh()) return;
+            canvas.repaint();
+            if (initStarted != 0) {
+                RenderMetrics.current().firstMount(System.nanoTime() - initStarted);
+                initStarted = 0;
+            }
+        }
+    }
+
+    /**
+     * Replaces the mounted tree with an empty one, releasing its state subscriptions. Ordered
+     * with mount and update like any other view.
+     */
+    @Override
+    public void unmount(View view) {
+        lifecycle.execute(() -> submit(EMPTY, true));
+    }
+
+    private void submit(View view, boolean fresh) {
+        pipeline.submit(view, fresh, canvas.getWidth(), canvas.getHeight());
+    }
+
+    public LayoutEngine getLayoutEngine() {
+        return engine;
+    }
+
+    Element reconcile(Element previous, Element next) {
+        Reconciler.reconcile(previous, next, host);
+        return next;
+    }
+
+    void retheme(Element root, Theme theme) {
+        Reconciler.retheme(root, theme, host);
+    }
+
+    /**
+     * Lays out a tree (the mounted root or a lazy list slot) and repaints whatever moved.
+     */
+    void layout(Element root, int width, int height) {
+        engine.layout(root, width, height);
+        engine.drainDamaged(this::repaintElement);
+    }
+
+    /**
+     * Runs at the end of every frame: lays out the relayout boundaries dirtied by bound state.
+     */
+    private void layoutDirty() {
+        engine.layoutDirty();
+        engine.drainDamaged(this::repaintElement);
+    }
+
+    /**
+     * Repaints where a damaged element was and where it is now.
+     */
+    private void repaintElement(Element element) {
+        CanvasNode node = (CanvasNode) element.getHandle();
+        if (node.painted) canvas.repaint(node.paintedX, node.paintedY, node.paintedWidth, node.paintedHeight);
+        Point origin = SwingCanvas.origin(element);
+        node.painted = true;
+        node.paintedX = origin.x;
+        node.paintedY = origin.y;
+        node.paintedWidth = element.getLayoutWidth();
+        node.paintedHeight = element.getLayoutHeight();
+        canvas.repaint(node.paintedX, node.paintedY, node.paintedWidth, node.paintedHeight);
+        if (node.lazy != null) node.lazy.refresh();
+    }
+
+    void repaintArea(Element element) {
+        Point origin = SwingCanvas.origin(element);
+        canvas.repaint(origin.x, origin.y, element.getLayoutWidth(), element.getLayoutHeight());
+    }
+
+    /**
+     * Releases the state subscriptions held by a subtree that left the canvas.
+     */
+    void dispose(Element element) {
+        CanvasNode node = (CanvasNode) element.getHandle();
+        if (node != null) {
+            if (node.subscription != null) {
+                node.subscription.unsubscribe();
+                node.subscription = null;
+            }
+            if (node.lazy != null) node.lazy.dispose();
+        }
+        for (Element child : element.getChildren()) dispose(child);
+    }
+
+    private void bind(CanvasNode node, State<?> state) {
+        if (node.subscription != null) node.subscription.unsubscribe();
+        node.subscription = null;
+        if (state == null) return;
+        Runnable refresh = () -> {
+            // Disposed while the refresh was queued
+            if (node.subscription == null) return;
+            engine.invalidate(node.element);
+            engine.markNeedsPaint(node.element);
+        };
+        node.subscription = state.subscribe(value -> scheduler.schedule(refresh));
+    }
+
+    // Views are recorded by the pipeline's build, never through the renderer itself
+    @Override
+    public void key(Object key) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void memo(Memo memo) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                           MainAxisSize mainAxisSize, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                        MainAxisSize mainAxisSize, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void flex(int flex, boolean tight) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void style(ElementStyle style) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushTheme(ThemeOverride override) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void popTheme() {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void setTheme(Theme theme) {
+        lifecycle.execute(() -> {
+            pipeline.setTheme(theme);
+            pipeline.whenIdle(() -> {
+                retheme(mounted, pipeline.getTheme());
+                layoutDirty();
+                canvas.repaint();
+            });
+        });
+    }
+
+    @Override
+    public void pushCenter() {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushSizedBox(int width, int height) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pop() {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addText(String text) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public <T> void addText(State<T> state) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addButton(String text, Runnable onClick) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addLazyList(LazyList list) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    private class LazyOwner implements SwingCanvasLazyList.Owner {
+        @Override
+        public Element reconcile(Element previous, Element next) {
+            return SwingCanvasRenderer.this.reconcile(previous, next);
+        }
+
+        @Override
+        public void retheme(Element root, Theme theme) {
+            SwingCanvasRenderer.this.retheme(root, theme);
+        }
+
+        @Override
+        public void layout(Element root, int width, int height) {
+            SwingCanvasRenderer.this.layout(root, width, height);
+        }
+
+        @Override
+        public void repaintArea(Element element) {
+            SwingCanvasRenderer.this.repaintArea(element);
+        }
+
+        @Override
+        public void dispose(Element element) {
+            SwingCanvasRenderer.this.dispose(element);
+        }
+    }
+
+    private class CanvasHost implements Reconciler.Host {
+        @Override
+        public void create(Element element) {
+            CanvasNode node = new CanvasNode(element);
+            element.setHandle(node);
+            switch (element.getType()) {
+                case TEXT -> bind(node, element.getState());
+                case LAZY -> {
+                    node.lazy = new SwingCanvasLazyList(lazyOwner, node);
+                    node.lazy.setLazyList(element.getLazyList());
+                }
+                default -> {
+                }
+            }
+        }
+
+        // Children are drawn in element order, so the tree itself is the only structure to update
+        @Override
+        public void insert(Element parent, Element child, Element before) {
+        }
+
+        @Override
+        public void move(Element parent, Element child, Element before) {
+        }
+
+        @Override
+        public void remove(Element parent, Element child) {
+            CanvasNode node = (CanvasNode) child.getHandle();
+            if (node.painted) canvas.repaint(node.paintedX, node.paintedY, node.paintedWidth, node.paintedHeight);
+            dispose(child);
+        }
+
+        @Override
+        public void retain(Element previous, Element next) {
+            ((CanvasNode) next.getHandle()).element = next;
+        }
+
+        @Override
+        public void patch(Element previous, Element next) {
+            CanvasNode node = (CanvasNode) next.getHandle();
+            switch (next.getType()) {
+                case TEXT -> {
+                    if (previous.getState() != next.getState()) bind(node, next.getState());
+                }
+                case LAZY -> {
+                    node.lazy.setLazyList(next.getLazyList());
+                    if (previous.getTheme() != next.getTheme()) node.lazy.setTheme(next.getTheme());
+                }
+                default -> {
+                }
+            }
+            engine.markNeedsPaint(next);
+        }
+
+        @Override
+        public void restyle(Element element, Theme previous) {
+            CanvasNode node = (CanvasNode) element.getHandle();
+            if (node.lazy != null) node.lazy.setTheme(element.getTheme());
+            // The caller repaints the whole area; only a font change needs layout
+            if (!element.isContainer() && !previous.sameTypography(element.getTheme())) engine.invalidate(element);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package io.github._3xhaust.platform.swing;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.LazyWindow;
+import io.github._3xhaust.core.Reconciler;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.theme.Theme;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scroll pane that realizes only the visible items of a {@link LazyList}. Each slot is a panel
+ * with its own mounted element tree; recycled slots are reconciled against the new item, so the
+ * labels and buttons inside are patched instead of recreated.
+ */
+@SuppressWarnings("serial")
+class SwingLazyList extends JScrollPane {
+    private final ContentPanel content = new ContentPanel();
+    private final ElementRecorder recorder = new ElementRecorder();
+    private final Reconciler.Host host;
+    private final LayoutEngine engine;
+    private final SlotWindow window = new SlotWindow();
+    // Realized and pooled slots alike, since pooled ones keep their subscriptions
+    private final List<Slot> slots = new ArrayList<>();
+    private LazyList list;
+    private Theme theme;
+    private int crossExtent;
+
+    private static class Slot {
+        final JPanel panel;
+        Element mounted;
+
+        Slot(JPanel panel, Element mounted) {
+            this.panel = panel;
+            this.mounted = mounted;
+        }
+    }
+
+    SwingLazyList(LazyList list, Reconciler.Host host, LayoutEngine engine, Theme theme) {
+        this.host = host;
+        this.engine = engine;
+        this.theme = theme;
+        recorder.setTheme(theme);
+        content.setBackground(theme.color(Theme.BACKGROUND));
+        setViewportView(content);
+        setBorder(BorderFactory.createEmptyBorder());
+        getViewport().addChangeListener(e -> refresh());
+        setList(list);
+    }
+
+    void setList(LazyList list) {
+        this.list = list;
+        content.revalidate();
+        window.setList(list);
+        refresh();
+    }
+
+    /**
+     * Restyles the realized items in place; recycled and new slots record under the new theme.
+     */
+    void setTheme(Theme theme) {
+        this.theme = theme;
+        recorder.setTheme(theme);
+        content.setBackground(theme.color(Theme.BACKGROUND));
+        for (Slot slot : window.realized()) {
+            Reconciler.retheme(slot.mounted, theme, host);
+        }
+        content.repaint();
+    }
+
+    private void refresh() {
+        Rectangle view = getViewport().getViewRect();
+        int cross = list.horizontal ? view.height : view.width;
+        crossExtent = Math.max(1, cross / list.crossAxisCount);
+        if (list.horizontal) {
+            window.update(view.x, view.width, crossExtent);
+        } else {
+            window.update(view.y, view.height, crossExtent);
+        }
+        content.repaint();
+    }
+
+    int realizedCount() {
+        return window.realizedCount();
+    }
+
+    void dispose() {
+        for (Slot slot : slots) SwingRenderer.dispose(slot.mounted);
+        window.releaseItems();
+    }
+
+    private class SlotWindow extends LazyWindow<Slot> {
+        @Override
+        protected Slot createSlot() {
+            JPanel panel = SwingRenderer.createPanel(theme);
+            content.add(panel);
+            Element root = Element.root();
+            root.setHandle(panel);
+            Slot slot = new Slot(panel, root);
+            slots.add(slot);
+            return slot;
+        }
+
+        @Override
+        protected void bindSlot(Slot slot, int index, View item) {
+            Element next = recorder.record(item, slot.mounted);
+            Reconciler.reconcile(slot.mounted, next, host);
+            slot.mounted = next;
+        }
+
+        @Override
+        protected void placeSlot(Slot slot, int line, int column) {
+            int main = line * list.itemExtent;
+            int cross = column * crossExtent;
+            if (list.horizontal) {
+                slot.panel.setBounds(main, cross, list.itemExtent, crossExtent);
+            } else {
+                slot.panel.setBounds(cross, main, crossExtent, list.itemExtent);
+            }
+            engine.layout(slot.mounted, slot.panel.getWidth(), slot.panel.getHeight());
+            engine.drainDamaged(SwingRenderer::applyBounds);
+        }
+
+        @Override
+        protected void showSlot(Slot slot) {
+            slot.panel.setVisible(true);
+        }
+
+        @Override
+        protected void releaseSlot(Slot slot) {
+            slot.panel.setVisible(false);
+        }
+    }
+
+    /**
+     * Null-layout panel sized to the whole virtual extent; tracks the viewport on the cross axis.
+     */
+    @SuppressWarnings("serial")
+    private class ContentPanel extends JPanel implements Scrollable {
+        ContentPanel() {
+            super(null);
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            int extent = list != null ? list.contentExtent() : 0;
+            return list != null && list.horizontal ? new Dimension(extent, 0) : new Dimension(0, extent);
+        }
+
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            return getPreferredSize();
+        }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return list.itemExtent;
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return !list.horizontal;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return list.horizontal;
+        }
+    }
+}
@@ -1,323 +1,547 @@
 package io.github._3xhaust.platform.swing;
 
+import io.github._3xhaust.core.CachedTextMeasurer;
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.ElementRecorder;
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.FrameScheduler;
 import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Memo;
+import io.github._3xhaust.core.Patch;
+import io.github._3xhaust.core.ReadyExecutor;
+import io.github._3xhaust.core.Reconciler;
+import io.github._3xhaust.core.RenderMetrics;
+import io.github._3xhaust.core.RenderPipeline;
 import io.github._3xhaust.core.Renderer;
 import io.github._3xhaust.core.View;
 import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
 import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
 import io.github._3xhaust.state.State;
-import io.github._3xhaust.theme.Colors;
+import io.github._3xhaust.state.Subscription;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
 
 import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+import javax.swing.plaf.metal.MetalLookAndFeel;
 import java.awt.*;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
 
 public class SwingRenderer implements Renderer {
+    private static final String SUBSCRIPTION = "javaui.subscription";
+    private static final String ELEMENT = "javaui.element";
+    private static final View EMPTY = renderer -> {
+    };
+
     private JFrame frame;
-    private final Deque<ContainerContext> containerStack = new ArrayDeque<>();
-
-    private static class ContainerContext {
-        final JPanel panel;
-        final String type; // column, row, center, sizedBox
-        final MainAxisAlignment mainAxisAlignment;
-        final CrossAxisAlignment crossAxisAlignment;
-        final int gap;
-        boolean firstChild = true;
-
-        ContainerContext(JPanel panel, String type,
-                         MainAxisAlignment mainAxisAlignment,
-                         CrossAxisAlignment crossAxisAlignment,
-                         int gap) {
-            this.panel = panel;
-            this.type = type;
-            this.mainAxisAlignment = mainAxisAlignment;
-            this.crossAxisAlignment = crossAxisAlignment;
-            this.gap = gap;
-        }
-    }
+    private JPanel content;
+    // Written on the EDT when a patch is applied; builds get it handed over when they start
+    private Element mounted;
+    // Set by init and cleared once the first mount is reported
+    private volatile long initStarted;
+    // Lifecycle calls wait for init, then run on the toolkit thread in the order they were made
+    private final ReadyExecutor lifecycle = new ReadyExecutor(SwingUtilities::invokeLater);
+    private final SwingHost host = new SwingHost();
+    // Every button shares this listener; the clicked button carries the element to dispatch to
+    private final ActionListener clicks = e -> ((MaterialButton) e.getSource()).element.getOnClick().run();
+    // Borders are immutable, so every component with the same style shares one. Weak, so styles
+    // nothing shows any more can be collected; live equal styles are the same interned object
+    private final Map<ElementStyle, Border> labelBorders = new WeakHashMap<>();
+    private final Map<ElementStyle, Border> buttonBorders = new WeakHashMap<>();
+    private final LayoutEngine engine = new LayoutEngine(CachedTextMeasurer.awt());
+    private final RenderPipeline pipeline = new RenderPipeline(new ElementRecorder(), SwingUtilities::invokeLater,
+            CachedTextMeasurer.awt(), new BuildTarget());
+    // Frames change the mounted tree, so they wait for any build reading it
+    private final FrameScheduler scheduler = new FrameScheduler(
+            frame -> SwingUtilities.invokeLater(() -> pipeline.whenIdle(frame)), this::layoutDirty);
 
     static {
+        // Widgets are painted from the theme, so the cross-platform look and feel is enough. It is
+        // installed as an instance rather than looked up by class name, which keeps startup free of
+        // reflective class loading (and native images free of extra metadata).
         try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Exception e) {
+            UIManager.setLookAndFeel(new MetalLookAndFeel());
+        } catch (UnsupportedLookAndFeelException e) {
         }
         applyMaterialDesignDefaults();
     }
 
     private static void applyMaterialDesignDefaults() {
-        Font defaultFont = new Font("SF Pro Display", Font.PLAIN, 14);
-        Font buttonFont = new Font("SF Pro Display", Font.PLAIN, 14);
-
-        UIManager.put("Button.font", buttonFont);
-        UIManager.put("Button.background", Colors.Blue500);
-        UIManager.put("Button.foreground", Colors.White);
+        Theme theme = Theme.LIGHT;
+        UIManager.put("Button.font", theme.font(Theme.BUTTON));
+        UIManager.put("Button.background", theme.color(Theme.PRIMARY));
+        UIManager.put("Button.foreground", theme.color(Theme.ON_PRIMARY));
         UIManager.put("Button.focusPainted", false);
         UIManager.put("Button.borderPainted", false);
 
-        UIManager.put("Label.font", defaultFont);
-        UIManager.put("Label.foreground", Colors.Grey900);
+        UIManager.put("Label.font", theme.font(Theme.BODY));
+        UIManager.put("Label.foreground", theme.color(Theme.ON_BACKGROUND));
 
-        UIManager.put("Panel.background", Colors.Grey50);
+        UIManager.put("Panel.background", theme.color(Theme.BACKGROUND));
     }
 
     @Override
-    public void init(String title, int width, int height) {
+    public CompletableFuture<Void> init(String title, int width, int height) {
+        initStarted = System.nanoTime();
         SwingUtilities.invokeLater(() -> {
-            frame = new JFrame(title);
-            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            frame.setSize(width, height);
-            frame.setLocationRelativeTo(null);
-
-            JPanel rootPanel = new JPanel(new BorderLayout());
-            rootPanel.setBackground(Colors.Grey50);
-            frame.setContentPane(rootPanel);
-            frame.setVisible(true);
-
-            containerStack.clear();
-            // Use CENTER of BorderLayout as root container target
-            JPanel content = new JPanel();
-            content.setOpaque(true);
-            content.setBackground(Colors.Grey50);
-            content.setLayout(new BoxLayout(content, BoxLayout.Y_AXIS));
-            rootPanel.add(content, BorderLayout.CENTER);
-            containerStack.push(new ContainerContext(content, "column",
-                    MainAxisAlignment.START, CrossAxisAlignment.START, 0));
+            try {
+                createWindow(title, width, height);
+            } catch (RuntimeException | Error e) {
+                lifecycle.fail(e);
+                throw e;
+            }
+            lifecycle.complete();
         });
+        return lifecycle.readiness();
+    }
+
+    private void createWindow(String title, int width, int height) {
+        frame = new JFrame(title);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setSize(width, height);
+        frame.setLocationRelativeTo(null);
+
+        JPanel rootPanel = new JPanel(new BorderLayout());
+        Color background = pipeline.getTheme().color(Theme.BACKGROUND);
+        rootPanel.setBackground(background);
+        frame.setContentPane(rootPanel);
+        frame.setVisible(true);
+
+        // Use CENTER of BorderLayout as root container target
+        content = new JPanel(null);
+        content.setOpaque(true);
+        content.setBackground(background);
+        content.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                pipeline.whenIdle(() -> relayout(mounted));
+            }
+        });
+        rootPanel.add(content, BorderLayout.CENTER);
+        mounted = Element.root();
+        mounted.setHandle(content);
+        RenderMetrics.current().phase(RenderMetrics.Phase.INIT, System.nanoTime() - initStarted);
     }
 
     @Override
     public void mount(View root) {
-        SwingUtilities.invokeLater(() -> {
-            if (containerStack.isEmpty()) return;
-            ContainerContext rootCtx = containerStack.peek();
-            rootCtx.panel.removeAll();
-            rootCtx.firstChild = true;
-            root.render(this);
-            rootCtx.panel.revalidate();
-            rootCtx.panel.repaint();
-        });
+        lifecycle.execute(() -> submit(root, true));
     }
 
     @Override
     public void update(View oldView, View newView) {
-        // TODO: diff/reconcile
+        // The diff runs against the mounted tree, which is the one recorded from oldView
+        lifecycle.execute(() -> submit(newView, false));
     }
 
+    /**
+     * Replaces the mounted tree with an empty one, releasing its state subscriptions. Ordered
+     * with mount and update like any other view.
+     */
     @Override
     public void unmount(View view) {
+        lifecycle.execute(() -> submit(EMPTY, true));
     }
 
-    private JPanel createPanelWithPadding(Insets padding) {
-        JPanel panel = new JPanel();
-        panel.setBackground(Colors.Grey50);
-        if (padding != null) {
-            panel.setBorder(new EmptyBorder(padding.top, padding.left, padding.bottom, padding.right));
-        } else {
-            panel.setBorder(new EmptyBorder(0, 0, 0, 0));
-        }
-        return panel;
+    private void submit(View view, boolean fresh) {
+        pipeline.submit(view, fresh, content.getWidth(), content.getHeight());
     }
 
-    private void push(JPanel panel, String type,
-                      MainAxisAlignment mainAxisAlignment,
-                      CrossAxisAlignment crossAxisAlignment,
-                      int gap) {
-        // Attach to parent
-        if (!containerStack.isEmpty()) {
-            ContainerContext parent = containerStack.peek();
-            addToParent(parent, panel);
+    /**
+     * Receives views built, diffed and laid out on the build thread, and applies them on the EDT.
+     */
+    private class BuildTarget implements RenderPipeline.Target {
+        @Override
+        public Element mounted() {
+            return mounted;
         }
-        // Configure layout
-        switch (type) {
-            case "column" -> panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
-            case "row" -> panel.setLayout(new BoxLayout(panel, BoxLayout.X_AXIS));
-            case "center" -> panel.setLayout(new GridBagLayout());
-            case "sizedBox" -> panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+
+        @Override
+        public Element emptyRoot() {
+            Element empty = Element.root();
+            empty.setHandle(content);
+            return empty;
         }
-        ContainerContext ctx = new ContainerContext(panel, type, mainAxisAlignment, crossAxisAlignment, gap);
-        // Leading glue for some alignments
-        if ("column".equals(type)) {
-            if (mainAxisAlignment == MainAxisAlignment.CENTER ||
-                mainAxisAlignment == MainAxisAlignment.END ||
-                mainAxisAlignment == MainAxisAlignment.SPACE_AROUND ||
-                mainAxisAlignment == MainAxisAlignment.SPACE_EVENLY) {
-                panel.add(Box.createVerticalGlue());
+
+        @Override
+        public void apply(Patch patch) {
+            if (patch.isFresh()) {
+                dispose(mounted);
+                content.removeAll();
+                content.repaint();
             }
-        } else if ("row".equals(type)) {
-            if (mainAxisAlignment == MainAxisAlignment.CENTER ||
-                mainAxisAlignment == MainAxisAlignment.END ||
-                mainAxisAlignment == MainAxisAlignment.SPACE_AROUND ||
-                mainAxisAlignment == MainAxisAlignment.SPACE_EVENLY) {
-                panel.add(Box.createHorizontalGlue());
+            patch.apply(host);
+            Element next = patch.getNext();
+            mounted = next;
+            patch.applyBounds(SwingRenderer::applyBounds);
+            // Catch up with a theme switch or resize that happened while the patch was built
+            if (patch.getTheme() != pipeline.getTheme()) Reconciler.retheme(next, pipeline.getTheme(), host);
+            patch.invalidateStale(engine);
+            if (patch.getWidth() != content.getWidth() || patch.getHeight() != content.getHeight()) relayout(next);
+            layoutDirty();
+            if (patch.isFresh() && initStarted != 0) {
+                RenderMetrics.current().firstMount(System.nanoTime() - initStarted);
+                initStarted = 0;
             }
         }
-        containerStack.push(ctx);
     }
 
-    private void addToParent(ContainerContext parent, JComponent child) {
-        switch (parent.type) {
-            case "center" -> {
-                GridBagConstraints gbc = new GridBagConstraints();
-                gbc.gridx = 0;
-                gbc.gridy = 0;
-                gbc.anchor = GridBagConstraints.CENTER;
-                parent.panel.add(child, gbc);
-            }
-            default -> parent.panel.add(child);
-        }
+    // Views are recorded by the pipeline's build, never through the renderer itself
+    @Override
+    public void key(Object key) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void memo(Memo memo) {
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
-        JPanel panel = createPanelWithPadding(padding);
-        push(panel, "column", mainAxisAlignment, crossAxisAlignment, gap);
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                           MainAxisSize mainAxisSize, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
-        JPanel panel = createPanelWithPadding(padding);
-        push(panel, "row", mainAxisAlignment, crossAxisAlignment, gap);
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                        MainAxisSize mainAxisSize, Insets padding, int gap) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void flex(int flex, boolean tight) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void style(ElementStyle style) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void pushTheme(ThemeOverride override) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void popTheme() {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void setTheme(Theme theme) {
+        lifecycle.execute(() -> {
+            pipeline.setTheme(theme);
+            pipeline.whenIdle(() -> {
+                Reconciler.retheme(mounted, pipeline.getTheme(), host);
+                layoutDirty();
+            });
+        });
     }
 
     @Override
     public void pushCenter() {
-        JPanel panel = createPanelWithPadding(null);
-        push(panel, "center", MainAxisAlignment.CENTER, CrossAxisAlignment.CENTER, 0);
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void pushSizedBox(int width, int height) {
-        JPanel panel = createPanelWithPadding(null);
-        Dimension d = new Dimension(width, height);
-        panel.setPreferredSize(d);
-        panel.setMinimumSize(d);
-        panel.setMaximumSize(d);
-        push(panel, "sizedBox", MainAxisAlignment.START, CrossAxisAlignment.START, 0);
+        throw RenderPipeline.outsideBuild();
     }
 
     @Override
     public void pop() {
-        if (containerStack.isEmpty()) return;
-        ContainerContext ctx = containerStack.pop();
-        // Trailing glue for alignment
-        if ("column".equals(ctx.type)) {
-            if (ctx.mainAxisAlignment == MainAxisAlignment.CENTER ||
-                ctx.mainAxisAlignment == MainAxisAlignment.SPACE_AROUND ||
-                ctx.mainAxisAlignment == MainAxisAlignment.SPACE_EVENLY) {
-                ctx.panel.add(Box.createVerticalGlue());
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addText(String text) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public <T> void addText(State<T> state) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addButton(String text, Runnable onClick) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    @Override
+    public void addLazyList(LazyList list) {
+        throw RenderPipeline.outsideBuild();
+    }
+
+    private class SwingHost implements Reconciler.Host {
+        @Override
+        public void create(Element element) {
+            switch (element.getType()) {
+                case COLUMN, ROW, CENTER, SIZED_BOX -> element.setHandle(createPanel(element.getTheme()));
+                case TEXT -> {
+                    JLabel label = new JLabel(element.displayText());
+                    applyStyle(label, element);
+                    label.putClientProperty(ELEMENT, element);
+                    bind(label, element.getState());
+                    element.setHandle(label);
+                }
+                case BUTTON -> {
+                    MaterialButton button = new MaterialButton(element);
+                    applyStyle(button, element);
+                    button.addActionListener(clicks);
+                    element.setHandle(button);
+                }
+                case LAZY -> element.setHandle(new SwingLazyList(element.getLazyList(), this, engine, element.getTheme()));
             }
-        } else if ("row".equals(ctx.type)) {
-            if (ctx.mainAxisAlignment == MainAxisAlignment.CENTER ||
-                ctx.mainAxisAlignment == MainAxisAlignment.SPACE_AROUND ||
-                ctx.mainAxisAlignment == MainAxisAlignment.SPACE_EVENLY) {
-                ctx.panel.add(Box.createHorizontalGlue());
+        }
+
+        @Override
+        public void insert(Element parent, Element child, Element before) {
+            JPanel panel = (JPanel) parent.getHandle();
+            int index = before == null ? -1 : panel.getComponentZOrder((Component) before.getHandle());
+            panel.add((Component) child.getHandle(), index);
+        }
+
+        @Override
+        public void move(Element parent, Element child, Element before) {
+            ((JPanel) parent.getHandle()).remove((Component) child.getHandle());
+            insert(parent, child, before);
+        }
+
+        @Override
+        public void remove(Element parent, Element child) {
+            JPanel panel = (JPanel) parent.getHandle();
+            Component component = (Component) child.getHandle();
+            panel.remove(component);
+            panel.repaint(component.getX(), component.getY(), component.getWidth(), component.getHeight());
+            dispose(child);
+        }
+
+        @Override
+        public void retain(Element previous, Element next) {
+            switch (next.getType()) {
+                case TEXT -> ((JLabel) next.getHandle()).putClientProperty(ELEMENT, next);
+                case BUTTON -> ((MaterialButton) next.getHandle()).element = next;
             }
         }
-    }
 
-    private void beforeAddChild(ContainerContext ctx) {
-        if (!ctx.firstChild) {
-            if ("column".equals(ctx.type)) {
-                if (ctx.gap > 0) ctx.panel.add(Box.createVerticalStrut(ctx.gap));
-                if (ctx.mainAxisAlignment == MainAxisAlignment.SPACE_BETWEEN ||
-                    ctx.mainAxisAlignment == MainAxisAlignment.SPACE_AROUND ||
-                    ctx.mainAxisAlignment == MainAxisAlignment.SPACE_EVENLY) {
-                    ctx.panel.add(Box.createVerticalGlue());
+        @Override
+        public void patch(Element previous, Element next) {
+            switch (next.getType()) {
+                case TEXT -> {
+                    JLabel label = (JLabel) next.getHandle();
+                    if (previous.getState() != next.getState()) bind(label, next.getState());
+                    if (restyled(previous, next)) applyStyle(label, next);
+                    label.setText(next.displayText());
+                }
+                case BUTTON -> {
+                    MaterialButton button = (MaterialButton) next.getHandle();
+                    button.element = next;
+                    if (restyled(previous, next)) applyStyle(button, next);
+                    button.setText(next.getText());
+                }
+                case LAZY -> {
+                    SwingLazyList lazy = (SwingLazyList) next.getHandle();
+                    lazy.setList(next.getLazyList());
+                    if (previous.getTheme() != next.getTheme()) lazy.setTheme(next.getTheme());
                 }
-            } else if ("row".equals(ctx.type)) {
-                if (ctx.gap > 0) ctx.panel.add(Box.createHorizontalStrut(ctx.gap));
-                if (ctx.mainAxisAlignment == MainAxisAlignment.SPACE_BETWEEN ||
-                    ctx.mainAxisAlignment == MainAxisAlignment.SPACE_AROUND ||
-                    ctx.mainAxisAlignment == MainAxisAlignment.SPACE_EVENLY) {
-                    ctx.panel.add(Box.createHorizontalGlue());
+                default -> {
+                    if (previous.getTheme() != next.getTheme()) restyle(next, previous.getTheme());
                 }
             }
         }
-        ctx.firstChild = false;
-    }
 
-    private void applyCrossAlignment(ContainerContext ctx, JComponent comp) {
-        if ("column".equals(ctx.type)) {
-            switch (ctx.crossAxisAlignment) {
-                case START -> comp.setAlignmentX(Component.LEFT_ALIGNMENT);
-                case CENTER -> comp.setAlignmentX(Component.CENTER_ALIGNMENT);
-                case END -> comp.setAlignmentX(Component.RIGHT_ALIGNMENT);
-                case STRETCH -> {
-                    comp.setAlignmentX(Component.CENTER_ALIGNMENT);
+        @Override
+        public void restyle(Element element, Theme previous) {
+            Theme theme = element.getTheme();
+            switch (element.getType()) {
+                case TEXT -> applyStyle((JLabel) element.getHandle(), element);
+                case BUTTON -> applyStyle((JButton) element.getHandle(), element);
+                case LAZY -> ((SwingLazyList) element.getHandle()).setTheme(theme);
+                default -> {
+                    JComponent panel = (JComponent) element.getHandle();
+                    panel.setBackground(theme.color(Theme.BACKGROUND));
+                    if (panel.getParent() != null && element.getParent() == null) {
+                        panel.getParent().setBackground(theme.color(Theme.BACKGROUND));
+                    }
                 }
-                default -> comp.setAlignmentX(Component.CENTER_ALIGNMENT);
             }
-        } else if ("row".equals(ctx.type)) {
-            switch (ctx.crossAxisAlignment) {
-                case START -> comp.setAlignmentY(Component.TOP_ALIGNMENT);
-                case CENTER -> comp.setAlignmentY(Component.CENTER_ALIGNMENT);
-                case END -> comp.setAlignmentY(Component.BOTTOM_ALIGNMENT);
-                case STRETCH -> comp.setAlignmentY(Component.CENTER_ALIGNMENT);
-                default -> comp.setAlignmentY(Component.CENTER_ALIGNMENT);
+            if (!element.isContainer() && !previous.sameTypography(theme)) {
+                engine.invalidate(element);
             }
         }
     }
 
-    @Override
-    public void addText(String text) {
-        JLabel label = new JLabel(text);
-        styleMaterialLabel(label);
-        if (!containerStack.isEmpty()) {
-            ContainerContext ctx = containerStack.peek();
-            beforeAddChild(ctx);
-            applyCrossAlignment(ctx, label);
-            addToParent(ctx, label);
+    private static boolean restyled(Element previous, Element next) {
+        return previous.getStyle() != next.getStyle() || previous.getTheme() != next.getTheme();
+    }
+
+    static JPanel createPanel(Theme theme) {
+        JPanel panel = new JPanel(null);
+        panel.setBackground(theme.color(Theme.BACKGROUND));
+        return panel;
+    }
+
+    private void bind(JLabel label, State<?> state) {
+        if (label.getClientProperty(SUBSCRIPTION) instanceof Subscription previous) previous.unsubscribe();
+        if (state == null) {
+            label.putClientProperty(SUBSCRIPTION, null);
+            return;
         }
+        Runnable refresh = () -> {
+            // Disposed while the refresh was queued
+            if (!(label.getClientProperty(ELEMENT) instanceof Element element)) return;
+            Object value = state.peek();
+            label.setText(value != null ? value.toString() : "");
+            engine.invalidate(element);
+        };
+        Subscription subscription = state.subscribe(newVal -> scheduler.schedule(refresh));
+        label.putClientProperty(SUBSCRIPTION, subscription);
     }
 
-    @Override
-    public <T> void addText(State<T> state) {
-        JLabel lbl = new JLabel(state.get() != null ? state.get().toString() : "");
-        styleMaterialLabel(lbl);
-        state.bindOnChange(newVal -> SwingUtilities.invokeLater(() -> lbl.setText(newVal != null ? newVal.toString() : "")));
-        if (!containerStack.isEmpty()) {
-            ContainerContext ctx = containerStack.peek();
-            beforeAddChild(ctx);
-            applyCrossAlignment(ctx, lbl);
-            addToParent(ctx, lbl);
+    /**
+     * Releases the state subscriptions held by a subtree that left the window. The subscription
+     * is the only path from a state back to its label, and the label leads to the element and the
+     * rest of the old tree, so a state that outlives its screen would otherwise pin all of it.
+     */
+    static void dispose(Element element) {
+        Object handle = element.getHandle();
+        if (handle instanceof JLabel label) {
+            if (label.getClientProperty(SUBSCRIPTION) instanceof Subscription subscription) subscription.unsubscribe();
+            label.putClientProperty(SUBSCRIPTION, null);
+            label.putClientProperty(ELEMENT, null);
+        } else if (handle instanceof SwingLazyList lazy) {
+            lazy.dispose();
         }
+        for (Element child : element.getChildren()) dispose(child);
     }
 
-    @Override
-    public void addButton(String text, Runnable onClick) {
-        JButton btn = new JButton(text);
-        styleMaterialButton(btn);
-        btn.addActionListener(e -> onClick.run());
-        if (!containerStack.isEmpty()) {
-            ContainerContext ctx = containerStack.peek();
-            beforeAddChild(ctx);
-            applyCrossAlignment(ctx, btn);
-            addToParent(ctx, btn);
+    public LayoutEngine getLayoutEngine() {
+        return engine;
+    }
+
+    /**
+     * Lays out a mounted tree to the current size of its root panel and applies the bounds that
+     * changed.
+     */
+    private void relayout(Element root) {
+        Component panel = (Component) root.getHandle();
+        engine.layout(root, panel.getWidth(), panel.getHeight());
+        engine.drainDamaged(SwingRenderer::applyBounds);
+    }
+
+    /**
+     * Runs at the end of every frame: lays out the relayout boundaries dirtied by bound state.
+     */
+    private void layoutDirty() {
+        engine.layoutDirty();
+        engine.drainDamaged(SwingRenderer::applyBounds);
+    }
+
+    /**
+     * Copies the computed layout of a paint-dirty element onto its component and repaints it.
+     */
+    static void applyBounds(Element element) {
+        Component component = (Component) element.getHandle();
+        component.setBounds(element.getLayoutX(), element.getLayoutY(), element.getLayoutWidth(), element.getLayoutHeight());
+        component.repaint();
+    }
+
+    /**
+     * Button painting its background from its element's style and theme. Hover and pressed come
+     * from the button model, which the look and feel already tracks, so no listener is attached
+     * per button.
+     */
+    @SuppressWarnings("serial")
+    private static class MaterialButton extends JButton {
+        Element element;
+
+        MaterialButton(Element element) {
+            super(element.getText());
+            this.element = element;
+            setFocusPainted(false);
+            setBorderPainted(false);
+            setContentAreaFilled(false);
+            setRolloverEnabled(true);
+            setOpaque(true);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            ButtonModel model = getModel();
+            int token = model.isPressed() && model.isArmed() ? Theme.PRIMARY_PRESSED
+                    : model.isRollover() ? Theme.PRIMARY_HOVER : Theme.PRIMARY;
+            g.setColor(element.getStyle().backgroundOr(element.getTheme().color(token)));
+            g.fillRect(0, 0, getWidth(), getHeight());
+            // The background is filled above, so skip the look and feel's own fill in update()
+            Graphics scratch = g.create();
+            try {
+                ui.paint(scratch, this);
+            } finally {
+                scratch.dispose();
+            }
         }
     }
 
-    private void styleMaterialButton(JButton button) {
-        button.setBackground(Colors.Blue500);
-        button.setForeground(Colors.White);
-        button.setFont(new Font("SF Pro Display", Font.BOLD, 14));
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setOpaque(true);
-        button.setBorder(new EmptyBorder(12, 24, 12, 24));
-        button.setAlignmentY(Component.CENTER_ALIGNMENT);
-        button.setMaximumSize(button.getPreferredSize());
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            @Override public void mouseEntered(java.awt.event.MouseEvent e) { button.setBackground(Colors.Blue600); }
-            @Override public void mouseExited(java.awt.event.MouseEvent e) { button.setBackground(Colors.Blue500); }
-            @Override public void mousePressed(java.awt.event.MouseEvent e) { button.setBackground(Colors.Blue700); }
-            @Override public void mouseReleased(java.awt.event.MouseEvent e) { button.setBackground(Colors.Blue600); }
-        });
+    private void applyStyle(JLabel label, Element element) {
+        ElementStyle style = element.getStyle();
+        Theme theme = element.getTheme();
+        label.setFont(style.fontOr(theme.font(Theme.BODY)));
+        label.setForeground(style.foregroundOr(theme.color(Theme.ON_BACKGROUND)));
+        label.setOpaque(style.background != null);
+        label.setBackground(style.background);
+        label.setHorizontalAlignment(alignment(style.textAlign, SwingConstants.LEADING));
+        label.setBorder(labelBorders.computeIfAbsent(style, s -> border(s, null)));
+    }
+
+    private void applyStyle(JButton button, Element element) {
+        ElementStyle style = element.getStyle();
+        Theme theme = element.getTheme();
+        button.setFont(style.fontOr(theme.font(Theme.BUTTON)));
+        button.setForeground(style.foregroundOr(theme.color(Theme.ON_PRIMARY)));
+        button.setHorizontalAlignment(alignment(style.textAlign, SwingConstants.CENTER));
+        button.setBorder(buttonBorders.computeIfAbsent(style, s -> border(s, LayoutEngine.BUTTON_PADDING)));
+        button.setBorderPainted(style.hasBorder());
+        button.repaint();
+    }
+
+    private static Border border(ElementStyle style, Insets defaultPadding) {
+        Insets padding = style.paddingOr(defaultPadding);
+        Border inner = padding != null ? new EmptyBorder(padding.top, padding.left, padding.bottom, padding.right) : null;
+        if (!style.hasBorder()) return inner;
+        Border line = new LineBorder(style.borderColor, style.borderWidth);
+        return inner != null ? new CompoundBorder(line, inner) : line;
     }
 
-    private void styleMaterialLabel(JLabel label) {
-        label.setForeground(Colors.Grey900);
-        label.setFont(new Font("SF Pro Display", Font.PLAIN, 14));
+    private static int alignment(int textAlign, int fallback) {
+        return switch (textAlign) {
+            case ElementStyle.ALIGN_LEFT -> SwingConstants.LEFT;
+            case ElementStyle.ALIGN_CENTER -> SwingConstants.CENTER;
+            case ElementStyle.ALIGN_RIGHT -> SwingConstants.RIGHT;
+            default -> fallback;
+        };
     }
 }
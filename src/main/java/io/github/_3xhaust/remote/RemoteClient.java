@@ -0,0 +1,369 @@
+package io.github._3xhaust.remote;
+
+import io.github._3xhaust.core.CommandBuffer;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Renderer;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.state.State;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Display side of a {@link RemoteRenderer} connection: replays the frames it receives into a local
+ * renderer such as {@code SwingRenderer} or {@code JavaFXRenderer}, and sends button clicks back.
+ * Bound texts are backed by local states the server keeps up to date, so a state change redraws
+ * only the labels showing it, as it would in-process.
+ *
+ * <p>Lazy lists fetch their items from the server in chunks as they scroll into view, showing an
+ * empty item until the chunk arrives.
+ */
+public class RemoteClient {
+    private static final MainAxisAlignment[] MAIN_AXIS_ALIGNMENTS = MainAxisAlignment.values();
+    private static final CrossAxisAlignment[] CROSS_AXIS_ALIGNMENTS = CrossAxisAlignment.values();
+    private static final MainAxisSize[] MAIN_AXIS_SIZES = MainAxisSize.values();
+    // Items fetched per request
+    private static final int ITEM_CHUNK = 64;
+    private static final View PENDING = renderer -> {
+        renderer.pushSizedBox(0, 0);
+        renderer.pop();
+    };
+
+    private final Socket socket;
+    private final Renderer target;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final WireWriter message = new WireWriter();
+    private final Map<Integer, State<String>> states = new ConcurrentHashMap<>();
+    private final Map<Integer, RemoteList> lists = new ConcurrentHashMap<>();
+    private byte[] frame;
+    private int frameSequence;
+    private CommandBuffer shown;
+
+    public RemoteClient(Socket socket, Renderer target) throws IOException {
+        this.socket = socket;
+        this.target = target;
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * Runs the connection on a new daemon thread.
+     */
+    public Thread start() {
+        Thread thread = new Thread(() -> {
+            try {
+                run();
+            } catch (IOException e) {
+                // Server gone
+            }
+        }, "javaui-remote-client");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Receives and applies messages until the server disconnects. A malformed message fails with
+     * an {@link IOException}; the socket is closed either way.
+     */
+    public void run() throws IOException {
+        WireReader payload = new WireReader();
+        try {
+            int type;
+            while ((type = Wire.receive(in, payload)) >= 0) {
+                switch (type) {
+                    case Wire.INIT -> {
+                        String title = payload.readString();
+                        int width = payload.readInt();
+                        target.init(title, width, payload.readInt()).thenRun(() -> send(Wire.READY));
+                    }
+                    case Wire.FRAME -> show(payload.readInt(), payload.remaining());
+                    case Wire.DELTA -> {
+                        int sequence = payload.readInt();
+                        int prefix = payload.readInt();
+                        int suffix = payload.readInt();
+                        byte[] middle = payload.remaining();
+                        if (frame == null || prefix < 0 || suffix < 0 || prefix + suffix > frame.length
+                                || middle.length > Wire.MAX_PAYLOAD - prefix - suffix) {
+                            throw new IOException("Delta does not fit the shown frame");
+                        }
+                        byte[] next = new byte[prefix + middle.length + suffix];
+                        System.arraycopy(frame, 0, next, 0, prefix);
+                        System.arraycopy(middle, 0, next, prefix, middle.length);
+                        System.arraycopy(frame, frame.length - suffix, next, prefix + middle.length, suffix);
+                        show(sequence, next);
+                    }
+                    case Wire.STATE -> {
+                        int id = payload.readInt();
+                        String text = payload.readString();
+                        states.computeIfAbsent(id, key -> State.of(text)).set(text);
+                    }
+                    case Wire.ITEMS -> receiveItems(payload);
+                    case Wire.THEME -> target.setTheme(payload.readTheme());
+                    case Wire.UNMOUNT -> {
+                        if (shown != null) target.unmount(shown);
+                        shown = null;
+                        frame = null;
+                        states.clear();
+                        lists.clear();
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed message from server", e);
+        } finally {
+            socket.close();
+        }
+    }
+
+    private void show(int sequence, byte[] bytes) {
+        CommandBuffer next = new CommandBuffer();
+        Set<Integer> shownStates = new HashSet<>();
+        Set<Integer> shownLists = new HashSet<>();
+        decode(sequence, bytes, next, shownStates, shownLists);
+        retain(shownStates, shownLists);
+        if (shown == null) target.mount(next);
+        else target.update(shown, next);
+        shown = next;
+        frame = bytes;
+        frameSequence = sequence;
+    }
+
+    /**
+     * Stores a batch of items and shows the frame again, so the list rebinds the items it showed
+     * empty.
+     */
+    private void receiveItems(WireReader payload) throws IOException {
+        RemoteList list = lists.get(payload.readInt());
+        int batch = payload.readInt();
+        int first = payload.readInt();
+        int count = payload.readInt();
+        int extent = payload.readInt();
+        // A frame dropping the list may have crossed the request
+        if (list == null) return;
+        if (first < 0 || count < 0 || count > list.itemCount - first) {
+            throw new IOException("Items do not fit the list");
+        }
+        Set<Integer> itemStates = new HashSet<>();
+        Set<Integer> itemLists = new HashSet<>();
+        CommandBuffer[] items = new CommandBuffer[count];
+        for (int i = 0; i < count; i++) {
+            items[i] = new CommandBuffer();
+            decode(batch, payload.readBytes(payload.readInt()), items[i], itemStates, itemLists);
+        }
+        list.received(first, new Chunk(items, extent, itemStates, itemLists));
+        if (frame != null) show(frameSequence, frame);
+    }
+
+    /**
+     * Drops the states and lists that neither the frame nor a kept chunk of a list it reaches
+     * shows.
+     */
+    private void retain(Set<Integer> keptStates, Set<Integer> keptLists) {
+        ArrayDeque<Integer> reached = new ArrayDeque<>(keptLists);
+        while (!reached.isEmpty()) {
+            RemoteList list = lists.get(reached.poll());
+            if (list == null) continue;
+            for (Chunk chunk : list.chunks()) {
+                keptStates.addAll(chunk.states());
+                for (Integer nested : chunk.lists()) {
+                    if (keptLists.add(nested)) reached.add(nested);
+                }
+            }
+        }
+        states.keySet().retainAll(keptStates);
+        lists.keySet().retainAll(keptLists);
+    }
+
+    /**
+     * Replays a frame into {@code into}, adding the ids of the states and lists it shows to
+     * {@code seenStates} and {@code seenLists}. Both are looked up by id, so a label keeps its
+     * state and a list its items across frames.
+     */
+    private void decode(int sequence, byte[] bytes, Renderer into, Set<Integer> seenStates, Set<Integer> seenLists) {
+        WireReader reader = new WireReader(bytes);
+        while (reader.hasMore()) {
+            switch (reader.readByte()) {
+                case Wire.COLUMN -> into.pushColumn(MAIN_AXIS_ALIGNMENTS[reader.readByte()],
+                        CROSS_AXIS_ALIGNMENTS[reader.readByte()], MAIN_AXIS_SIZES[reader.readByte()],
+                        reader.readInsets(), reader.readInt());
+                case Wire.ROW -> into.pushRow(MAIN_AXIS_ALIGNMENTS[reader.readByte()],
+                        CROSS_AXIS_ALIGNMENTS[reader.readByte()], MAIN_AXIS_SIZES[reader.readByte()],
+                        reader.readInsets(), reader.readInt());
+                case Wire.CENTER -> into.pushCenter();
+                case Wire.SIZED_BOX -> into.pushSizedBox(reader.readInt(), reader.readInt());
+                case Wire.POP -> into.pop();
+                case Wire.TEXT -> into.addText(reader.readString());
+                case Wire.STATE_TEXT -> {
+                    int id = reader.readInt();
+                    String text = reader.readString();
+                    seenStates.add(id);
+                    into.addText(states.computeIfAbsent(id, key -> State.of(text)));
+                }
+                case Wire.BUTTON -> {
+                    String text = reader.readString();
+                    int handler = reader.readInt();
+                    into.addButton(text, () -> send(Wire.CLICK, sequence, handler));
+                }
+                case Wire.KEY -> into.key(reader.readKey());
+                case Wire.FLEX -> into.flex(reader.readInt(), reader.readBoolean());
+                case Wire.STYLE -> into.style(reader.readStyle());
+                case Wire.PUSH_THEME -> into.pushTheme(reader.readOverride());
+                case Wire.POP_THEME -> into.popTheme();
+                case Wire.LAZY -> {
+                    int id = reader.readInt();
+                    boolean horizontal = reader.readBoolean();
+                    int itemCount = reader.readInt();
+                    int itemExtent = reader.readInt();
+                    int crossAxisCount = reader.readInt();
+                    int overscan = reader.readInt();
+                    boolean ofItems = reader.readBoolean();
+                    seenLists.add(id);
+                    into.addLazyList(lists.computeIfAbsent(id, key ->
+                            new RemoteList(id, horizontal, itemCount, itemExtent, crossAxisCount, overscan, ofItems)).description());
+                }
+                default -> throw new IllegalStateException("Unknown opcode at " + (reader.position() - 1));
+            }
+        }
+    }
+
+    /**
+     * Sends a message whose payload is {@code fields}.
+     */
+    private void send(int type, int... fields) {
+        synchronized (out) {
+            message.reset();
+            for (int field : fields) message.writeInt(field);
+            try {
+                Wire.send(out, type, message);
+            } catch (IOException e) {
+                // The reading side notices the closed connection
+            }
+        }
+    }
+
+    private record Chunk(CommandBuffer[] items, int extent, Set<Integer> states, Set<Integer> lists) {
+    }
+
+    /**
+     * A lazy list of the frame. Items are looked up on the display's UI thread and requested a
+     * chunk at a time when missing; chunks are dropped in arrival order, as the server drops them.
+     * The items of a list of items depend on the slot width, so its chunks are requested for and
+     * used at one width.
+     */
+    private final class RemoteList {
+        final int id;
+        final boolean horizontal;
+        final int itemCount;
+        final int itemExtent;
+        final int crossAxisCount;
+        final int overscan;
+        final boolean ofItems;
+        // Guarded by this; keyed by first index, oldest first
+        private final Map<Integer, Chunk> chunks = new LinkedHashMap<>();
+        // Extent each chunk in flight was requested for, by first index
+        private final Map<Integer, Integer> requested = new HashMap<>();
+        private LazyList description;
+
+        RemoteList(int id, boolean horizontal, int itemCount, int itemExtent, int crossAxisCount, int overscan,
+                   boolean ofItems) {
+            this.id = id;
+            this.horizontal = horizontal;
+            this.itemCount = Math.max(0, itemCount);
+            this.itemExtent = itemExtent;
+            this.crossAxisCount = crossAxisCount;
+            this.overscan = overscan;
+            this.ofItems = ofItems;
+        }
+
+        /**
+         * The list to show. A new one after items arrive, since a list equal to the shown one
+         * would not rebind its items.
+         */
+        synchronized LazyList description() {
+            if (description == null) {
+                description = ofItems
+                        ? LazyList.ofItems(horizontal, itemCount, itemExtent, crossAxisCount, overscan, RemoteItem::new)
+                        : new LazyList(horizontal, itemCount, itemExtent, crossAxisCount, overscan, index -> item(index, 0));
+            }
+            return description;
+        }
+
+        synchronized List<Chunk> chunks() {
+            return new ArrayList<>(chunks.values());
+        }
+
+        synchronized void received(int first, Chunk chunk) {
+            requested.remove(first);
+            chunks.remove(first);
+            chunks.put(first, chunk);
+            if (chunks.size() > Wire.KEPT_ITEM_BATCHES) {
+                Iterator<Integer> eldest = chunks.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            description = null;
+        }
+
+        /**
+         * The item at {@code index} for slots {@code extent} pixels across; the extent is 0 for
+         * lists whose items do not depend on it.
+         */
+        private View item(int index, int extent) {
+            int first = index - index % ITEM_CHUNK;
+            synchronized (this) {
+                Chunk chunk = chunks.get(first);
+                if (chunk != null && (!ofItems || chunk.extent() == extent) && index - first < chunk.items().length) {
+                    return chunk.items()[index - first];
+                }
+                Integer pending = requested.put(first, extent);
+                if (pending != null && pending == extent) return PENDING;
+            }
+            send(Wire.RANGE, id, first, ITEM_CHUNK, extent);
+            return PENDING;
+        }
+
+        /**
+         * Slot of a list of items, showing the server's item for its index and width.
+         */
+        private final class RemoteItem implements LazyList.Item {
+            private final int extent;
+            private int index;
+
+            RemoteItem(int extent) {
+                this.extent = extent;
+            }
+
+            @Override
+            public View view() {
+                return item(index, extent);
+            }
+
+            @Override
+            public boolean bind(int index) {
+                this.index = index;
+                return true;
+            }
+        }
+    }
+}
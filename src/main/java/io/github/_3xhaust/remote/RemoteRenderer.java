@@ -0,0 +1,651 @@
+package io.github._3xhaust.remote;
+
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Renderer;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.dsl.enums.CrossAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisAlignment;
+import io.github._3xhaust.dsl.enums.MainAxisSize;
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.state.Subscription;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renderer that drives a display in another process over a socket. Views are encoded into frames
+ * (see {@link Wire}); the first is sent whole and every update only as the byte run that changed.
+ * Bound states push their new text on their own, and clicks on the display run the server's
+ * handlers, on this connection's reader thread.
+ *
+ * <p>Messages are written by a writer thread per connection, so neither rendering nor a state
+ * change ever blocks on the socket. State pushes are coalesced until the writer gets to them: a
+ * display that falls behind receives each changed state's latest text once, and nothing waiting
+ * to be written grows with the number of writes.
+ *
+ * <p>Lazy lists are sent as their shape; the items the display scrolls to are built when it asks
+ * for them, on the reader thread, so a list of a million rows costs what its visible rows cost.
+ * Lists of {@link LazyList.Item}s keep the items of the batches the display keeps and reuse those
+ * of dropped batches, so a re-sorted grid updates through its cells' states.
+ *
+ * <p>The connection owns its state subscriptions and drops them on unmount and when the display
+ * disconnects, so one process can serve many short-lived displays. A state stays subscribed while
+ * the last frame or an item batch the display still keeps shows it.
+ */
+public class RemoteRenderer implements Renderer {
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    // Clicks may refer to a frame the display showed just before a newer one arrived
+    private static final int KEPT_FRAMES = 8;
+    // Most items one range request builds
+    private static final int MAX_RANGE = 1024;
+
+    private static final class Binding {
+        final int id;
+        final Subscription subscription;
+        boolean seen;
+
+        Binding(int id, Subscription subscription) {
+            this.id = id;
+            this.subscription = subscription;
+        }
+    }
+
+    private static final class RemoteList {
+        final int id;
+        final LazyList list;
+        // Item batches the display keeps, oldest first
+        final Map<Integer, Batch> batches = new LinkedHashMap<>();
+        // Items of dropped batches, for lists of items, all created for spareExtent
+        final List<LazyList.Item> spare = new ArrayList<>();
+        int spareExtent;
+        boolean seen;
+
+        RemoteList(int id, LazyList list) {
+            this.id = id;
+            this.list = list;
+        }
+
+        /**
+         * An item for a slot {@code extent} pixels across, reusing one a dropped batch showed.
+         */
+        LazyList.Item take(int extent) {
+            if (extent != spareExtent) {
+                for (LazyList.Item item : spare) item.release();
+                spare.clear();
+                spareExtent = extent;
+            }
+            return spare.isEmpty() ? list.items.create(extent) : spare.remove(spare.size() - 1);
+        }
+
+        void recycle(Batch batch) {
+            if (batch.extent() == spareExtent) {
+                spare.addAll(batch.items());
+            } else {
+                for (LazyList.Item item : batch.items()) item.release();
+            }
+        }
+
+        void releaseItems() {
+            for (Batch batch : batches.values()) {
+                for (LazyList.Item item : batch.items()) item.release();
+            }
+            for (LazyList.Item item : spare) item.release();
+            spare.clear();
+        }
+    }
+
+    /**
+     * States and lists shown by the items of one batch, and for lists of items the items, which
+     * stay bound to their rows while the display keeps the batch.
+     */
+    private record Batch(List<Binding> bindings, List<RemoteList> lists, int extent, List<LazyList.Item> items) {
+    }
+
+    // Queued in place of a message: send the changed states, or stop the writer
+    private static final byte[] STATES = new byte[0];
+    private static final byte[] STOP = new byte[0];
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    // Encoded messages for the writer thread, which alone touches out
+    private final BlockingQueue<byte[]> outbox = new LinkedBlockingQueue<>();
+    // Latest text of each state changed since the writer last sent states; guarded by itself
+    private final Map<Integer, String> changedStates = new LinkedHashMap<>();
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private final CompletableFuture<Void> closed = new CompletableFuture<>();
+    // Encoding state, guarded by this
+    private final WireWriter frame = new WireWriter();
+    private final WireWriter message = new WireWriter();
+    private final Map<Runnable, Integer> handlerIds = new IdentityHashMap<>();
+    private final List<Runnable> handlers = new ArrayList<>();
+    private final Map<State<?>, Binding> bindings = new IdentityHashMap<>();
+    // By description, so an equal list in the next frame keeps its id and the display its items
+    private final Map<LazyList, RemoteList> lists = new HashMap<>();
+    private final Map<Integer, RemoteList> listsById = new HashMap<>();
+    // What the frame or items being encoded show, and what the last frame showed
+    private List<Binding> usedBindings = new ArrayList<>();
+    private List<RemoteList> usedLists = new ArrayList<>();
+    private List<Binding> frameBindings = List.of();
+    private List<RemoteList> frameLists = List.of();
+    private byte[] lastFrame;
+    private int sequence;
+    // Sequence of the last frame sent; item batches take sequences too
+    private int frameSequence;
+    private int nextStateId;
+    private int nextListId;
+    // Handlers of the frames sent last, by sequence; read by the reader thread
+    private final Map<Integer, Runnable[]> sentHandlers = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Runnable[]> eldest) {
+            return size() > KEPT_FRAMES;
+        }
+    };
+    // Handlers of the item batches the display keeps, by batch sequence; guarded by sentHandlers
+    private final Map<Integer, Runnable[]> batchHandlers = new HashMap<>();
+
+    public RemoteRenderer(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        String name = "javaui-remote-" + THREADS.incrementAndGet();
+        Thread reader = new Thread(this::read, name);
+        reader.setDaemon(true);
+        reader.start();
+        Thread writer = new Thread(this::write, name + "-out");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens the window on the display. Completes once the display reports it is ready; views
+     * mounted before that are queued on the connection.
+     */
+    @Override
+    public CompletableFuture<Void> init(String title, int width, int height) {
+        synchronized (this) {
+            message.reset();
+            message.writeString(title);
+            message.writeInt(width);
+            message.writeInt(height);
+            send(Wire.INIT, message);
+        }
+        return ready;
+    }
+
+    @Override
+    public synchronized void mount(View root) {
+        byte[] encoded = encode(root);
+        publish();
+        message.reset();
+        message.writeInt(sequence);
+        message.write(encoded, 0, encoded.length);
+        send(Wire.FRAME, message);
+        lastFrame = encoded;
+    }
+
+    @Override
+    public synchronized void update(View oldView, View newView) {
+        if (lastFrame == null) {
+            mount(newView);
+            return;
+        }
+        byte[] encoded = encode(newView);
+        if (Arrays.equals(encoded, lastFrame)) {
+            // The display keeps showing the frame it has, so its clicks reach the new handlers
+            synchronized (sentHandlers) {
+                sentHandlers.put(frameSequence, handlers.toArray(new Runnable[0]));
+            }
+            return;
+        }
+        publish();
+        int prefix = 0;
+        int shorter = Math.min(encoded.length, lastFrame.length);
+        while (prefix < shorter && encoded[prefix] == lastFrame[prefix]) prefix++;
+        int suffix = 0;
+        while (suffix < shorter - prefix
+                && encoded[encoded.length - 1 - suffix] == lastFrame[lastFrame.length - 1 - suffix]) suffix++;
+        message.reset();
+        message.writeInt(sequence);
+        message.writeInt(prefix);
+        message.writeInt(suffix);
+        message.write(encoded, prefix, encoded.length - prefix - suffix);
+        send(Wire.DELTA, message);
+        lastFrame = encoded;
+    }
+
+    @Override
+    public synchronized void unmount(View view) {
+        release();
+        lastFrame = null;
+        message.reset();
+        send(Wire.UNMOUNT, message);
+    }
+
+    @Override
+    public synchronized void setTheme(Theme theme) {
+        message.reset();
+        message.writeTheme(theme);
+        send(Wire.THEME, message);
+    }
+
+    /**
+     * Closes the connection and drops every state subscription it held.
+     */
+    public void close() {
+        synchronized (this) {
+            release();
+        }
+        outbox.add(STOP);
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        ready.completeExceptionally(new IOException("Connection closed"));
+        closed.complete(null);
+    }
+
+    /**
+     * Completes when the connection is closed by either side.
+     */
+    public CompletableFuture<Void> closed() {
+        return closed;
+    }
+
+    /**
+     * Encodes {@code view}, binding states that are new to it and releasing the ones nothing
+     * shown refers to any more. Its handlers are registered by {@link #publish} once it is sent.
+     */
+    private byte[] encode(View view) {
+        frame.reset();
+        handlerIds.clear();
+        handlers.clear();
+        usedBindings = new ArrayList<>();
+        usedLists = new ArrayList<>();
+        view.render(this);
+        frameBindings = usedBindings;
+        frameLists = usedLists;
+        sweep();
+        return frame.toByteArray();
+    }
+
+    /**
+     * Gives the frame just encoded the next sequence and keeps its handlers for the clicks on it.
+     * Only frames that are sent take a sequence, so unchanged updates never push the shown frame
+     * out of {@link #sentHandlers}.
+     */
+    private void publish() {
+        frameSequence = ++sequence;
+        synchronized (sentHandlers) {
+            sentHandlers.put(sequence, handlers.toArray(new Runnable[0]));
+        }
+    }
+
+    /**
+     * Builds the items {@code first} to {@code first + count} of a list the display shows, for
+     * slots {@code extent} pixels across, and sends them as one batch. Requests for lists no
+     * longer shown are ignored.
+     */
+    private synchronized void sendItems(int listId, int first, int count, int extent) {
+        RemoteList remote = listsById.get(listId);
+        if (remote == null || closed.isDone()) return;
+        LazyList list = remote.list;
+        int from = Math.max(0, Math.min(first, list.itemCount));
+        int end = Math.min(list.itemCount, from + Math.max(0, Math.min(count, MAX_RANGE)));
+        int crossExtent = Math.max(1, extent);
+        List<LazyList.Item> items = new ArrayList<>();
+        handlerIds.clear();
+        handlers.clear();
+        usedBindings = new ArrayList<>();
+        usedLists = new ArrayList<>();
+        int batch = ++sequence;
+        message.reset();
+        message.writeInt(listId);
+        message.writeInt(batch);
+        message.writeInt(from);
+        message.writeInt(end - from);
+        message.writeInt(crossExtent);
+        try {
+            for (int index = from; index < end; index++) {
+                frame.reset();
+                if (list.items == null) {
+                    list.itemBuilder.apply(index).render(this);
+                } else {
+                    LazyList.Item item = remote.take(crossExtent);
+                    items.add(item);
+                    item.bind(index);
+                    item.view().render(this);
+                }
+                message.writeInt(frame.length());
+                message.write(frame.array(), 0, frame.length());
+            }
+        } catch (RuntimeException e) {
+            // Like a failing click handler: reported, and the display keeps waiting for the items
+            remote.spare.addAll(items);
+            sweep();
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            return;
+        }
+        remote.batches.put(batch, new Batch(usedBindings, usedLists, crossExtent, items));
+        Batch dropped = null;
+        synchronized (sentHandlers) {
+            batchHandlers.put(batch, handlers.toArray(new Runnable[0]));
+            if (remote.batches.size() > Wire.KEPT_ITEM_BATCHES) {
+                Iterator<Map.Entry<Integer, Batch>> eldest = remote.batches.entrySet().iterator();
+                Map.Entry<Integer, Batch> entry = eldest.next();
+                batchHandlers.remove(entry.getKey());
+                dropped = entry.getValue();
+                eldest.remove();
+            }
+        }
+        if (dropped != null) remote.recycle(dropped);
+        sweep();
+        send(Wire.ITEMS, message);
+    }
+
+    /**
+     * Drops the bindings and lists that neither the last frame nor a kept item batch of a list it
+     * reaches shows.
+     */
+    private void sweep() {
+        for (Binding binding : bindings.values()) binding.seen = false;
+        for (RemoteList remote : lists.values()) remote.seen = false;
+        ArrayDeque<RemoteList> reached = new ArrayDeque<>();
+        mark(frameBindings, frameLists, reached);
+        while (!reached.isEmpty()) {
+            for (Batch batch : reached.poll().batches.values()) mark(batch.bindings(), batch.lists(), reached);
+        }
+        Iterator<Binding> staleBindings = bindings.values().iterator();
+        while (staleBindings.hasNext()) {
+            Binding binding = staleBindings.next();
+            if (binding.seen) continue;
+            binding.subscription.unsubscribe();
+            staleBindings.remove();
+        }
+        Iterator<RemoteList> staleLists = lists.values().iterator();
+        while (staleLists.hasNext()) {
+            RemoteList remote = staleLists.next();
+            if (remote.seen) continue;
+            drop(remote);
+            staleLists.remove();
+        }
+    }
+
+    private static void mark(List<Binding> bindings, List<RemoteList> lists, ArrayDeque<RemoteList> reached) {
+        for (Binding binding : bindings) binding.seen = true;
+        for (RemoteList remote : lists) {
+            if (remote.seen) continue;
+            remote.seen = true;
+            reached.add(remote);
+        }
+    }
+
+    private void drop(RemoteList remote) {
+        listsById.remove(remote.id);
+        synchronized (sentHandlers) {
+            batchHandlers.keySet().removeAll(remote.batches.keySet());
+        }
+        remote.releaseItems();
+    }
+
+    private void release() {
+        for (Binding binding : bindings.values()) binding.subscription.unsubscribe();
+        bindings.clear();
+        for (RemoteList remote : lists.values()) drop(remote);
+        lists.clear();
+        frameBindings = List.of();
+        frameLists = List.of();
+    }
+
+    /**
+     * Queues a state's new text. Runs on whichever thread changed the state, possibly under the
+     * state graph's lock, so it takes no other lock than the map's and never blocks.
+     */
+    private void sendState(int id, Object value) {
+        String text = value != null ? value.toString() : "";
+        boolean first;
+        synchronized (changedStates) {
+            first = changedStates.isEmpty();
+            changedStates.put(id, text);
+        }
+        if (first) outbox.add(STATES);
+    }
+
+    /**
+     * Queues one message for the writer thread. A message too large to send closes the connection.
+     */
+    private void send(int type, WireWriter payload) {
+        if (closed.isDone()) return;
+        try {
+            outbox.add(Wire.encode(type, payload));
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    private void write() {
+        WireWriter state = new WireWriter();
+        try {
+            while (true) {
+                byte[] next = outbox.take();
+                if (next == STOP) return;
+                if (next == STATES) writeStates(state);
+                else out.write(next);
+                if (outbox.isEmpty()) out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // The display is gone
+        } finally {
+            close();
+        }
+    }
+
+    private void writeStates(WireWriter state) throws IOException {
+        Map<Integer, String> changed;
+        synchronized (changedStates) {
+            changed = new LinkedHashMap<>(changedStates);
+            changedStates.clear();
+        }
+        for (Map.Entry<Integer, String> entry : changed.entrySet()) {
+            state.reset();
+            state.writeInt(entry.getKey());
+            state.writeString(entry.getValue());
+            out.writeByte(Wire.STATE);
+            out.writeInt(state.length());
+            out.write(state.array(), 0, state.length());
+        }
+    }
+
+    private void read() {
+        WireReader payload = new WireReader();
+        try {
+            int type;
+            while ((type = Wire.receive(in, payload)) >= 0) {
+                switch (type) {
+                    case Wire.READY -> ready.complete(null);
+                    case Wire.CLICK -> click(payload.readInt(), payload.readInt());
+                    case Wire.RANGE -> sendItems(payload.readInt(), payload.readInt(), payload.readInt(), payload.readInt());
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // A broken or malformed stream ends the connection like end of stream
+        } finally {
+            close();
+        }
+    }
+
+    private void click(int sequence, int handler) {
+        Runnable[] frameHandlers;
+        synchronized (sentHandlers) {
+            frameHandlers = sentHandlers.get(sequence);
+            if (frameHandlers == null) frameHandlers = batchHandlers.get(sequence);
+        }
+        // Clicks on frames too old to remember are dropped
+        if (frameHandlers == null || handler < 0 || handler >= frameHandlers.length) return;
+        try {
+            frameHandlers[handler].run();
+        } catch (RuntimeException e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    // Views render through this renderer into the frame being encoded
+
+    @Override
+    public void key(Object key) {
+        frame.writeByte(Wire.KEY);
+        frame.writeKey(key);
+    }
+
+    @Override
+    public void flex(int flex, boolean tight) {
+        frame.writeByte(Wire.FLEX);
+        frame.writeInt(flex);
+        frame.writeBoolean(tight);
+    }
+
+    @Override
+    public void style(ElementStyle style) {
+        frame.writeByte(Wire.STYLE);
+        frame.writeStyle(style);
+    }
+
+    @Override
+    public void pushTheme(ThemeOverride override) {
+        frame.writeByte(Wire.PUSH_THEME);
+        frame.writeOverride(override);
+    }
+
+    @Override
+    public void popTheme() {
+        frame.writeByte(Wire.POP_THEME);
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        pushColumn(mainAxisAlignment, crossAxisAlignment, MainAxisSize.MAX, padding, gap);
+    }
+
+    @Override
+    public void pushColumn(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                           MainAxisSize mainAxisSize, Insets padding, int gap) {
+        container(Wire.COLUMN, mainAxisAlignment, crossAxisAlignment, mainAxisSize, padding, gap);
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment, Insets padding, int gap) {
+        pushRow(mainAxisAlignment, crossAxisAlignment, MainAxisSize.MAX, padding, gap);
+    }
+
+    @Override
+    public void pushRow(MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                        MainAxisSize mainAxisSize, Insets padding, int gap) {
+        container(Wire.ROW, mainAxisAlignment, crossAxisAlignment, mainAxisSize, padding, gap);
+    }
+
+    private void container(int op, MainAxisAlignment mainAxisAlignment, CrossAxisAlignment crossAxisAlignment,
+                           MainAxisSize mainAxisSize, Insets padding, int gap) {
+        frame.writeByte(op);
+        frame.writeByte(mainAxisAlignment.ordinal());
+        frame.writeByte(crossAxisAlignment.ordinal());
+        frame.writeByte(mainAxisSize.ordinal());
+        frame.writeInsets(padding);
+        frame.writeInt(gap);
+    }
+
+    @Override
+    public void pushCenter() {
+        frame.writeByte(Wire.CENTER);
+    }
+
+    @Override
+    public void pushSizedBox(int width, int height) {
+        frame.writeByte(Wire.SIZED_BOX);
+        frame.writeInt(width);
+        frame.writeInt(height);
+    }
+
+    @Override
+    public void pop() {
+        frame.writeByte(Wire.POP);
+    }
+
+    @Override
+    public void addText(String text) {
+        frame.writeByte(Wire.TEXT);
+        frame.writeString(text);
+    }
+
+    @Override
+    public <T> void addText(State<T> state) {
+        Binding binding = bindings.get(state);
+        if (binding == null) {
+            int id = nextStateId++;
+            binding = new Binding(id, state.subscribe(value -> sendState(id, value)));
+            bindings.put(state, binding);
+        }
+        usedBindings.add(binding);
+        T value = state.peek();
+        frame.writeByte(Wire.STATE_TEXT);
+        frame.writeInt(binding.id);
+        frame.writeString(value != null ? value.toString() : "");
+    }
+
+    @Override
+    public void addButton(String text, Runnable onClick) {
+        Integer id = handlerIds.get(onClick);
+        if (id == null) {
+            id = handlers.size();
+            handlers.add(onClick);
+            handlerIds.put(onClick, id);
+        }
+        frame.writeByte(Wire.BUTTON);
+        frame.writeString(text);
+        frame.writeInt(id);
+    }
+
+    @Override
+    public void addLazyList(LazyList list) {
+        RemoteList remote = lists.get(list);
+        if (remote == null) {
+            remote = new RemoteList(nextListId++, list);
+            lists.put(list, remote);
+            listsById.put(remote.id, remote);
+        }
+        usedLists.add(remote);
+        frame.writeByte(Wire.LAZY);
+        frame.writeInt(remote.id);
+        frame.writeBoolean(list.horizontal);
+        frame.writeInt(list.itemCount);
+        frame.writeInt(list.itemExtent);
+        frame.writeInt(list.crossAxisCount);
+        frame.writeInt(list.overscan);
+        frame.writeBoolean(list.items != null);
+    }
+}
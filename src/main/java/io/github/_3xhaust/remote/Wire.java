@@ -0,0 +1,115 @@
+package io.github._3xhaust.remote;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Message types and frame opcodes of the remote protocol. Every message is a type byte, a
+ * payload length and the payload; integers are big-endian and strings UTF-8.
+ *
+ * <p>A frame is the renderer call stream of one view, one opcode byte per call followed by its
+ * operands. Strings are written inline and bound states and handlers as ids, so a small change to
+ * the view changes only a small run of bytes, and {@link #DELTA} sends just that run.
+ *
+ * <p>A lazy list is sent as its id and shape only. The display asks for the items it scrolls to
+ * with {@link #RANGE}, and the server answers with one frame per item in an {@link #ITEMS} batch,
+ * whose sequence the clicks on those items refer to. Both carry the width of the display's slots
+ * across the scroll axis, which decides what the items of a list of items show.
+ */
+final class Wire {
+    // Server to client
+    /** title, width, height */
+    static final int INIT = 1;
+    /** sequence, whole frame */
+    static final int FRAME = 2;
+    /** sequence, bytes kept from the front, bytes kept from the back, replacement in between */
+    static final int DELTA = 3;
+    /** state id, text */
+    static final int STATE = 4;
+    /** theme */
+    static final int THEME = 5;
+    static final int UNMOUNT = 6;
+    /** list id, batch sequence, first index, item count, cross extent, then each item's frame length and frame */
+    static final int ITEMS = 7;
+
+    // Client to server
+    static final int READY = 64;
+    /** frame sequence, handler id within that frame */
+    static final int CLICK = 65;
+    /** list id, first index, item count, cross extent of the display's slots */
+    static final int RANGE = 66;
+
+    // Frame opcodes
+    static final int COLUMN = 1;
+    static final int ROW = 2;
+    static final int CENTER = 3;
+    static final int SIZED_BOX = 4;
+    static final int POP = 5;
+    static final int TEXT = 6;
+    /** state id, value at encode time */
+    static final int STATE_TEXT = 7;
+    /** text, handler id */
+    static final int BUTTON = 8;
+    static final int KEY = 9;
+    static final int FLEX = 10;
+    static final int STYLE = 11;
+    static final int PUSH_THEME = 12;
+    static final int POP_THEME = 13;
+    /** list id, horizontal, item count, item extent, cross-axis count, overscan, list of items */
+    static final int LAZY = 14;
+
+    /** Largest payload either side accepts, so a corrupt length cannot exhaust the heap. */
+    static final int MAX_PAYLOAD = 64 << 20;
+    /**
+     * Item batches of a list each side keeps, oldest dropped first. Both drop in the order the
+     * batches were sent, so the display never shows items whose clicks and states the server forgot.
+     */
+    static final int KEPT_ITEM_BATCHES = 16;
+
+    private Wire() {
+    }
+
+    static void send(DataOutputStream out, int type, WireWriter payload) throws IOException {
+        checkLength(payload);
+        out.writeByte(type);
+        out.writeInt(payload.length());
+        out.write(payload.array(), 0, payload.length());
+        out.flush();
+    }
+
+    /**
+     * The message {@link #send} would write, as bytes to be written later.
+     */
+    static byte[] encode(int type, WireWriter payload) throws IOException {
+        checkLength(payload);
+        int length = payload.length();
+        byte[] message = new byte[5 + length];
+        message[0] = (byte) type;
+        message[1] = (byte) (length >>> 24);
+        message[2] = (byte) (length >>> 16);
+        message[3] = (byte) (length >>> 8);
+        message[4] = (byte) length;
+        System.arraycopy(payload.array(), 0, message, 5, length);
+        return message;
+    }
+
+    private static void checkLength(WireWriter payload) throws IOException {
+        if (payload.length() > MAX_PAYLOAD) throw new IOException("Message of " + payload.length() + " bytes is too large");
+    }
+
+    /**
+     * Reads the next message into {@code payload} and returns its type, or -1 at end of stream.
+     * A length outside 0 to {@link #MAX_PAYLOAD} fails with an {@link IOException}.
+     */
+    static int receive(DataInputStream in, WireReader payload) throws IOException {
+        int type = in.read();
+        if (type < 0) return -1;
+        int length = in.readInt();
+        if (length < 0 || length > MAX_PAYLOAD) throw new IOException("Bad message length " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        payload.reset(bytes);
+        return type;
+    }
+}
@@ -0,0 +1,139 @@
+package io.github._3xhaust.remote;
+
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.FontCache;
+import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import java.awt.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decoders of the remote protocol, reading from a byte array.
+ */
+final class WireReader {
+    private byte[] bytes;
+    private int position;
+    private int limit;
+
+    WireReader() {
+        reset(new byte[0]);
+    }
+
+    WireReader(byte[] bytes) {
+        reset(bytes);
+    }
+
+    void reset(byte[] bytes) {
+        this.bytes = bytes;
+        this.position = 0;
+        this.limit = bytes.length;
+    }
+
+    boolean hasMore() {
+        return position < limit;
+    }
+
+    int position() {
+        return position;
+    }
+
+    /** Copies everything not read yet. */
+    byte[] remaining() {
+        byte[] rest = new byte[limit - position];
+        System.arraycopy(bytes, position, rest, 0, rest.length);
+        position = limit;
+        return rest;
+    }
+
+    byte[] readBytes(int length) {
+        if (length < 0 || length > limit - position) throw new IllegalStateException("Truncated message");
+        byte[] read = new byte[length];
+        System.arraycopy(bytes, position, read, 0, length);
+        position += length;
+        return read;
+    }
+
+    int readByte() {
+        if (position >= limit) throw new IllegalStateException("Truncated message");
+        return bytes[position++] & 0xff;
+    }
+
+    boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    int readInt() {
+        return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+    }
+
+    long readLong() {
+        return (long) readInt() << 32 | readInt() & 0xffffffffL;
+    }
+
+    String readString() {
+        int length = readInt();
+        if (length < 0) return null;
+        if (length > limit - position) throw new IllegalStateException("Truncated message");
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    Color readColor() {
+        return readBoolean() ? new Color(readInt(), true) : null;
+    }
+
+    Font readFont() {
+        if (!readBoolean()) return null;
+        String name = readString();
+        int style = readInt();
+        return FontCache.get(name, style, readInt());
+    }
+
+    Insets readInsets() {
+        if (!readBoolean()) return null;
+        return new Insets(readInt(), readInt(), readInt(), readInt());
+    }
+
+    Object readKey() {
+        return switch (readByte()) {
+            case 1 -> readInt();
+            case 2 -> readLong();
+            default -> readString();
+        };
+    }
+
+    ElementStyle readStyle() {
+        ElementStyle.Builder builder = ElementStyle.builder()
+                .font(readFont())
+                .foreground(readColor())
+                .background(readColor())
+                .padding(readInsets());
+        int borderWidth = readInt();
+        builder.border(borderWidth, readColor())
+                .textAlign(readInt())
+                .minWidth(readInt());
+        int width = readInt();
+        return builder.size(width, readInt()).build();
+    }
+
+    Theme readTheme() {
+        int kind = readByte();
+        if (kind != 0) return kind == 1 ? Theme.LIGHT : Theme.DARK;
+        Theme.Builder builder = Theme.builder(readString(), readBoolean());
+        for (int i = 0; i < Theme.COLOR_COUNT; i++) builder.color(i, readColor());
+        for (int i = 0; i < Theme.FONT_COUNT; i++) builder.font(i, readFont());
+        return builder.build();
+    }
+
+    ThemeOverride readOverride() {
+        int kind = readByte();
+        if (kind != 0) return (kind == 1 ? Theme.LIGHT : Theme.DARK).asOverride();
+        ThemeOverride.Builder builder = ThemeOverride.builder();
+        for (int i = 0; i < Theme.COLOR_COUNT; i++) builder.color(i, readColor());
+        for (int i = 0; i < Theme.FONT_COUNT; i++) builder.font(i, readFont());
+        return builder.build();
+    }
+}
@@ -0,0 +1,153 @@
+package io.github._3xhaust.remote;
+
+import io.github._3xhaust.core.ElementStyle;
+import io.github._3xhaust.core.Insets;
+import io.github._3xhaust.theme.Theme;
+import io.github._3xhaust.theme.ThemeOverride;
+
+import java.awt.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the encoders of the remote protocol. Reused between messages.
+ */
+final class WireWriter {
+    private byte[] bytes = new byte[256];
+    private int length;
+
+    void reset() {
+        length = 0;
+    }
+
+    int length() {
+        return length;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    void writeByte(int value) {
+        ensure(1);
+        bytes[length++] = (byte) value;
+    }
+
+    void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    void writeInt(int value) {
+        ensure(4);
+        bytes[length++] = (byte) (value >>> 24);
+        bytes[length++] = (byte) (value >>> 16);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+    }
+
+    void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    void write(byte[] source, int offset, int count) {
+        ensure(count);
+        System.arraycopy(source, offset, bytes, length, count);
+        length += count;
+    }
+
+    /** Length-prefixed UTF-8; null is length -1. */
+    void writeString(String value) {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(utf8.length);
+        write(utf8, 0, utf8.length);
+    }
+
+    void writeColor(Color color) {
+        writeBoolean(color != null);
+        if (color != null) writeInt(color.getRGB());
+    }
+
+    void writeFont(Font font) {
+        writeBoolean(font != null);
+        if (font == null) return;
+        writeString(font.getName());
+        writeInt(font.getStyle());
+        writeInt(font.getSize());
+    }
+
+    void writeInsets(Insets insets) {
+        writeBoolean(insets != null);
+        if (insets == null) return;
+        writeInt(insets.top);
+        writeInt(insets.left);
+        writeInt(insets.bottom);
+        writeInt(insets.right);
+    }
+
+    /**
+     * Keys keep their identity for strings and integers; anything else travels as its string form,
+     * which only has to stay unique among siblings.
+     */
+    void writeKey(Object key) {
+        if (key instanceof Integer value) {
+            writeByte(1);
+            writeInt(value);
+        } else if (key instanceof Long value) {
+            writeByte(2);
+            writeLong(value);
+        } else {
+            writeByte(0);
+            writeString(String.valueOf(key));
+        }
+    }
+
+    void writeStyle(ElementStyle style) {
+        writeFont(style.font);
+        writeColor(style.foreground);
+        writeColor(style.background);
+        writeInsets(style.padding);
+        writeInt(style.borderWidth);
+        writeColor(style.borderColor);
+        writeInt(style.textAlign);
+        writeInt(style.minWidth);
+        writeInt(style.width);
+        writeInt(style.height);
+    }
+
+    /** The built-in themes travel by name, others token by token. */
+    void writeTheme(Theme theme) {
+        if (theme == Theme.LIGHT || theme == Theme.DARK) {
+            writeByte(theme == Theme.LIGHT ? 1 : 2);
+            return;
+        }
+        writeByte(0);
+        writeString(theme.getName());
+        writeBoolean(theme.isDark());
+        for (int i = 0; i < Theme.COLOR_COUNT; i++) writeColor(theme.color(i));
+        for (int i = 0; i < Theme.FONT_COUNT; i++) writeFont(theme.font(i));
+    }
+
+    void writeOverride(ThemeOverride override) {
+        Theme source = override.getSource();
+        if (source == Theme.LIGHT || source == Theme.DARK) {
+            writeByte(source == Theme.LIGHT ? 1 : 2);
+            return;
+        }
+        writeByte(0);
+        for (int i = 0; i < Theme.COLOR_COUNT; i++) writeColor(override.color(i));
+        for (int i = 0; i < Theme.FONT_COUNT; i++) writeFont(override.font(i));
+    }
+
+    private void ensure(int count) {
+        if (length + count > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+    }
+}
@@ -0,0 +1,102 @@
+package io.github._3xhaust.state;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * State derived from other states. The value is memoized and recomputed only when one of the
+ * states read during the last computation changes; dependents are not notified when the new
+ * value equals the old one.
+ */
+public class Computed<T> extends State<T> implements Graph.Dependent {
+    private final Supplier<T> compute;
+    // Guarded by the graph lock
+    private final Set<State<?>> sources = new LinkedHashSet<>();
+    private volatile boolean initialized;
+    boolean queued;
+
+    public Computed(Supplier<T> compute) {
+        super(null);
+        this.compute = compute;
+    }
+
+    @Override
+    public T get() {
+        ensureInitialized();
+        return super.get();
+    }
+
+    @Override
+    public T peek() {
+        ensureInitialized();
+        return value;
+    }
+
+    @Override
+    void checkWritable() {
+        throw new UnsupportedOperationException("Computed state is read-only");
+    }
+
+    @Override
+    public Subscription subscribe(Consumer<? super T> listener) {
+        ensureInitialized();
+        return super.subscribe(listener);
+    }
+
+    private void ensureInitialized() {
+        if (initialized) return;
+        Graph.locked(() -> {
+            if (!initialized) {
+                value = evaluate();
+                initialized = true;
+            }
+        });
+    }
+
+    /**
+     * Recomputes the value and reports whether it changed.
+     */
+    boolean recompute() {
+        T next = evaluate();
+        if (Objects.equals(value, next)) return false;
+        value = next;
+        return true;
+    }
+
+    private T evaluate() {
+        clearSources();
+        T result = Graph.evaluate(this, compute);
+        int max = -1;
+        for (State<?> source : sources) max = Math.max(max, source.height);
+        Graph.raise(this, max + 1);
+        return result;
+    }
+
+    private void clearSources() {
+        for (State<?> source : sources) source.dependents.remove(this);
+        sources.clear();
+    }
+
+    /**
+     * Detaches this state from its sources; it is recomputed from scratch on the next read.
+     */
+    public void dispose() {
+        Graph.locked(() -> {
+            clearSources();
+            initialized = false;
+        });
+    }
+
+    @Override
+    public void track(State<?> source) {
+        if (source != this && sources.add(source)) source.dependents.add(this);
+    }
+
+    @Override
+    public void schedule() {
+        Graph.enqueue(this);
+    }
+}
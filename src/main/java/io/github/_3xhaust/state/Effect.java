@@ -0,0 +1,51 @@
+package io.github._3xhaust.state;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Side effect that re-runs whenever a state it read during its last run changes. Effects run
+ * after all computed states have settled, so they never observe a half-updated graph.
+ */
+public class Effect implements Graph.Dependent {
+    private final Runnable body;
+    // Guarded by the graph lock
+    private final Set<State<?>> sources = new LinkedHashSet<>();
+    private boolean disposed;
+
+    public Effect(Runnable body) {
+        this.body = body;
+        run();
+    }
+
+    void run() {
+        Graph.evaluate(this, () -> {
+            if (disposed) return null;
+            clearSources();
+            body.run();
+            return null;
+        });
+    }
+
+    private void clearSources() {
+        for (State<?> source : sources) source.dependents.remove(this);
+        sources.clear();
+    }
+
+    public void dispose() {
+        Graph.locked(() -> {
+            disposed = true;
+            clearSources();
+        });
+    }
+
+    @Override
+    public void track(State<?> source) {
+        if (sources.add(source)) source.dependents.add(this);
+    }
+
+    @Override
+    public void schedule() {
+        Graph.enqueue(this);
+    }
+}
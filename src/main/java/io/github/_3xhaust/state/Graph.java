@@ -0,0 +1,170 @@
+package io.github._3xhaust.state;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Propagation engine behind {@link State}. A change marks the direct dependents; computed states
+ * are then re-evaluated in height order (sources before the states derived from them), so every
+ * computation sees a consistent graph and runs at most once per change. Listeners and effects run
+ * last.
+ *
+ * <p>States without computed or effect dependents notify their listeners directly on the setting
+ * thread. Everything else runs under a single graph lock, so computed values and effects are
+ * never evaluated concurrently.
+ */
+final class Graph {
+    interface Dependent {
+        void track(State<?> source);
+
+        void schedule();
+    }
+
+    private static final class Batch {
+        int depth;
+        final Set<State<?>> changed = new LinkedHashSet<>();
+    }
+
+    private static final ReentrantLock lock = new ReentrantLock();
+    private static final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
+
+    // Guarded by lock
+    private static Dependent current;
+    private static boolean propagating;
+    private static final PriorityQueue<Computed<?>> dirty = new PriorityQueue<>(Comparator.comparingInt(c -> c.height));
+    private static final Set<State<?>> changed = new LinkedHashSet<>();
+    private static final Set<Effect> effects = new LinkedHashSet<>();
+
+    private Graph() {
+    }
+
+    static void track(State<?> source) {
+        // Only evaluations hold the lock, so other threads never see a foreign tracking context
+        if (lock.isHeldByCurrentThread() && current != null) current.track(source);
+    }
+
+    static <T> T evaluate(Dependent dependent, Supplier<T> body) {
+        lock.lock();
+        try {
+            Dependent previous = current;
+            current = dependent;
+            try {
+                return body.get();
+            } finally {
+                current = previous;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static void locked(Runnable body) {
+        lock.lock();
+        try {
+            body.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static void changed(State<?> state) {
+        Batch batch = batches.get();
+        if (batch.depth > 0) {
+            batch.changed.add(state);
+            return;
+        }
+        if (state.dependents.isEmpty()) {
+            state.notifyListeners();
+            return;
+        }
+        lock.lock();
+        try {
+            mark(state);
+            propagate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static void batch(Runnable body) {
+        Batch batch = batches.get();
+        batch.depth++;
+        try {
+            body.run();
+        } finally {
+            if (--batch.depth == 0 && !batch.changed.isEmpty()) {
+                List<State<?>> states = new ArrayList<>(batch.changed);
+                batch.changed.clear();
+                lock.lock();
+                try {
+                    for (State<?> state : states) mark(state);
+                    propagate();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    static void enqueue(Computed<?> computed) {
+        if (computed.queued) return;
+        computed.queued = true;
+        dirty.add(computed);
+    }
+
+    static void enqueue(Effect effect) {
+        effects.add(effect);
+    }
+
+    /**
+     * Lifts the height of {@code computed} and, transitively, of the states derived from it.
+     */
+    static void raise(Computed<?> computed, int height) {
+        if (computed.height >= height) return;
+        boolean requeue = computed.queued && dirty.remove(computed);
+        computed.height = height;
+        if (requeue) dirty.add(computed);
+        for (Dependent dependent : computed.dependents) {
+            if (dependent instanceof Computed<?> derived) raise(derived, height + 1);
+        }
+    }
+
+    private static void mark(State<?> state) {
+        changed.add(state);
+        for (Dependent dependent : state.dependents) dependent.schedule();
+    }
+
+    private static void propagate() {
+        if (propagating) return;
+        propagating = true;
+        try {
+            flush();
+        } finally {
+            propagating = false;
+        }
+    }
+
+    private static void flush() {
+        while (!dirty.isEmpty() || !changed.isEmpty() || !effects.isEmpty()) {
+            Computed<?> computed;
+            while ((computed = dirty.poll()) != null) {
+                computed.queued = false;
+                if (computed.recompute()) mark(computed);
+            }
+
+            List<State<?>> states = new ArrayList<>(changed);
+            changed.clear();
+            for (State<?> state : states) state.notifyListeners();
+
+            List<Effect> pending = new ArrayList<>(effects);
+            effects.clear();
+            for (Effect effect : pending) effect.run();
+        }
+    }
+}
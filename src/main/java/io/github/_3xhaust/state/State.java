@@ -1,34 +1,151 @@
 package io.github._3xhaust.state;
 
+import io.github._3xhaust.core.RenderMetrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Observable value at the root of the signal graph. Reading it inside a {@link Computed} or
+ * {@link Effect} records a dependency; setting an equal value is a no-op.
+ *
+ * <p>States may be written from any thread. The value is published with volatile semantics, so
+ * a write happens-before every read that observes it; the atomic methods never take a lock.
+ * Renderers refresh bound components on their UI thread by reading the latest value when the
+ * frame flushes, so the UI thread always sees the last write made before the flush.
+ */
 public class State<T> {
-    private T value;
-    private Consumer<T> onChange;
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(State.class, "value", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    volatile T value;
+    int height;
+    final List<Graph.Dependent> dependents = new CopyOnWriteArrayList<>();
+    private final List<Consumer<? super T>> listeners = new CopyOnWriteArrayList<>();
 
     public State(T value) {
         this.value = value;
     }
 
     public T get() {
+        Graph.track(this);
+        return value;
+    }
+
+    /**
+     * Reads the value without recording a dependency.
+     */
+    public T peek() {
         return value;
     }
 
     public void set(T value) {
-        this.value = value;
-        if (onChange != null) onChange.accept(value);
+        checkWritable();
+        Object previous = VALUE.getAndSet(this, value);
+        if (!Objects.equals(previous, value)) Graph.changed(this);
+    }
+
+    /**
+     * Atomically sets the value to {@code update} if it is currently {@code expected}. As with
+     * {@link java.util.concurrent.atomic.AtomicReference}, the comparison is by identity.
+     */
+    public boolean compareAndSet(T expected, T update) {
+        checkWritable();
+        if (!VALUE.compareAndSet(this, expected, update)) return false;
+        if (!Objects.equals(expected, update)) Graph.changed(this);
+        return true;
+    }
+
+    /**
+     * Atomically applies {@code updater}, retrying on contention, and returns the new value. The
+     * function may run more than once and should be free of side effects.
+     */
+    public T updateAndGet(Function<T, T> updater) {
+        checkWritable();
+        T previous;
+        T next;
+        do {
+            previous = value;
+            next = updater.apply(previous);
+        } while (!VALUE.compareAndSet(this, previous, next));
+        if (!Objects.equals(previous, next)) Graph.changed(this);
+        return next;
+    }
+
+    /**
+     * Like {@link #updateAndGet} but returns the value that was replaced.
+     */
+    public T getAndUpdate(Function<T, T> updater) {
+        checkWritable();
+        T previous;
+        T next;
+        do {
+            previous = value;
+            next = updater.apply(previous);
+        } while (!VALUE.compareAndSet(this, previous, next));
+        if (!Objects.equals(previous, next)) Graph.changed(this);
+        return previous;
     }
 
     public void update(Function<T, T> updater) {
-        set(updater.apply(value));
+        updateAndGet(updater);
+    }
+
+    void checkWritable() {
+    }
+
+    /**
+     * Adds a listener that runs after every change, once the graph has settled. Listeners run on
+     * the thread that made the change.
+     */
+    public Subscription subscribe(Consumer<? super T> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public Subscription bindOnChange(Consumer<T> listener) {
+        return subscribe(listener);
     }
 
-    public void bindOnChange(Consumer<T> listener) {
-        this.onChange = listener;
+    void notifyListeners() {
+        RenderMetrics.current().stateNotified(listeners.size());
+        T current = value;
+        for (Consumer<? super T> listener : listeners) {
+            listener.accept(current);
+        }
     }
 
     public static <T> State<T> of(T value) {
         return new State<>(value);
     }
+
+    public static <T> Computed<T> computed(Supplier<T> compute) {
+        return new Computed<>(compute);
+    }
+
+    public static Effect effect(Runnable body) {
+        return new Effect(body);
+    }
+
+    /**
+     * Runs {@code body} as one transaction: computed states, listeners and effects see only the
+     * final values, once, after the outermost batch returns. Computed states read inside the
+     * batch still hold their pre-batch values. Batches are per thread.
+     */
+    public static void batch(Runnable body) {
+        Graph.batch(body);
+    }
 }
@@ -0,0 +1,9 @@
+package io.github._3xhaust.state;
+
+/**
+ * Handle returned by {@link State#subscribe}; unsubscribing detaches the listener.
+ */
+@FunctionalInterface
+public interface Subscription {
+    void unsubscribe();
+}
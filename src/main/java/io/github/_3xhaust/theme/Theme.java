@@ -0,0 +1,157 @@
+package io.github._3xhaust.theme;
+
+import io.github._3xhaust.core.FontCache;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable set of design tokens. Colors and fonts live in flat arrays indexed by the token
+ * constants below, so a lookup is a single array read.
+ *
+ * <p>Subtrees are themed with a {@link ThemeOverride}; {@link #derive(ThemeOverride)} returns the
+ * same instance for the same base and override, so elements compare themes by identity.
+ */
+public final class Theme {
+    // Color tokens
+    public static final int BACKGROUND = 0;
+    public static final int ON_BACKGROUND = 1;
+    public static final int PRIMARY = 2;
+    public static final int PRIMARY_HOVER = 3;
+    public static final int PRIMARY_PRESSED = 4;
+    public static final int ON_PRIMARY = 5;
+    public static final int SCROLLBAR = 6;
+    public static final int COLOR_COUNT = 7;
+
+    // Font tokens
+    public static final int BODY = 0;
+    public static final int BUTTON = 1;
+    public static final int FONT_COUNT = 2;
+
+    private static final Font BODY_FONT = FontCache.get("SF Pro Display", Font.PLAIN, 14);
+    private static final Font BUTTON_FONT = FontCache.get("SF Pro Display", Font.BOLD, 14);
+
+    public static final Theme LIGHT = builder("light", false)
+            .color(BACKGROUND, Colors.Grey50)
+            .color(ON_BACKGROUND, Colors.Grey900)
+            .color(PRIMARY, Colors.Blue500)
+            .color(PRIMARY_HOVER, Colors.Blue600)
+            .color(PRIMARY_PRESSED, Colors.Blue700)
+            .color(ON_PRIMARY, Colors.White)
+            .color(SCROLLBAR, Colors.Black26)
+            .font(BODY, BODY_FONT)
+            .font(BUTTON, BUTTON_FONT)
+            .build();
+
+    public static final Theme DARK = builder("dark", true)
+            .color(BACKGROUND, Colors.Grey900)
+            .color(ON_BACKGROUND, Colors.Grey50)
+            .color(PRIMARY, Colors.Blue300)
+            .color(PRIMARY_HOVER, Colors.Blue200)
+            .color(PRIMARY_PRESSED, Colors.Blue100)
+            .color(ON_PRIMARY, Colors.Grey900)
+            .color(SCROLLBAR, Colors.White30)
+            .font(BODY, BODY_FONT)
+            .font(BUTTON, BUTTON_FONT)
+            .build();
+
+    private final String name;
+    private final boolean dark;
+    private final Color[] colors;
+    private final Font[] fonts;
+    private final Map<ThemeOverride, Theme> derived = new ConcurrentHashMap<>();
+    private ThemeOverride asOverride;
+
+    private Theme(String name, boolean dark, Color[] colors, Font[] fonts) {
+        this.name = name;
+        this.dark = dark;
+        this.colors = colors;
+        this.fonts = fonts;
+    }
+
+    public static Builder builder(String name, boolean dark) {
+        return new Builder(name, dark);
+    }
+
+    public Color color(int token) {
+        return colors[token];
+    }
+
+    public Font font(int token) {
+        return fonts[token];
+    }
+
+    public String getName() { return name; }
+    public boolean isDark() { return dark; }
+
+    /**
+     * This theme with {@code override} applied, shared between calls with equal overrides.
+     */
+    public Theme derive(ThemeOverride override) {
+        return derived.computeIfAbsent(override, o -> o.applyTo(this));
+    }
+
+    /**
+     * Override replacing every token with this theme's, for switching a subtree to it wholesale.
+     */
+    public ThemeOverride asOverride() {
+        ThemeOverride override = asOverride;
+        if (override == null) override = asOverride = ThemeOverride.of(this);
+        return override;
+    }
+
+    /**
+     * True when both themes use the same fonts, so switching between them needs no relayout.
+     */
+    public boolean sameTypography(Theme other) {
+        return other == this || Arrays.equals(fonts, other.fonts);
+    }
+
+    Theme with(Color[] colors, Font[] fonts) {
+        return new Theme(name + "*", dark, colors, fonts);
+    }
+
+    Color[] colors() { return colors.clone(); }
+    Font[] fonts() { return fonts.clone(); }
+
+    @Override
+    public String toString() {
+        return "Theme[" + name + "]";
+    }
+
+    public static final class Builder {
+        private final String name;
+        private final boolean dark;
+        private final Color[] colors = new Color[COLOR_COUNT];
+        private final Font[] fonts = new Font[FONT_COUNT];
+
+        private Builder(String name, boolean dark) {
+            this.name = name;
+            this.dark = dark;
+        }
+
+        /**
+         * Starts from every token of {@code base}.
+         */
+        public Builder from(Theme base) {
+            System.arraycopy(base.colors, 0, colors, 0, COLOR_COUNT);
+            System.arraycopy(base.fonts, 0, fonts, 0, FONT_COUNT);
+            return this;
+        }
+
+        public Builder color(int token, Color color) { colors[token] = color; return this; }
+        public Builder font(int token, Font font) { fonts[token] = font; return this; }
+
+        public Theme build() {
+            for (int i = 0; i < COLOR_COUNT; i++) {
+                if (colors[i] == null) throw new IllegalStateException("Theme " + name + " is missing color token " + i);
+            }
+            for (int i = 0; i < FONT_COUNT; i++) {
+                if (fonts[i] == null) throw new IllegalStateException("Theme " + name + " is missing font token " + i);
+            }
+            return new Theme(name, dark, colors.clone(), fonts.clone());
+        }
+    }
+}
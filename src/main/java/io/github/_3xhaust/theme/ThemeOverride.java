@@ -0,0 +1,103 @@
+package io.github._3xhaust.theme;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable partial theme applied to a subtree on top of the theme it inherits. Overrides compare
+ * by content, so a fresh but equal override resolves to the same derived {@link Theme}.
+ */
+public final class ThemeOverride {
+    private final Color[] colors;
+    private final Font[] fonts;
+    // Set when every token comes from one theme, which then resolves to that theme itself
+    private final Theme source;
+    private final int hash;
+
+    private ThemeOverride(Color[] colors, Font[] fonts, Theme source) {
+        this.colors = colors;
+        this.fonts = fonts;
+        this.source = source;
+        this.hash = Arrays.hashCode(colors) * 31 + Arrays.hashCode(fonts);
+    }
+
+    /**
+     * Override replacing every token with those of {@code theme}.
+     */
+    static ThemeOverride of(Theme theme) {
+        Color[] colors = new Color[Theme.COLOR_COUNT];
+        Font[] fonts = new Font[Theme.FONT_COUNT];
+        for (int i = 0; i < colors.length; i++) colors[i] = theme.color(i);
+        for (int i = 0; i < fonts.length; i++) fonts[i] = theme.font(i);
+        return new ThemeOverride(colors, fonts, theme);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Single override with the tokens of {@code overrides} applied in order, later ones winning.
+     */
+    public static ThemeOverride compose(List<ThemeOverride> overrides) {
+        Builder builder = new Builder();
+        for (ThemeOverride override : overrides) {
+            for (int i = 0; i < Theme.COLOR_COUNT; i++) {
+                if (override.colors[i] != null) builder.colors[i] = override.colors[i];
+            }
+            for (int i = 0; i < Theme.FONT_COUNT; i++) {
+                if (override.fonts[i] != null) builder.fonts[i] = override.fonts[i];
+            }
+        }
+        return builder.build();
+    }
+
+    /** Overridden color for {@code token}, or null when inherited. */
+    public Color color(int token) { return colors[token]; }
+    /** Overridden font for {@code token}, or null when inherited. */
+    public Font font(int token) { return fonts[token]; }
+    /** Theme this override switches to wholesale, or null for a partial override. */
+    public Theme getSource() { return source; }
+
+    Theme applyTo(Theme base) {
+        if (source != null) return source;
+        Color[] resolvedColors = base.colors();
+        Font[] resolvedFonts = base.fonts();
+        for (int i = 0; i < Theme.COLOR_COUNT; i++) {
+            if (colors[i] != null) resolvedColors[i] = colors[i];
+        }
+        for (int i = 0; i < Theme.FONT_COUNT; i++) {
+            if (fonts[i] != null) resolvedFonts[i] = fonts[i];
+        }
+        return base.with(resolvedColors, resolvedFonts);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ThemeOverride other)) return false;
+        return hash == other.hash && source == other.source
+                && Arrays.equals(colors, other.colors) && Arrays.equals(fonts, other.fonts);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    public static final class Builder {
+        private final Color[] colors = new Color[Theme.COLOR_COUNT];
+        private final Font[] fonts = new Font[Theme.FONT_COUNT];
+
+        private Builder() {
+        }
+
+        public Builder color(int token, Color color) { colors[token] = color; return this; }
+        public Builder font(int token, Font font) { fonts[token] = font; return this; }
+
+        public ThemeOverride build() {
+            return new ThemeOverride(colors.clone(), fonts.clone(), null);
+        }
+    }
+}
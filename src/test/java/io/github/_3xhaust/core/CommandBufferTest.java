@@ -0,0 +1,148 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.state.State;
+import io.github._3xhaust.theme.Theme;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+
+import static io.github._3xhaust.dsl.Layouts.Center;
+import static io.github._3xhaust.dsl.Layouts.Column;
+import static io.github._3xhaust.dsl.Layouts.Expanded;
+import static io.github._3xhaust.dsl.Layouts.Keyed;
+import static io.github._3xhaust.dsl.Layouts.LazyColumn;
+import static io.github._3xhaust.dsl.Layouts.Memo;
+import static io.github._3xhaust.dsl.Layouts.Row;
+import static io.github._3xhaust.dsl.Layouts.SizedBox;
+import static io.github._3xhaust.dsl.Layouts.Themed;
+import static io.github._3xhaust.dsl.Widgets.Button;
+import static io.github._3xhaust.dsl.Widgets.Text;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Buffers replay into the tree the view records directly, and {@link CommandBuffer#sameAs}
+ * tells recordings of equal views from those of views that render differently.
+ */
+class CommandBufferTest {
+    private final State<Integer> counter = State.of(0);
+    private final Runnable click = () -> {
+    };
+
+    @Test
+    void replayRecordsTheSameTreeAsTheView() {
+        View view = screen(300, "title", click, 1);
+        CommandBuffer buffer = record(view);
+        assertEquals(describe(new ElementRecorder().record(view)), describe(new ElementRecorder().record(buffer)));
+        // Reused for a smaller view, nothing of the larger recording is left
+        View small = screen(3, "small", click, 2);
+        buffer.record(small);
+        assertEquals(describe(new ElementRecorder().record(small)), describe(new ElementRecorder().record(buffer)));
+        assertTrue(buffer.sameAs(record(small)));
+    }
+
+    @Test
+    void equalViewsRecordTheSameCalls() {
+        CommandBuffer a = record(screen(20, "title", click, 1));
+        View equal = screen(20, new StringBuilder("tit").append("le").toString(), click, 1);
+        CommandBuffer b = record(equal);
+        assertTrue(a.sameAs(b));
+        assertTrue(b.sameAs(a));
+        assertTrue(a.sameAs(a));
+        // So replaying the kept buffer instead of the new view builds the same tree
+        assertEquals(describe(new ElementRecorder().record(equal)), describe(new ElementRecorder().record(a)));
+    }
+
+    @Test
+    void viewsThatRenderDifferentlyDiffer() {
+        CommandBuffer base = record(screen(20, "title", click, 1));
+        assertFalse(base.sameAs(null));
+        assertFalse(base.sameAs(record(screen(21, "title", click, 1))), "row count");
+        assertFalse(base.sameAs(record(screen(20, "Title", click, 1))), "text");
+        assertFalse(base.sameAs(record(screen(20, "title", () -> {
+        }, 1))), "handler of another identity");
+        assertFalse(base.sameAs(record(screen(20, "title", click, 2))), "memo input");
+        assertFalse(record(Text(counter)).sameAs(record(Text(State.of(0)))), "state of another identity");
+        assertFalse(record(SizedBox(10, 20)).sameAs(record(SizedBox(10, 21))), "size");
+        assertFalse(record(Keyed("a", Text("x"))).sameAs(record(Keyed("b", Text("x")))), "key");
+        assertFalse(record(Expanded(Text("x"), 1)).sameAs(record(Expanded(Text("x"), 2))), "flex");
+        assertFalse(record(Text("x").color(Color.RED)).sameAs(record(Text("x").color(Color.BLUE))), "style");
+        assertFalse(record(Row(Text("x"))).sameAs(record(Column(Text("x")))), "container");
+    }
+
+    @Test
+    void memosCompareByTypeAndInputs() {
+        assertTrue(record(memo(1, "a")).sameAs(record(memo(1, "a"))));
+        assertTrue(record(memo(1, new String("a"))).sameAs(record(memo(1, "a"))), "inputs by equality");
+        assertFalse(record(memo(1, "a")).sameAs(record(memo(1, "b"))));
+        assertFalse(record(memo(1, "a")).sameAs(record(Memo(() -> Text("1"), "a"))), "memo of another call site");
+    }
+
+    @Test
+    void operandsAreInternedOnce() {
+        View[] buttons = new View[100];
+        for (int i = 0; i < buttons.length; i++) buttons[i] = Button(new String("same"), click);
+        CommandBuffer shared = record(Column(buttons));
+        // The label, by value, and the handler, by identity
+        assertEquals(2, shared.operands());
+        assertEquals(buttons.length + 2, shared.size());
+
+        for (int i = 0; i < buttons.length; i++) {
+            int value = i;
+            buttons[i] = Button("label " + i, () -> counter.set(value));
+        }
+        CommandBuffer distinct = record(Column(buttons));
+        assertEquals(2 * buttons.length, distinct.operands());
+        assertEquals(describe(new ElementRecorder().record(Column(buttons))), describe(new ElementRecorder().record(distinct)));
+        assertFalse(shared.sameAs(distinct));
+    }
+
+    private View screen(int rows, String title, Runnable onClick, int version) {
+        View[] children = new View[rows];
+        for (int i = 0; i < rows; i++) {
+            children[i] = Keyed(i, Row(Text("Row " + i), Text(counter), Button("+", onClick)).gap(8).padding(4));
+        }
+        return Column(
+                Themed(Theme.DARK, Text(title).color(Color.ORANGE)),
+                Center(SizedBox(40, 20, Text("boxed"))),
+                Expanded(Column(children)),
+                memo(version, "memo"),
+                SizedBox(200, 100, LazyColumn(10, i -> Text("item " + i))));
+    }
+
+    private static View memo(int version, String label) {
+        return Memo(() -> Text(label + " " + version), version, label);
+    }
+
+    private static CommandBuffer record(View view) {
+        CommandBuffer buffer = new CommandBuffer();
+        buffer.record(view);
+        return buffer;
+    }
+
+    private static String describe(Element element) {
+        StringBuilder out = new StringBuilder();
+        describe(element, 0, out);
+        return out.toString();
+    }
+
+    private static void describe(Element element, int depth, StringBuilder out) {
+        out.append("  ".repeat(depth)).append(element.getType()).append(" key=").append(element.getKey())
+                .append(" \"").append(element.displayText()).append('"')
+                .append(" size=").append(element.getWidth()).append('x').append(element.getHeight())
+                .append(" flex=").append(element.getFlex()).append(" gap=").append(element.getGap())
+                .append(" style=").append(System.identityHashCode(element.getStyle()))
+                .append(" theme=").append(element.getTheme() == Theme.DARK ? "dark" : "light");
+        Insets padding = element.getPadding();
+        if (padding != null) {
+            out.append(" padding=").append(padding.top).append(',').append(padding.left).append(',')
+                    .append(padding.bottom).append(',').append(padding.right);
+        }
+        if (element.getOnClick() != null) out.append(" onClick=").append(System.identityHashCode(element.getOnClick()));
+        if (element.getState() != null) out.append(" state=").append(System.identityHashCode(element.getState()));
+        if (element.getLazyList() != null) out.append(" items=").append(element.getLazyList().itemCount);
+        out.append('\n');
+        for (Element child : element.getChildren()) describe(child, depth + 1, out);
+    }
+}
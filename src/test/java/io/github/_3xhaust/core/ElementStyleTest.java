@@ -0,0 +1,41 @@
+package io.github._3xhaust.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Equal styles are one shared object for as long as something uses them, and the intern table
+ * lets go of the rest.
+ */
+class ElementStyleTest {
+    private static final int STYLES = 20_000;
+
+    @Test
+    void equalStylesAreShared() {
+        ElementStyle style = ElementStyle.builder().foreground(Color.RED).padding(new Insets(4, 4, 4, 4)).build();
+        assertSame(style, ElementStyle.builder().foreground(new Color(255, 0, 0)).padding(new Insets(4, 4, 4, 4)).build());
+        assertSame(style, style.toBuilder().build());
+        assertNotSame(style, style.toBuilder().minWidth(10).build());
+        assertSame(ElementStyle.EMPTY, ElementStyle.builder().build());
+    }
+
+    @Test
+    void unusedStylesAreCollected() throws InterruptedException {
+        ElementStyle kept = ElementStyle.builder().minWidth(-2).size(STYLES, STYLES).build();
+        int baseline = ElementStyle.internedCount();
+        for (int i = 0; i < STYLES; i++) ElementStyle.builder().minWidth(i).size(i, STYLES).build();
+        assertTrue(ElementStyle.internedCount() > baseline, "styles are interned while in use");
+        for (int attempt = 0; attempt < 50 && ElementStyle.internedCount() > baseline + STYLES / 10; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertTrue(ElementStyle.internedCount() <= baseline + STYLES / 10,
+                ElementStyle.internedCount() + " styles still interned");
+        assertSame(kept, ElementStyle.builder().minWidth(-2).size(STYLES, STYLES).build());
+    }
+}
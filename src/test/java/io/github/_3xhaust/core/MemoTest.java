@@ -0,0 +1,139 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.platform.headless.HeadlessRenderer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github._3xhaust.dsl.Layouts.Column;
+import static io.github._3xhaust.dsl.Layouts.Memo;
+import static io.github._3xhaust.dsl.Layouts.Row;
+import static io.github._3xhaust.dsl.Widgets.Text;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Memo bodies run only when their inputs change, and the recorder reports the bodies it skipped.
+ * Each row is a memo holding a nested memo on the parity of its value.
+ */
+class MemoTest {
+    private static final int ROWS = 50;
+
+    private final int[] values = new int[ROWS];
+    private final HeadlessRenderer renderer = new HeadlessRenderer();
+    private int rows;
+    private int cells;
+    private int skipped;
+    private int rendered;
+
+    @BeforeEach
+    void countMemos() {
+        for (int row = 0; row < ROWS; row++) values[row] = row;
+        RenderMetrics.install(new RenderMetrics() {
+            @Override
+            public void memo(int skipped, int rendered) {
+                MemoTest.this.skipped = skipped;
+                MemoTest.this.rendered = rendered;
+            }
+        });
+    }
+
+    @AfterEach
+    void restoreMetrics() {
+        RenderMetrics.install(null);
+    }
+
+    @Test
+    void mountRendersEveryBody() {
+        renderer.mount(view());
+        assertCounts(ROWS, ROWS, 0, 2 * ROWS);
+    }
+
+    @Test
+    void equalInputsSkipTheBodies() {
+        renderer.mount(view());
+        assertCounts(ROWS, ROWS, 0, 2 * ROWS);
+        for (int update = 0; update < 3; update++) {
+            renderer.update(null, view());
+            // A skipped row carries its nested memo along, so only the rows count
+            assertCounts(0, 0, ROWS, 0);
+        }
+        assertShowsTheValues();
+    }
+
+    @Test
+    void changedInputsRenderOnlyTheirBodies() {
+        renderer.mount(view());
+        assertCounts(ROWS, ROWS, 0, 2 * ROWS);
+        // Same parity: the row renders again, its nested memo is skipped
+        values[10] = 12;
+        renderer.update(null, view());
+        assertCounts(1, 0, ROWS, 1);
+        // Other parity: both render
+        values[20] = 21;
+        values[30] = 33;
+        renderer.update(null, view());
+        assertCounts(2, 2, ROWS - 2, 4);
+        assertShowsTheValues();
+    }
+
+    @Test
+    void customEqualityDecidesWhatChanged() {
+        String[] labels = new String[ROWS];
+        for (int row = 0; row < ROWS; row++) labels[row] = "label " + row;
+        renderer.mount(labelled(labels));
+        // Equal strings that are not the same object render again under identity
+        labels[5] = new String(labels[5]);
+        rows = 0;
+        renderer.update(null, labelled(labels));
+        assertEquals(1, rows);
+        assertEquals(ROWS - 1, skipped);
+    }
+
+    private View view() {
+        View[] children = new View[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            int value = values[row];
+            children[row] = Memo(() -> {
+                rows++;
+                return Row(Text("value " + value), Memo(() -> {
+                    cells++;
+                    return Text(value % 2 == 0 ? "even" : "odd");
+                }, value % 2));
+            }, value);
+        }
+        return Column(children);
+    }
+
+    private View labelled(String[] labels) {
+        View[] children = new View[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            String label = labels[row];
+            children[row] = Memo(() -> {
+                rows++;
+                return Text(label);
+            }, label).equality((a, b) -> a == b);
+        }
+        return Column(children);
+    }
+
+    /**
+     * Checks and resets the body invocations since the last check against the metrics of the
+     * last recording.
+     */
+    private void assertCounts(int rowBodies, int cellBodies, int skippedBodies, int renderedBodies) {
+        assertEquals(rowBodies, rows, "row bodies");
+        assertEquals(cellBodies, cells, "nested bodies");
+        assertEquals(skippedBodies, skipped, "skipped");
+        assertEquals(renderedBodies, rendered, "rendered");
+        rows = 0;
+        cells = 0;
+        skipped = 0;
+        rendered = 0;
+    }
+
+    private void assertShowsTheValues() {
+        HeadlessRenderer fresh = new HeadlessRenderer();
+        fresh.mount(view());
+        assertEquals(fresh.dump(), renderer.dump());
+    }
+}
@@ -0,0 +1,283 @@
+package io.github._3xhaust.core;
+
+import io.github._3xhaust.platform.headless.HeadlessNode;
+import io.github._3xhaust.platform.headless.HeadlessRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static io.github._3xhaust.dsl.Layouts.Column;
+import static io.github._3xhaust.dsl.Layouts.Keyed;
+import static io.github._3xhaust.dsl.Layouts.Row;
+import static io.github._3xhaust.dsl.Layouts.SizedBox;
+import static io.github._3xhaust.dsl.Widgets.Button;
+import static io.github._3xhaust.dsl.Widgets.Text;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Operations the reconciler emits for keyed and unkeyed children, checked against a host that
+ * records them and applies them to a node tree of its own, and random updates checked against
+ * a fresh mount of the same view.
+ */
+class ReconcilerTest {
+    private final ElementRecorder recorder = new ElementRecorder();
+    private final RecordingHost host = new RecordingHost();
+    private Element mounted = Element.root();
+
+    ReconcilerTest() {
+        mounted.setHandle(new Node(label(mounted)));
+    }
+
+    @Test
+    void insertGoesBeforeItsNextSibling() {
+        show(keyed("a", "b", "c"));
+        assertEquals(List.of("create x", "insert x before b"), show(keyed("a", "x", "b", "c")));
+        assertEquals(List.of("create y", "insert y before end"), show(keyed("a", "x", "b", "c", "y")));
+    }
+
+    @Test
+    void onlyChildrenOutsideTheLongestKeptRunMove() {
+        show(keyed("a", "b", "c", "d", "e"));
+        assertEquals(List.of("move b before end"), show(keyed("a", "c", "d", "e", "b")));
+        assertEquals(List.of("move b before a"), show(keyed("b", "a", "c", "d", "e")));
+        // Reversed: only b and a keep their order
+        assertEquals(List.of("move c before b", "move d before c", "move e before d"),
+                show(keyed("e", "d", "c", "b", "a")));
+    }
+
+    @Test
+    void removedChildrenAreTheOnlyOnesTouched() {
+        show(keyed("a", "b", "c", "d"));
+        assertEquals(List.of("remove b", "remove d"), show(keyed("a", "c")));
+        assertEquals(List.of("remove a", "remove c"), show(keyed()));
+    }
+
+    @Test
+    void changedPropsPatchTheNodeInPlace() {
+        show(Column(Keyed("a", Text("one")), Keyed("b", Text("two"))));
+        Node b = host.node("b");
+        assertEquals(List.of("patch b"), show(Column(Keyed("a", Text("one")), Keyed("b", Text("three")))));
+        assertSame(b, host.node("b"));
+        assertEquals("three", b.text);
+        // A move and a patch of the same child
+        assertEquals(List.of("patch b", "move b before a"),
+                show(Column(Keyed("b", Text("four")), Keyed("a", Text("one")))));
+    }
+
+    @Test
+    void aKeyOfAnotherTypeIsReplaced() {
+        show(Column(Keyed("a", Text("a")), Keyed("b", Text("b"))));
+        assertEquals(List.of("remove b", "create b", "insert b before end"),
+                show(Column(Keyed("a", Text("a")), Keyed("b", Button("b", () -> {
+                })))));
+    }
+
+    @Test
+    void duplicateKeysPairOnceAndCreateTheRest() {
+        show(Column(Keyed("a", Text("first")), Keyed("a", Text("second")), Keyed("b", Text("b"))));
+        // The later duplicate is the one paired; the earlier goes
+        assertEquals(List.of("remove a", "patch a"), show(Column(Keyed("a", Text("only")), Keyed("b", Text("b")))));
+        assertEquals(List.of("create a", "insert a before b"),
+                show(Column(Keyed("a", Text("only")), Keyed("a", Text("again")), Keyed("b", Text("b")))));
+        show(Column(Keyed("b", Text("b")), Keyed("a", Text("again")), Keyed("a", Text("only"))));
+    }
+
+    @Test
+    void keyedAndUnkeyedChildrenNeverPair() {
+        show(keyed("a", "b"));
+        assertEquals(List.of("remove a", "remove b", "create b", "insert b before end", "create a", "insert a before b"),
+                show(Column(Text("a"), Text("b"))));
+        assertEquals(List.of("remove a", "remove b", "create b", "insert b before end", "create a", "insert a before b"),
+                show(keyed("a", "b")));
+    }
+
+    @Test
+    void unkeyedChildrenPairByTypeInOrder() {
+        show(Column(Text("a"), Button("ok", () -> {
+        }), Text("b")));
+        assertEquals(List.of("remove ok", "patch b", "patch a"), show(Column(Text("b"), Text("a"))));
+        assertEquals(List.of("create ok", "insert ok before b"), show(Column(Button("ok", () -> {
+        }), Text("b"), Text("a"))));
+    }
+
+    @Test
+    void randomKeyedReordersMatchAFreshMount() {
+        Random random = new Random(1);
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        List<String> keys = new ArrayList<>();
+        Map<String, HeadlessNode> nodes = new HashMap<>();
+        int next = 0;
+        for (int round = 0; round < 2000; round++) {
+            int removals = keys.isEmpty() ? 0 : random.nextInt(Math.min(3, keys.size()) + 1);
+            for (int i = 0; i < removals; i++) keys.remove(random.nextInt(keys.size()));
+            int inserts = random.nextInt(keys.size() < 20 ? 4 : 2);
+            for (int i = 0; i < inserts; i++) keys.add(random.nextInt(keys.size() + 1), "k" + next++);
+            for (int i = random.nextInt(3); i > 0 && keys.size() > 1; i--) {
+                keys.add(random.nextInt(keys.size()), keys.remove(random.nextInt(keys.size())));
+            }
+            View view = keyed(round, keys);
+            if (round == 0) renderer.mount(view);
+            else renderer.update(null, view);
+
+            HeadlessNode column = renderer.getRoot().getChildren().get(0);
+            assertEquals(fresh(view), renderer.dump(), "round " + round);
+            Map<String, HeadlessNode> shown = new HashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                HeadlessNode node = column.getChildren().get(i);
+                if (nodes.containsKey(keys.get(i))) assertSame(nodes.get(keys.get(i)), node, "node of " + keys.get(i));
+                shown.put(keys.get(i), node);
+            }
+            nodes = shown;
+        }
+    }
+
+    @Test
+    void randomUnkeyedUpdatesOfMixedTypesMatchAFreshMount() {
+        Random random = new Random(2);
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        for (int round = 0; round < 500; round++) {
+            View view = mixed(random, 2);
+            if (round == 0) renderer.mount(view);
+            else renderer.update(null, view);
+            assertEquals(fresh(view), renderer.dump(), "round " + round);
+        }
+    }
+
+    /**
+     * Reconciles the mounted tree to {@code view}, checks the host's nodes mirror the new tree,
+     * and returns the operations on the children of its top column.
+     */
+    private List<String> show(View view) {
+        Element next = recorder.record(view, mounted);
+        host.ops.clear();
+        Reconciler.reconcile(mounted, next, host);
+        mounted = next;
+        assertMirrors(next);
+        return new ArrayList<>(host.ops);
+    }
+
+    private static void assertMirrors(Element element) {
+        Node node = (Node) element.getHandle();
+        assertEquals(label(element), node.text);
+        List<Element> children = element.getChildren();
+        assertEquals(children.size(), node.children.size(), "children of " + node.text);
+        for (int i = 0; i < children.size(); i++) {
+            assertSame(children.get(i).getHandle(), node.children.get(i), "child " + i + " of " + node.text);
+            assertMirrors(children.get(i));
+        }
+    }
+
+    private static String fresh(View view) {
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.mount(view);
+        return renderer.dump();
+    }
+
+    /** A column of texts keyed by their own text. */
+    private static View keyed(String... keys) {
+        return keyed(0, List.of(keys));
+    }
+
+    private static View keyed(int round, List<String> keys) {
+        View[] children = new View[keys.size()];
+        for (int i = 0; i < children.length; i++) {
+            String key = keys.get(i);
+            // Every eleventh round changes some texts, so moved children get patched as well
+            children[i] = Keyed(key, Text(round % 11 == 10 && key.hashCode() % 3 == 0 ? key + "'" : key));
+        }
+        return Column(children);
+    }
+
+    private static View mixed(Random random, int depth) {
+        View[] children = new View[random.nextInt(6)];
+        for (int i = 0; i < children.length; i++) {
+            int type = random.nextInt(depth > 0 ? 5 : 3);
+            children[i] = switch (type) {
+                case 0 -> Text("t" + random.nextInt(4));
+                case 1 -> Button("b" + random.nextInt(4), () -> {
+                });
+                case 2 -> SizedBox(random.nextInt(3) * 10, 10);
+                case 3 -> Row(mixed(random, depth - 1));
+                default -> mixed(random, depth - 1);
+            };
+        }
+        return Column(children);
+    }
+
+    /** How operations name an element: by key, or else by its text. */
+    private static String name(Element element) {
+        return element.getKey() != null ? element.getKey().toString() : label(element);
+    }
+
+    private static String label(Element element) {
+        return element.isContainer() ? element.getType().name().toLowerCase() : element.displayText();
+    }
+
+    private static final class Node {
+        String text;
+        final List<Node> children = new ArrayList<>();
+
+        Node(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * Applies the operations to its own nodes and records those on the top column's children.
+     */
+    private static final class RecordingHost implements Reconciler.Host {
+        final List<String> ops = new ArrayList<>();
+        private final Map<String, Node> byName = new HashMap<>();
+
+        Node node(String name) {
+            return byName.get(name);
+        }
+
+        @Override
+        public void create(Element element) {
+            Node node = new Node(label(element));
+            element.setHandle(node);
+            byName.put(name(element), node);
+            record(element, "create " + name(element));
+        }
+
+        @Override
+        public void insert(Element parent, Element child, Element before) {
+            List<Node> children = ((Node) parent.getHandle()).children;
+            children.add(before == null ? children.size() : children.indexOf((Node) before.getHandle()), (Node) child.getHandle());
+            record(child, "insert " + name(child) + " before " + (before == null ? "end" : name(before)));
+        }
+
+        @Override
+        public void move(Element parent, Element child, Element before) {
+            ((Node) parent.getHandle()).children.remove((Node) child.getHandle());
+            List<Node> children = ((Node) parent.getHandle()).children;
+            children.add(before == null ? children.size() : children.indexOf((Node) before.getHandle()), (Node) child.getHandle());
+            record(child, "move " + name(child) + " before " + (before == null ? "end" : name(before)));
+        }
+
+        @Override
+        public void remove(Element parent, Element child) {
+            ((Node) parent.getHandle()).children.remove((Node) child.getHandle());
+            record(child, "remove " + name(child));
+        }
+
+        @Override
+        public void patch(Element previous, Element next) {
+            Node node = (Node) next.getHandle();
+            node.text = label(next);
+            record(next, "patch " + name(next));
+        }
+
+        // The rest of the tree only has to mirror
+        private void record(Element element, String op) {
+            Element parent = element.getParent();
+            if (parent != null && parent.getParent() != null && parent.getParent().getParent() == null) ops.add(op);
+        }
+    }
+}
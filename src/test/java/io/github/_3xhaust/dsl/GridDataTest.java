@@ -0,0 +1,172 @@
+package io.github._3xhaust.dsl;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.LazyList;
+import io.github._3xhaust.core.Renderer;
+import io.github._3xhaust.platform.headless.HeadlessRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static io.github._3xhaust.dsl.Layouts.DataGrid;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sorts and filters checked against {@link Arrays#sort(Object[], Comparator)}, which is stable,
+ * on columns with many ties so stability shows.
+ */
+class GridDataTest {
+    private static final int ROWS = 5000;
+
+    private final int[] ints = new int[ROWS];
+    private final long[] longs = new long[ROWS];
+    private final double[] doubles = new double[ROWS];
+    private final String[] strings = new String[ROWS];
+    private final GridData data;
+
+    GridDataTest() {
+        Random random = new Random(3);
+        for (int row = 0; row < ROWS; row++) {
+            ints[row] = random.nextInt(50) - 25;
+            longs[row] = random.nextInt(40) * 1_000_000_007L - 20_000_000_000L;
+            doubles[row] = random.nextInt(30) / 4.0 - 3;
+            strings[row] = random.nextInt(20) == 0 ? null : "s" + random.nextInt(60);
+        }
+        data = new GridData(GridData.intColumn("int", ints), GridData.longColumn("long", longs),
+                GridData.doubleColumn("double", doubles), GridData.stringColumn("string", strings));
+    }
+
+    @Test
+    void sortsEveryColumnTypeStablyBothWays() {
+        List<Comparator<Integer>> orders = List.of(
+                Comparator.comparingInt(row -> ints[row]),
+                Comparator.comparingLong(row -> longs[row]),
+                Comparator.comparingDouble(row -> doubles[row]),
+                Comparator.comparing(row -> strings[row], Comparator.nullsFirst(Comparator.<String>naturalOrder())));
+        for (int column = 0; column < orders.size(); column++) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                // Sort by another column first, so ties must keep that order
+                int previous = (column + 1) % orders.size();
+                data.sort(previous, true);
+                Integer[] before = visible().toArray(new Integer[0]);
+                assertEquals(Arrays.asList(order(before, orders.get(previous))), Arrays.asList(before), "sorted by " + previous);
+                Integer[] expected = order(before, ascending ? orders.get(column) : orders.get(column).reversed());
+                data.sort(column, ascending);
+                assertEquals(column, data.getSortColumn());
+                assertEquals(ascending, data.isAscending());
+                assertVisible(expected, "column " + column + (ascending ? " ascending" : " descending"));
+            }
+        }
+    }
+
+    @Test
+    void filterKeepsTheSortOrderOfPassingRows() {
+        data.sort(3, false);
+        Integer[] sorted = order(identity(), Comparator.comparing((Integer row) -> strings[row],
+                Comparator.nullsFirst(Comparator.<String>naturalOrder())).reversed());
+        IntPredicate positive = row -> ints[row] > 0;
+        data.filter(positive);
+        Integer[] expected = Arrays.stream(sorted).filter(positive::test).toArray(Integer[]::new);
+        assertTrue(expected.length > 0 && expected.length < ROWS);
+        assertVisible(expected, "filtered");
+
+        // Sorting keeps the filter, and clearing it shows every row again
+        data.sort(0, true);
+        assertTrue(visible().stream().allMatch(positive::test));
+        data.filter(null);
+        assertEquals(ROWS, data.getVisibleRowCount());
+        assertEquals(ROWS, data.getRowCount());
+    }
+
+    @Test
+    void sortAndFilterBumpTheVersion() {
+        int[] notified = {0};
+        data.version().subscribe(version -> notified[0]++);
+        int start = data.version().peek();
+        data.sort(1, true);
+        assertEquals(start + 1, (int) data.version().peek());
+        data.filter(row -> row % 2 == 0);
+        assertEquals(start + 2, (int) data.version().peek());
+        data.filter(null);
+        assertEquals(3, notified[0]);
+    }
+
+    @Test
+    void rejectsColumnsOfDifferentLengths() {
+        assertThrows(IllegalArgumentException.class, () -> new GridData(GridData.intColumn("a", new int[2]),
+                GridData.intColumn("b", new int[3])));
+        assertThrows(IllegalArgumentException.class, GridData::new);
+    }
+
+    @Test
+    void gridRebindsItsRowsWhenAHeaderSorts() {
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.init("grid", 400, 300);
+        renderer.mount(DataGrid(data));
+        renderer.click("int");
+        int smallest = Arrays.stream(ints).min().orElseThrow();
+        assertNotNull(renderer.getRoot().find(Element.Type.TEXT, Integer.toString(smallest)),
+                "first row after sorting ascending");
+        assertNotNull(renderer.getRoot().find(Element.Type.TEXT, " \u25B2"));
+        renderer.click("int");
+        int largest = Arrays.stream(ints).max().orElseThrow();
+        assertNotNull(renderer.getRoot().find(Element.Type.TEXT, Integer.toString(largest)),
+                "first row after sorting descending");
+        assertNull(renderer.getRoot().find(Element.Type.TEXT, " \u25B2"));
+        renderer.unmount(null);
+    }
+
+    @Test
+    void gridsBuiltAnewKeepTheirLists() {
+        // Equal lists let the renderer keep their realized items
+        assertEquals(lists(DataGrid(data)), lists(DataGrid(data)));
+        assertEquals(lists(DataGrid(data).firstColumn(1)), lists(DataGrid(data).firstColumn(1)));
+        assertNotEquals(lists(DataGrid(data)), lists(DataGrid(data).firstColumn(1)));
+        assertNotEquals(lists(DataGrid(data)), lists(DataGrid(data).rowHeight(40)));
+    }
+
+    private static List<LazyList> lists(Layouts.DataGridWidget grid) {
+        List<LazyList> lists = new ArrayList<>();
+        Renderer recorder = (Renderer) Proxy.newProxyInstance(Renderer.class.getClassLoader(),
+                new Class<?>[]{Renderer.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("addLazyList")) lists.add((LazyList) args[0]);
+                    return null;
+                });
+        grid.render(recorder);
+        return lists;
+    }
+
+    private void assertVisible(Integer[] expected, String what) {
+        assertEquals(expected.length, data.getVisibleRowCount(), what);
+        assertEquals(Arrays.asList(expected), visible(), what);
+    }
+
+    private List<Integer> visible() {
+        List<Integer> rows = new ArrayList<>();
+        for (int position = 0; position < data.getVisibleRowCount(); position++) rows.add(data.rowAt(position));
+        return rows;
+    }
+
+    private static Integer[] identity() {
+        Integer[] rows = new Integer[ROWS];
+        for (int row = 0; row < ROWS; row++) rows[row] = row;
+        return rows;
+    }
+
+    private static Integer[] order(Integer[] rows, Comparator<Integer> comparator) {
+        Integer[] sorted = rows.clone();
+        Arrays.sort(sorted, comparator);
+        return sorted;
+    }
+}
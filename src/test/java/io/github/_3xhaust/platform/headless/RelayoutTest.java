@@ -0,0 +1,59 @@
+package io.github._3xhaust.platform.headless;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.LayoutEngine;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.state.State;
+import org.junit.jupiter.api.Test;
+
+import static io.github._3xhaust.dsl.Layouts.Column;
+import static io.github._3xhaust.dsl.Layouts.Row;
+import static io.github._3xhaust.dsl.Widgets.Text;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A bound state changing lays out the path from its text to the nearest relayout boundary, not
+ * the tree around it.
+ */
+class RelayoutTest {
+    private static final int ROWS = 60;
+    private static final int COLUMNS = 20;
+    // Root, column, row and text
+    private static final int DEPTH = 4;
+
+    private final State<String> label = State.of("label");
+
+    @Test
+    void settingABoundStateLaysOutOnlyItsPath() {
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.init("wide", 1600, 1200);
+        renderer.mount(wide());
+        int nodes = renderer.getRoot().count();
+        assertTrue(nodes > ROWS * COLUMNS, "wide tree of " + nodes + " nodes");
+
+        LayoutEngine engine = renderer.getLayoutEngine();
+        for (String text : new String[]{"a much longer label", "x", "label"}) {
+            long before = engine.getLayoutCount();
+            label.set(text);
+            long laidOut = engine.getLayoutCount() - before;
+            assertTrue(laidOut > 0, "the changed text is measured again");
+            assertTrue(laidOut <= DEPTH, laidOut + " elements laid out for '" + text + "' in a tree of " + nodes);
+            assertNotNull(renderer.getRoot().find(Element.Type.TEXT, text), "shows '" + text + "'");
+        }
+        renderer.unmount(null);
+    }
+
+    private View wide() {
+        View[] rows = new View[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            View[] cells = new View[COLUMNS];
+            for (int column = 0; column < COLUMNS; column++) {
+                boolean bound = row == ROWS / 2 && column == COLUMNS / 2;
+                cells[column] = bound ? Text(label) : Text(row + ":" + column);
+            }
+            rows[row] = Row(cells);
+        }
+        return Column(rows);
+    }
+}
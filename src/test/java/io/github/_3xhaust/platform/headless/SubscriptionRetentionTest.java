@@ -0,0 +1,120 @@
+package io.github._3xhaust.platform.headless;
+
+import io.github._3xhaust.core.RenderMetrics;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.state.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static io.github._3xhaust.dsl.Layouts.Column;
+import static io.github._3xhaust.dsl.Layouts.LazyColumn;
+import static io.github._3xhaust.dsl.Layouts.Row;
+import static io.github._3xhaust.dsl.Widgets.Button;
+import static io.github._3xhaust.dsl.Widgets.Text;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mounted trees must let go of the states they bind once they leave the screen: a state that
+ * outlives its view would otherwise keep every old tree reachable through its listeners.
+ */
+class SubscriptionRetentionTest {
+    private static final int CYCLES = 200;
+
+    private final State<Integer> counter = State.of(0);
+    private final State<String> title = State.of("title");
+
+    @AfterEach
+    void restoreMetrics() {
+        RenderMetrics.install(null);
+    }
+
+    @Test
+    void unmountReleasesEveryListener() {
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        int counterBaseline = listeners(counter);
+        int titleBaseline = listeners(title);
+        for (int cycle = 0; cycle < CYCLES; cycle++) {
+            renderer.mount(screen(cycle));
+            assertTrue(listeners(counter) > counterBaseline, "mounted tree should be bound");
+            renderer.unmount(null);
+            assertEquals(counterBaseline, listeners(counter), "listeners after unmount " + cycle);
+            assertEquals(titleBaseline, listeners(title), "listeners after unmount " + cycle);
+        }
+    }
+
+    @Test
+    void remountAndUpdatesReleaseReplacedBindings() {
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        int baseline = listeners(counter);
+        for (int cycle = 0; cycle < CYCLES; cycle++) {
+            View view = screen(cycle);
+            // Mounting over a mounted tree replaces it, and the update drops every bound label
+            renderer.mount(view);
+            renderer.update(view, Column(Text("cycle " + cycle), Button("ok", () -> {
+            })));
+            assertEquals(baseline, listeners(counter), "listeners after update " + cycle);
+        }
+        renderer.mount(screen(0));
+        renderer.mount(screen(1));
+        int once = listeners(counter) - baseline;
+        renderer.mount(screen(2));
+        assertEquals(baseline + once, listeners(counter), "a remount should not stack bindings");
+        renderer.unmount(null);
+        assertEquals(baseline, listeners(counter));
+    }
+
+    @Test
+    void unmountedTreeIsCollectedWhileItsStatesLive() throws InterruptedException {
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.mount(screen(0));
+        WeakReference<HeadlessNode> first = new WeakReference<>(renderer.getRoot().getChildren().get(0));
+        for (int cycle = 1; cycle < CYCLES; cycle++) {
+            renderer.mount(screen(cycle));
+            if (cycle % 2 == 0) renderer.unmount(null);
+        }
+        // The states are still reachable from here, so only their listeners could pin the tree
+        counter.set(counter.peek() + 1);
+        title.set("changed");
+        for (int attempt = 0; attempt < 50 && first.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(first.get(), "the first mounted tree is still reachable");
+    }
+
+    private View screen(int cycle) {
+        return Column(
+                Text(title),
+                Text(counter),
+                Text("cycle " + cycle),
+                LazyColumn(50, index -> Row(Text(counter), Text("item " + index)))
+        );
+    }
+
+    /**
+     * Subscribers of {@code state}, as reported to {@link RenderMetrics} when it changes.
+     */
+    private static <T> int listeners(State<T> state) {
+        int[] notified = {-1};
+        RenderMetrics.install(new RenderMetrics() {
+            @Override
+            public void stateNotified(int listeners) {
+                notified[0] = listeners;
+            }
+        });
+        try {
+            T value = state.peek();
+            // Write a different value and then the original back, so the state ends unchanged
+            state.set(null);
+            int count = notified[0];
+            state.set(value);
+            return count;
+        } finally {
+            RenderMetrics.install(null);
+        }
+    }
+}
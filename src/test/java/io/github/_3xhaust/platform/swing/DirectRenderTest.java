@@ -0,0 +1,23 @@
+package io.github._3xhaust.platform.swing;
+
+import io.github._3xhaust.core.Renderer;
+import org.junit.jupiter.api.Test;
+
+import static io.github._3xhaust.dsl.Layouts.Column;
+import static io.github._3xhaust.dsl.Widgets.Text;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pipeline backends record views on their build thread only; a view rendered straight into one
+ * fails instead of appending to the tree a build may be recording.
+ */
+class DirectRenderTest {
+
+    @Test
+    void renderingIntoAPipelineBackendFails() {
+        for (Renderer renderer : new Renderer[]{new SwingRenderer(), new SwingCanvasRenderer()}) {
+            assertThrows(IllegalStateException.class, () -> Column(Text("direct")).render(renderer));
+            assertThrows(IllegalStateException.class, () -> renderer.addText("direct"));
+        }
+    }
+}
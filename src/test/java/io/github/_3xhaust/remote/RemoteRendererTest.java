@@ -0,0 +1,223 @@
+package io.github._3xhaust.remote;
+
+import io.github._3xhaust.core.Element;
+import io.github._3xhaust.core.Renderer;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.platform.headless.HeadlessNode;
+import io.github._3xhaust.platform.headless.HeadlessRenderer;
+import io.github._3xhaust.state.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static io.github._3xhaust.dsl.Layouts.Center;
+import static io.github._3xhaust.dsl.Layouts.Column;
+import static io.github._3xhaust.dsl.Layouts.Keyed;
+import static io.github._3xhaust.dsl.Layouts.LazyColumn;
+import static io.github._3xhaust.dsl.Layouts.Row;
+import static io.github._3xhaust.dsl.Layouts.SizedBox;
+import static io.github._3xhaust.dsl.Widgets.Button;
+import static io.github._3xhaust.dsl.Widgets.Text;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * A server and a display talking over a loopback socket. The display's headless renderer is only
+ * touched on one thread, as a toolkit renderer would be on its UI thread.
+ */
+class RemoteRendererTest {
+    private static final long TIMEOUT_MS = 5000;
+
+    private final ExecutorService ui = Executors.newSingleThreadExecutor();
+    private final HeadlessRenderer display = new HeadlessRenderer();
+    private Socket displaySocket;
+    private RemoteRenderer server;
+
+    @BeforeEach
+    void connect() throws Exception {
+        try (ServerSocket listener = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            displaySocket = new Socket(InetAddress.getLoopbackAddress(), listener.getLocalPort());
+            server = new RemoteRenderer(listener.accept());
+        }
+        Renderer confined = (Renderer) Proxy.newProxyInstance(Renderer.class.getClassLoader(),
+                new Class<?>[]{Renderer.class}, (proxy, method, args) -> ui.submit(() -> method.invoke(display, args)).get());
+        new RemoteClient(displaySocket, confined).start();
+        server.init("test", 400, 300).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterEach
+    void disconnect() throws Exception {
+        displaySocket.close();
+        server.closed().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        ui.shutdown();
+    }
+
+    @Test
+    void clicksReachHandlersAfterUnchangedUpdates() throws Exception {
+        AtomicInteger clicks = new AtomicInteger();
+        View shown = counter(clicks, "first");
+        server.mount(shown);
+        awaitDisplay(root -> root.find(Element.Type.TEXT, "first") != null);
+        click("add");
+        await(() -> clicks.get() == 1, "click after mount");
+
+        // More unchanged frames than the server remembers, each with new handler objects
+        for (int update = 0; update < 20; update++) {
+            View next = counter(clicks, "first");
+            server.update(shown, next);
+            shown = next;
+        }
+        click("add");
+        await(() -> clicks.get() == 2, "click after unchanged updates");
+
+        View changed = counter(clicks, "second");
+        server.update(shown, changed);
+        awaitDisplay(root -> root.find(Element.Type.TEXT, "second") != null);
+        click("add");
+        await(() -> clicks.get() == 3, "click after a delta");
+    }
+
+    @Test
+    void framesReplayAsTheViewRendersLocally() throws Exception {
+        State<Integer> count = State.of(7);
+        View view = screen(count, List.of("a", "b", "c"));
+        server.mount(view);
+        String expected = local(view);
+        awaitDisplay(root -> root.toString().equals(expected));
+    }
+
+    @Test
+    void updatesApplyAsDeltasToTheShownFrame() throws Exception {
+        State<Integer> count = State.of(0);
+        List<List<String>> steps = List.of(
+                List.of("a", "b", "c", "d"),
+                List.of("a", "b", "changed", "d"),
+                List.of("a", "changed", "d"),
+                List.of("d", "a", "inserted", "changed"),
+                List.of());
+        View shown = screen(count, steps.get(0));
+        server.mount(shown);
+        for (List<String> rows : steps) {
+            View next = screen(count, rows);
+            server.update(shown, next);
+            shown = next;
+            String expected = local(next);
+            awaitDisplay(root -> root.toString().equals(expected));
+        }
+    }
+
+    @Test
+    void boundStatesPushTheirText() throws Exception {
+        State<Integer> count = State.of(1);
+        server.mount(screen(count, List.of("a")));
+        awaitDisplay(root -> root.find(Element.Type.TEXT, "1") != null);
+        count.set(42);
+        awaitDisplay(root -> root.find(Element.Type.TEXT, "42") != null && root.find(Element.Type.TEXT, "1") == null);
+    }
+
+    @Test
+    void clicksRunTheServersHandlersOnTheConnectionThread() throws Exception {
+        List<String> clicked = new CopyOnWriteArrayList<>();
+        server.mount(Row(
+                Button("left", () -> clicked.add("left " + Thread.currentThread().getName())),
+                Button("right", () -> clicked.add("right " + Thread.currentThread().getName()))));
+        awaitDisplay(root -> root.find(Element.Type.BUTTON, "right") != null);
+        click("right");
+        click("left");
+        await(() -> clicked.size() == 2, "both clicks");
+        assertTrue(clicked.get(0).startsWith("right javaui-remote-"), clicked.get(0));
+        assertTrue(clicked.get(1).startsWith("left javaui-remote-"), clicked.get(1));
+    }
+
+    @Test
+    void lazyListItemsAreFetchedAsTheDisplayScrolls() throws Exception {
+        AtomicInteger built = new AtomicInteger();
+        AtomicInteger picked = new AtomicInteger(-1);
+        server.mount(LazyColumn(100_000, index -> {
+            built.incrementAndGet();
+            return Row(Text("item " + index), Button("pick " + index, () -> picked.set(index)));
+        }).itemExtent(30));
+        awaitDisplay(root -> root.find(Element.Type.TEXT, "item 0") != null);
+        onDisplay(() -> {
+            lazy(display.getRoot()).scrollTo(50_000 * 30);
+            return null;
+        });
+        awaitDisplay(root -> root.find(Element.Type.TEXT, "item 50000") != null);
+        click("pick 50001");
+        await(() -> picked.get() == 50_001, "click on a fetched item");
+        assertTrue(built.get() < 1000, "built " + built.get() + " items for two screens");
+    }
+
+    private static View screen(State<Integer> count, List<String> rows) {
+        View[] children = new View[rows.size() + 2];
+        children[0] = Row(Text(count), Center(Button("inc", () -> count.update(value -> value + 1))));
+        children[1] = SizedBox(40, 20, Text("boxed"));
+        for (int i = 0; i < rows.size(); i++) children[i + 2] = Keyed(rows.get(i), Text(rows.get(i)));
+        return Column(children);
+    }
+
+    /**
+     * The tree {@code view} mounts into when rendered in-process.
+     */
+    private static String local(View view) {
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.mount(view);
+        String tree = renderer.getRoot().toString();
+        renderer.unmount(null);
+        return tree;
+    }
+
+    private static HeadlessNode lazy(HeadlessNode node) {
+        if (node.getType() == Element.Type.LAZY) return node;
+        for (HeadlessNode child : node.getChildren()) {
+            HeadlessNode found = lazy(child);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    private static View counter(AtomicInteger clicks, String label) {
+        return Column(Text(label), Button("add", clicks::incrementAndGet));
+    }
+
+    private void click(String button) throws Exception {
+        onDisplay(() -> {
+            display.click(button);
+            return null;
+        });
+    }
+
+    private <T> T onDisplay(Callable<T> task) throws Exception {
+        return ui.submit(task).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void awaitDisplay(Predicate<HeadlessNode> shown) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!onDisplay(() -> shown.test(display.getRoot()))) {
+            if (System.currentTimeMillis() > deadline) fail("display did not show the expected tree:\n" + display.getRoot());
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("timed out waiting for " + what);
+            Thread.sleep(5);
+        }
+    }
+}
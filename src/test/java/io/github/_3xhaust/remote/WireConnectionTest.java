@@ -0,0 +1,223 @@
+package io.github._3xhaust.remote;
+
+import io.github._3xhaust.core.RenderMetrics;
+import io.github._3xhaust.core.View;
+import io.github._3xhaust.platform.headless.HeadlessRenderer;
+import io.github._3xhaust.state.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static io.github._3xhaust.dsl.Layouts.Column;
+import static io.github._3xhaust.dsl.Widgets.Button;
+import static io.github._3xhaust.dsl.Widgets.Text;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * One end of a connection facing a hand-written peer, so the bytes on the wire can be checked
+ * and corrupted.
+ */
+class WireConnectionTest {
+    private static final long TIMEOUT_MS = 5000;
+
+    private final List<Socket> sockets = new ArrayList<>();
+    // Server started by the last connectToServer, peer socket of the last connectToClient
+    private RemoteRenderer lastServer;
+    private Socket lastPeer;
+
+    @AfterEach
+    void closeSockets() throws IOException {
+        for (Socket socket : sockets) socket.close();
+        RenderMetrics.install(null);
+    }
+
+    @Test
+    void deltaRebuildsTheFrameOfTheNewView() throws Exception {
+        Socket peer = connectToServer();
+        RemoteRenderer server = lastServer;
+        DataInputStream in = new DataInputStream(peer.getInputStream());
+        WireReader payload = new WireReader();
+
+        View before = screen("first", 100);
+        server.mount(before);
+        assertEquals(Wire.FRAME, Wire.receive(in, payload));
+        int sequence = payload.readInt();
+        byte[] frame = payload.remaining();
+
+        server.update(before, screen("second", 100));
+        assertEquals(Wire.DELTA, Wire.receive(in, payload));
+        assertTrue(payload.readInt() > sequence, "a delta starts a new frame");
+        int prefix = payload.readInt();
+        int suffix = payload.readInt();
+        byte[] middle = payload.remaining();
+        assertTrue(middle.length < frame.length / 4, "delta of one changed label sent " + middle.length + " bytes");
+        byte[] applied = new byte[prefix + middle.length + suffix];
+        System.arraycopy(frame, 0, applied, 0, prefix);
+        System.arraycopy(middle, 0, applied, prefix, middle.length);
+        System.arraycopy(frame, frame.length - suffix, applied, prefix + middle.length, suffix);
+
+        // A fresh connection numbers handlers and states the same way, so its frame is comparable
+        Socket other = connectToServer();
+        lastServer.mount(screen("second", 100));
+        DataInputStream otherIn = new DataInputStream(other.getInputStream());
+        assertEquals(Wire.FRAME, Wire.receive(otherIn, payload));
+        payload.readInt();
+        assertTrue(Arrays.equals(payload.remaining(), applied), "applied delta differs from the full frame");
+    }
+
+    @Test
+    void serverClosesOnMalformedMessages() throws Exception {
+        byte[][] malformed = {
+                {(byte) Wire.CLICK, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff},
+                {(byte) Wire.CLICK, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff},
+                {(byte) Wire.CLICK, 0, 0, 0, 1, 7},
+                {(byte) Wire.RANGE, 0, 0, 0, 4, 0, 0, 0, 0},
+        };
+        for (byte[] message : malformed) {
+            Socket peer = connectToServer();
+            RemoteRenderer server = lastServer;
+            State<Integer> count = State.of(1);
+            server.mount(Text(count));
+            assertEquals(1, listeners(count), "bound before the bad message");
+            peer.getOutputStream().write(message);
+            peer.getOutputStream().flush();
+            server.closed().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            assertEquals(0, listeners(count), "subscriptions after closing on " + Arrays.toString(message));
+        }
+    }
+
+    @Test
+    void serverClosesOnGarbageCutShort() throws Exception {
+        Random random = new Random(7);
+        for (int attempt = 0; attempt < 50; attempt++) {
+            Socket peer = connectToServer();
+            RemoteRenderer server = lastServer;
+            byte[] garbage = new byte[1 + random.nextInt(64)];
+            random.nextBytes(garbage);
+            peer.getOutputStream().write(garbage);
+            peer.shutdownOutput();
+            server.closed().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    void clientFailsAndClosesOnMalformedMessages() throws Exception {
+        List<byte[]> malformed = new ArrayList<>();
+        WireWriter message = new WireWriter();
+        // Unknown opcode in a frame
+        message.writeInt(1);
+        message.writeByte(99);
+        malformed.add(Wire.encode(Wire.FRAME, message));
+        // Delta before any frame
+        message.reset();
+        message.writeInt(1);
+        message.writeInt(4);
+        message.writeInt(4);
+        malformed.add(Wire.encode(Wire.DELTA, message));
+        // Text whose string runs past the payload
+        message.reset();
+        message.writeInt(1);
+        message.writeByte(Wire.TEXT);
+        message.writeInt(1000);
+        malformed.add(Wire.encode(Wire.FRAME, message));
+        // Length larger than the client accepts
+        malformed.add(new byte[]{(byte) Wire.FRAME, 0x7f, 0, 0, 0});
+
+        for (byte[] bytes : malformed) {
+            Socket displaySocket = connectToClient();
+            Socket server = lastPeer;
+            server.getOutputStream().write(bytes);
+            server.getOutputStream().flush();
+            RemoteClient client = new RemoteClient(displaySocket, new HeadlessRenderer());
+            assertThrows(IOException.class, client::run);
+            assertTrue(displaySocket.isClosed(), "client socket left open");
+        }
+    }
+
+    @Test
+    void clientStopsAtEndOfStream() throws Exception {
+        Socket displaySocket = connectToClient();
+        WireWriter message = new WireWriter();
+        message.writeInt(1);
+        message.writeByte(Wire.TEXT);
+        message.writeString("hello");
+        HeadlessRenderer display = new HeadlessRenderer();
+        DataOutputStream out = new DataOutputStream(lastPeer.getOutputStream());
+        Wire.send(out, Wire.FRAME, message);
+        lastPeer.shutdownOutput();
+        new RemoteClient(displaySocket, display).run();
+        assertTrue(display.getRoot().toString().contains("\"hello\""), display.getRoot().toString());
+        assertTrue(displaySocket.isClosed());
+    }
+
+    private static View screen(String label, int rows) {
+        View[] children = new View[rows + 2];
+        children[0] = Button("ok", () -> {
+        });
+        for (int i = 0; i < rows; i++) children[i + 1] = Text("row " + i);
+        children[rows + 1] = Text(label);
+        return Column(children);
+    }
+
+    /**
+     * Starts a server on one end of a new loopback pair and returns the other end.
+     */
+    private Socket connectToServer() throws IOException {
+        try (ServerSocket listener = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Socket peer = new Socket(InetAddress.getLoopbackAddress(), listener.getLocalPort());
+            Socket accepted = listener.accept();
+            sockets.add(peer);
+            sockets.add(accepted);
+            lastServer = new RemoteRenderer(accepted);
+            return peer;
+        }
+    }
+
+    /**
+     * Returns the display end of a new loopback pair; {@link #lastPeer} is the server end.
+     */
+    private Socket connectToClient() throws IOException {
+        try (ServerSocket listener = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Socket display = new Socket(InetAddress.getLoopbackAddress(), listener.getLocalPort());
+            lastPeer = listener.accept();
+            sockets.add(display);
+            sockets.add(lastPeer);
+            return display;
+        }
+    }
+
+    /**
+     * Subscribers of {@code state}, as reported to {@link RenderMetrics} when it changes.
+     */
+    private static int listeners(State<Integer> state) {
+        int[] notified = {-1};
+        RenderMetrics.install(new RenderMetrics() {
+            @Override
+            public void stateNotified(int listeners) {
+                notified[0] = listeners;
+            }
+        });
+        try {
+            Integer value = state.peek();
+            state.set(value + 1);
+            int count = notified[0];
+            state.set(value);
+            return count;
+        } finally {
+            RenderMetrics.install(null);
+        }
+    }
+}
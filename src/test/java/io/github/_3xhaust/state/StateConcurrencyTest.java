@@ -0,0 +1,130 @@
+package io.github._3xhaust.state;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StateConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int INCREMENTS = 20_000;
+
+    @Test
+    void updateAndGetLosesNoIncrements() throws Exception {
+        State<Integer> counter = State.of(0);
+        AtomicInteger notified = new AtomicInteger();
+        counter.subscribe(value -> notified.incrementAndGet());
+
+        runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS; i++) counter.updateAndGet(v -> v + 1);
+        });
+
+        assertEquals(THREADS * INCREMENTS, (int) counter.peek());
+        // Every increment changed the value, so every one notified
+        assertEquals(THREADS * INCREMENTS, notified.get());
+    }
+
+    @Test
+    void compareAndSetLoopLosesNoIncrements() throws Exception {
+        State<Integer> counter = State.of(0);
+
+        runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS; i++) {
+                Integer current;
+                do {
+                    current = counter.peek();
+                } while (!counter.compareAndSet(current, current + 1));
+            }
+        });
+
+        assertEquals(THREADS * INCREMENTS, (int) counter.peek());
+    }
+
+    @Test
+    void getAndUpdateHandsOutEveryValueOnce() throws Exception {
+        State<Integer> counter = State.of(0);
+        List<BitSet> seen = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) seen.add(new BitSet());
+        AtomicInteger next = new AtomicInteger();
+
+        runConcurrently(() -> {
+            BitSet mine = seen.get(next.getAndIncrement());
+            for (int i = 0; i < INCREMENTS; i++) mine.set(counter.getAndUpdate(v -> v + 1));
+        });
+
+        BitSet all = new BitSet();
+        for (BitSet mine : seen) {
+            assertFalse(all.intersects(mine), "a value was handed to two threads");
+            all.or(mine);
+        }
+        assertEquals(THREADS * INCREMENTS, all.cardinality());
+        assertEquals(THREADS * INCREMENTS, all.nextClearBit(0));
+    }
+
+    @Test
+    void setIsVisibleToOtherThreads() throws Exception {
+        State<int[]> published = State.of(null);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // The reader spins without any other synchronization, so it only terminates and sees
+            // the array's contents if set publishes with volatile semantics
+            Future<Integer> reader = pool.submit(() -> {
+                int[] seen;
+                while ((seen = published.get()) == null) Thread.onSpinWait();
+                return seen[0] + seen[1];
+            });
+            int[] values = {40, 2};
+            published.set(values);
+            assertEquals(42, (int) reader.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void lastWriteWinsAcrossThreads() throws Exception {
+        State<Integer> latest = State.of(-1);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i <= INCREMENTS; i++) latest.set(i);
+        });
+        writer.start();
+        writer.join(10_000);
+        assertFalse(writer.isAlive());
+        // join happens-before this read, so the final write must be observed
+        assertEquals(INCREMENTS, (int) latest.get());
+    }
+
+    /**
+     * Runs {@code body} on {@link #THREADS} threads released together and waits for all of them.
+     */
+    private static void runConcurrently(Runnable body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    body.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}